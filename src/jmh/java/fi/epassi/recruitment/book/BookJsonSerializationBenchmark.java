@@ -0,0 +1,62 @@
+package fi.epassi.recruitment.book;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import fi.epassi.recruitment.api.ApiResponse;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Serialization of a book list response with the same Jackson settings as {@code application.properties}, for the page sizes clients
+ * typically ask for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookJsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private ApiResponse<List<BookDto>> response;
+
+    @Setup
+    public void setUp() {
+        var mapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .setSerializationInclusion(JsonInclude.Include.NON_EMPTY)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        writer = mapper.writer();
+
+        var books = IntStream.range(0, size)
+            .mapToObj(index -> BookDto.builder()
+                .isbn(UUID.randomUUID())
+                .title("Title " + index)
+                .author("Author " + index % 100)
+                .price(BigDecimal.valueOf(index, 2))
+                .build())
+            .toList();
+        response = ApiResponse.ok(books, "next-cursor");
+    }
+
+    @Benchmark
+    public byte[] serializeBookPage() throws Exception {
+        return writer.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,41 @@
+package fi.epassi.recruitment.book;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of copying a single book between its entity and DTO representations, paid once per book on every read and write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookMappingBenchmark {
+
+    private BookModel bookModel;
+    private BookDto bookDto;
+
+    @Setup
+    public void setUp() {
+        var isbn = UUID.randomUUID();
+        bookModel = BookModel.builder().isbn(isbn).title("The Hobbit").author("J.R.R Tolkien").price(new BigDecimal("10.50")).build();
+        bookDto = BookDto.builder().isbn(isbn).title("The Hobbit").author("J.R.R Tolkien").price(new BigDecimal("10.50")).build();
+    }
+
+    @Benchmark
+    public BookDto toBookDto() {
+        return BookService.toBookDto(bookModel);
+    }
+
+    @Benchmark
+    public BookModel toBookModel() {
+        return BookService.toBookModel(bookDto);
+    }
+}
@@ -0,0 +1,282 @@
+package fi.epassi.recruitment.book;
+
+import fi.epassi.recruitment.RecruitmentApplication;
+import fi.epassi.recruitment.statistics.BookStatisticsService;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Repository lookups and searches against a throwaway file based H2 database seeded with {@code books} rows, running through the real Spring
+ * context so that Hibernate, the Flyway schema and its indexes are the ones used in production.
+ * <p>
+ * A copy of the books keyed by the former {@code VARCHAR(36)} ISBN is kept next to the {@code BINARY(16)} table, so that the two key
+ * formats can be compared directly. Their disk footprint is printed when the database has been seeded.
+ * <p>
+ * The books are seeded with batched INSERTs, bypassing the change feed and the statistics counters, and the counters are reconciled
+ * afterward. The writes benchmarked then move counts between counters that hold the seeded books, as they do in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookRepositoryBenchmark {
+
+    private static final int AUTHORS = 1000;
+    private static final int SEED_CHUNK_SIZE = 1000;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1000000"})
+    private int books;
+
+    private Path databaseDirectory;
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private BookService bookService;
+    private JdbcTemplate jdbcTemplate;
+    private EntityManager entityManager;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private UUID[] isbns;
+    private String middleCursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        databaseDirectory = Files.createTempDirectory("book-benchmark");
+        context = new SpringApplicationBuilder(RecruitmentApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:file:" + databaseDirectory.resolve("books") + ";MODE=MYSQL",
+                "--full-text.index-path=" + databaseDirectory.resolve("full-text-index"),
+                "--sales.journal-path=" + databaseDirectory.resolve("sales-journal"),
+                "--logging.level.root=WARN");
+        bookRepository = context.getBean(BookRepository.class);
+        bookService = context.getBean(BookService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+        var transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        seed(readWriteTransaction);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(databaseDirectory);
+    }
+
+    @Benchmark
+    public Object findByIsbn() {
+        return bookRepository.findByIsbn(randomIsbn());
+    }
+
+    @Benchmark
+    public Object findBookDtoByIsbn() {
+        return bookRepository.findBookDtoByIsbn(randomIsbn());
+    }
+
+    @Benchmark
+    public Object getBookByIsbnCached() {
+        return bookService.getBookByIsbn(randomIsbn());
+    }
+
+    @Benchmark
+    public String lookupByBinaryIsbn() {
+        return jdbcTemplate.queryForObject("SELECT `title` FROM `books` WHERE `id` = ?", String.class, toBytes(randomIsbn()));
+    }
+
+    @Benchmark
+    public String lookupByVarcharIsbn() {
+        return jdbcTemplate.queryForObject("SELECT `title` FROM `books_varchar_ids` WHERE `id` = ?", String.class, randomIsbn().toString());
+    }
+
+    @Benchmark
+    public BookPage searchFirstPageByAuthor() {
+        return bookService.getBooks(new BookSearchCriteria(randomAuthor(), null, null, null), null, PAGE_SIZE);
+    }
+
+    /**
+     * The search as it used to run, loading managed entities in a read-write transaction and mapping them to DTOs afterward. Compare its
+     * allocation rate ({@code gc.alloc.rate.norm}) and latency with {@link #searchByAuthorAsProjection()}.
+     */
+    @Benchmark
+    public List<BookDto> searchByAuthorLoadingEntities() {
+        return readWriteTransaction.execute(status -> entityManager
+            .createQuery("select b from BookModel b where b.author = :author order by b.title, b.isbn", BookModel.class)
+            .setParameter("author", randomAuthor())
+            .setMaxResults(PAGE_SIZE)
+            .getResultList().stream()
+            .map(BookService::toBookDto)
+            .toList());
+    }
+
+    @Benchmark
+    public List<BookDto> searchByAuthorAsProjection() {
+        var criteria = new BookSearchCriteria(randomAuthor(), null, null, null);
+        return readOnlyTransaction.execute(status -> bookRepository.search(criteria, null, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public BookPage searchByAuthorPrefix() {
+        var prefix = "author " + ThreadLocalRandom.current().nextInt(AUTHORS);
+        return bookService.getBooks(new BookSearchCriteria(null, null, prefix, null), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public BookPage listFirstPage() {
+        return bookService.getBooks(new BookSearchCriteria(null, null, null, null), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public BookPage listPageInTheMiddle() {
+        return bookService.getBooks(new BookSearchCriteria(null, null, null, null), middleCursor, PAGE_SIZE);
+    }
+
+    /**
+     * The single conditional UPDATE a write of one book was brought down to, the baseline of {@link #lockAndUpdateByIsbn()}.
+     */
+    @Benchmark
+    public int updateByIsbn() {
+        var book = randomUpdate();
+        return readWriteTransaction.execute(status -> bookRepository.updateByIsbn(book));
+    }
+
+    /**
+     * The UPDATE preceded by a locking read of the previous author and price that the statistics counters need, compare with
+     * {@link #readAndUpdateByIsbn()}.
+     */
+    @Benchmark
+    public int lockAndUpdateByIsbn() {
+        var book = randomUpdate();
+        return readWriteTransaction.execute(status -> {
+            bookRepository.findAllForUpdate(List.of(book.getIsbn()));
+            return bookRepository.updateByIsbn(book);
+        });
+    }
+
+    /**
+     * The UPDATE at the version of a plain read of the previous author and price, the two statements of {@link BookService#updateBook}.
+     */
+    @Benchmark
+    public int readAndUpdateByIsbn() {
+        var book = randomUpdate();
+        return readWriteTransaction.execute(status -> {
+            book.setVersion(bookRepository.findBookDtoByIsbn(book.getIsbn()).orElseThrow().version());
+            return bookRepository.updateByIsbn(book);
+        });
+    }
+
+    /**
+     * The whole write of one book, with the change feed and the statistics counters.
+     */
+    @Benchmark
+    public UUID updateBook() {
+        var book = randomUpdate();
+        return bookService.updateBook(BookDto.builder().isbn(book.getIsbn()).title(book.getTitle()).author(book.getAuthor())
+            .price(book.getPrice()).build());
+    }
+
+    private void seed(TransactionTemplate transactionTemplate) {
+        var random = new Random(42);
+        isbns = new UUID[books];
+        for (var start = 0; start < books; start += SEED_CHUNK_SIZE) {
+            var chunk = new ArrayList<BookModel>(SEED_CHUNK_SIZE);
+            for (var index = start; index < Math.min(start + SEED_CHUNK_SIZE, books); index++) {
+                isbns[index] = new UUID(random.nextLong(), random.nextLong());
+                chunk.add(BookModel.builder()
+                    .isbn(isbns[index])
+                    .title("Title " + random.nextInt(books))
+                    .author("Author " + random.nextInt(AUTHORS))
+                    .price(BigDecimal.valueOf(random.nextInt(10_000), 2))
+                    .build());
+            }
+            transactionTemplate.executeWithoutResult(status -> bookRepository.insertAll(chunk));
+        }
+        context.getBean(BookStatisticsService.class).reconcile();
+
+        jdbcTemplate.execute("""
+            CREATE TABLE `books_varchar_ids`
+            (
+                `id`                varchar(36)    NOT NULL,
+                `author`            varchar(64)    NOT NULL,
+                `title`             varchar(128)   NOT NULL,
+                `price`             decimal(10, 2) NOT NULL,
+                `author_normalized` varchar(64)    NOT NULL,
+                `title_normalized`  varchar(128)   NOT NULL,
+                PRIMARY KEY (`id`)
+            )""");
+        jdbcTemplate.execute("""
+            INSERT INTO `books_varchar_ids`
+            SELECT CAST(`id` AS UUID), `author`, `title`, `price`, `author_normalized`, `title_normalized` FROM `books`""");
+        jdbcTemplate.execute("CREATE INDEX `idx_books_varchar_ids_title` ON `books_varchar_ids` (`title`, `id`)");
+        jdbcTemplate.execute("CREATE INDEX `idx_books_varchar_ids_author_title` ON `books_varchar_ids` (`author`, `title`, `id`)");
+        jdbcTemplate.execute("CREATE INDEX `idx_books_varchar_ids_author_normalized` ON `books_varchar_ids` (`author_normalized`)");
+        jdbcTemplate.execute("CREATE INDEX `idx_books_varchar_ids_title_normalized` ON `books_varchar_ids` (`title_normalized`)");
+        jdbcTemplate.execute("CHECKPOINT SYNC");
+
+        middleCursor = middleCursor();
+        System.out.printf("%nDisk space of %d books: BINARY(16) keyed table %d bytes, VARCHAR(36) keyed table %d bytes%n", books,
+            diskSpaceUsed("BOOKS"), diskSpaceUsed("BOOKS_VARCHAR_IDS"));
+    }
+
+    private String middleCursor() {
+        var middle = bookRepository.search(new BookSearchCriteria(null, null, null, null), null, books / 2);
+        return BookCursor.after(middle.get(middle.size() - 1)).encode();
+    }
+
+    private long diskSpaceUsed(String table) {
+        return jdbcTemplate.queryForObject("CALL DISK_SPACE_USED(?)", Long.class, table);
+    }
+
+    private static String randomAuthor() {
+        return "Author " + ThreadLocalRandom.current().nextInt(AUTHORS);
+    }
+
+    private BookModel randomUpdate() {
+        var random = ThreadLocalRandom.current();
+        var book = BookModel.builder()
+            .isbn(randomIsbn())
+            .title("Title " + random.nextInt(books))
+            .author(randomAuthor())
+            .price(BigDecimal.valueOf(random.nextInt(10_000), 2))
+            .updatedAt(Instant.now())
+            .build();
+        book.normalizeSearchColumns();
+        return book;
+    }
+
+    private UUID randomIsbn() {
+        return isbns[ThreadLocalRandom.current().nextInt(isbns.length)];
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array();
+    }
+}
@@ -0,0 +1,91 @@
+package fi.epassi.recruitment.book;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Lookups of random books out of a small and a large catalogue, from the snapshot table and from a map of DTOs as a cache holding the
+ * whole catalogue would keep them. The setup prints the heap taken by each of them. The table builds the book on every lookup, time the
+ * map does not spend, in exchange for half the heap and a few arrays instead of millions of objects for the garbage collector to trace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookSnapshotBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int books;
+
+    private UUID[] isbns;
+    private BookTable table;
+    private Map<UUID, BookDto> map;
+
+    @Setup
+    public void setUp() {
+        isbns = new UUID[books];
+        for (var index = 0; index < books; index++) {
+            isbns[index] = UUID.randomUUID();
+        }
+
+        var before = usedHeap();
+        table = new BookTable(books);
+        for (var index = 0; index < books; index++) {
+            table.putAll(List.of(book(index)));
+        }
+        var tableBytes = usedHeap() - before;
+
+        before = usedHeap();
+        map = new HashMap<>(books * 2);
+        for (var index = 0; index < books; index++) {
+            map.put(isbns[index], book(index));
+        }
+        var mapBytes = usedHeap() - before;
+
+        System.out.printf("%nHeap per %,d books: snapshot table %,d bytes (%,d by its own count), map of DTOs %,d bytes%n",
+            books, tableBytes, table.footprintBytes(), mapBytes);
+    }
+
+    @Benchmark
+    public int getFromTable() {
+        return readFields(table.get(isbns[ThreadLocalRandom.current().nextInt(books)]).orElseThrow());
+    }
+
+    @Benchmark
+    public int getFromMap() {
+        return readFields(map.get(isbns[ThreadLocalRandom.current().nextInt(books)]));
+    }
+
+    /**
+     * Reaches every field of the book, as its serialization to the response does.
+     */
+    private static int readFields(BookDto book) {
+        return book.title().length() + book.author().length() + book.price().scale() + book.updatedAt().getNano();
+    }
+
+    private BookDto book(int index) {
+        return new BookDto(isbns[index], "The Lord of the Rings, volume " + index, "Author number " + index % 10_000,
+            BigDecimal.valueOf(1000 + index % 5000, 2), 0L, Instant.ofEpochSecond(1_700_000_000L + index, 123_456_000));
+    }
+
+    private static long usedHeap() {
+        for (var run = 0; run < 3; run++) {
+            System.gc();
+        }
+        var runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
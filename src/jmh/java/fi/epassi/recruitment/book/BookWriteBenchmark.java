@@ -0,0 +1,148 @@
+package fi.epassi.recruitment.book;
+
+import fi.epassi.recruitment.RecruitmentApplication;
+import fi.epassi.recruitment.statistics.BookStatisticsService;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Throughput of concurrent book writes. Their changes are written with an auto-increment id and sequenced after the commit, so writers
+ * of different books do not wait for each other: {@link #recordChange()}, the outbox write alone, and {@link #updateBook()}, the whole
+ * write, should grow with the threads like {@link #updateByIsbn()}, the UPDATE without a change, instead of stopping at one write per
+ * commit latency as they did when every writer held the {@code book_change_sequence} row until its commit.
+ * <p>
+ * Runs against a throwaway file based H2 database like {@code BookRepositoryBenchmark}. H2 does not force its commits to disk, on MySQL
+ * each write also waits for the flush of the redo log, but no longer for the flushes of the others.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class BookWriteBenchmark {
+
+    private static final int AUTHORS = 1000;
+    private static final int SEED_CHUNK_SIZE = 1000;
+
+    @Param({"100000"})
+    private int books;
+
+    private Path databaseDirectory;
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private BookChangeRepository changeRepository;
+    private BookService bookService;
+    private TransactionTemplate transactionTemplate;
+    private UUID[] isbns;
+
+    @Setup
+    public void setUp() throws IOException {
+        databaseDirectory = Files.createTempDirectory("book-write-benchmark");
+        context = new SpringApplicationBuilder(RecruitmentApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:file:" + databaseDirectory.resolve("books") + ";MODE=MYSQL",
+                "--full-text.index-path=" + databaseDirectory.resolve("full-text-index"),
+                "--sales.journal-path=" + databaseDirectory.resolve("sales-journal"),
+                "--logging.level.root=WARN");
+        bookRepository = context.getBean(BookRepository.class);
+        changeRepository = context.getBean(BookChangeRepository.class);
+        bookService = context.getBean(BookService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        seed();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(databaseDirectory);
+    }
+
+    /**
+     * A transaction that only writes one change to the outbox, as the write of a book does when it commits.
+     */
+    @Benchmark
+    public void recordChange() {
+        var change = new BookChangeModel(null, null, isbns[ThreadLocalRandom.current().nextInt(isbns.length)], BookChangeType.UPDATED,
+            Instant.now());
+        transactionTemplate.executeWithoutResult(status -> changeRepository.insertAll(List.of(change)));
+    }
+
+    /**
+     * The conditional UPDATE of a random book without a change, writes of different books do not wait for each other.
+     */
+    @Benchmark
+    public int updateByIsbn() {
+        var book = randomUpdate();
+        return transactionTemplate.execute(status -> bookRepository.updateByIsbn(book));
+    }
+
+    /**
+     * The whole write of one book, with the change feed and the statistics counters.
+     */
+    @Benchmark
+    public UUID updateBook() {
+        var book = randomUpdate();
+        return bookService.updateBook(BookDto.builder().isbn(book.getIsbn()).title(book.getTitle()).author(book.getAuthor())
+            .price(book.getPrice()).build());
+    }
+
+    /**
+     * Seeded with batched INSERTs like {@code BookRepositoryBenchmark}, then the statistics counters are reconciled with the books.
+     */
+    private void seed() {
+        var random = new Random(42);
+        isbns = new UUID[books];
+        for (var start = 0; start < books; start += SEED_CHUNK_SIZE) {
+            var chunk = new ArrayList<BookModel>(SEED_CHUNK_SIZE);
+            for (var index = start; index < Math.min(start + SEED_CHUNK_SIZE, books); index++) {
+                isbns[index] = new UUID(random.nextLong(), random.nextLong());
+                chunk.add(BookModel.builder()
+                    .isbn(isbns[index])
+                    .title("Title " + random.nextInt(books))
+                    .author("Author " + random.nextInt(AUTHORS))
+                    .price(BigDecimal.valueOf(random.nextInt(10_000), 2))
+                    .build());
+            }
+            transactionTemplate.executeWithoutResult(status -> bookRepository.insertAll(chunk));
+        }
+        context.getBean(BookStatisticsService.class).reconcile();
+    }
+
+    private BookModel randomUpdate() {
+        var random = ThreadLocalRandom.current();
+        var book = BookModel.builder()
+            .isbn(isbns[random.nextInt(isbns.length)])
+            .title("Title " + random.nextInt(books))
+            .author("Author " + random.nextInt(AUTHORS))
+            .price(BigDecimal.valueOf(random.nextInt(10_000), 2))
+            .updatedAt(Instant.now())
+            .build();
+        book.normalizeSearchColumns();
+        return book;
+    }
+}
@@ -0,0 +1,108 @@
+package fi.epassi.recruitment.fulltext;
+
+import fi.epassi.recruitment.book.BookDto;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Searches of a throwaway index of {@code books} books, whose titles and authors are drawn from a vocabulary of made-up words so that the
+ * term dictionary the prefix and typo searches walk through grows like a real one. The database is left out, it is measured by
+ * {@code BookRepositoryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FullTextSearchBenchmark {
+
+    private static final int WORDS = 100_000;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1000000"})
+    private int books;
+
+    private Path indexDirectory;
+    private BookIndex bookIndex;
+    private String[] words;
+
+    @Setup
+    public void setUp() throws IOException {
+        indexDirectory = Files.createTempDirectory("full-text-benchmark");
+        bookIndex = new BookIndex(new FullTextProperties(indexDirectory, 10_000, Duration.ofSeconds(10), Duration.ofSeconds(1)));
+
+        var random = new Random(42);
+        words = new String[WORDS];
+        for (var index = 0; index < WORDS; index++) {
+            words[index] = randomWord(random);
+        }
+        var indexed = bookIndex.rebuild(consumer -> {
+            for (var index = 0; index < books; index++) {
+                consumer.accept(BookDto.builder()
+                    .isbn(new UUID(random.nextLong(), random.nextLong()))
+                    .title(words[random.nextInt(WORDS)] + " " + words[random.nextInt(WORDS)] + " " + words[random.nextInt(WORDS)])
+                    .author(words[random.nextInt(WORDS)] + " " + words[random.nextInt(WORDS)])
+                    .price(BigDecimal.TEN)
+                    .build());
+            }
+        }, 0);
+        System.out.printf("%nIndexed %d books%n", indexed);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        bookIndex.close();
+        FileSystemUtils.deleteRecursively(indexDirectory);
+    }
+
+    @Benchmark
+    public List<UUID> searchWord() throws IOException {
+        return bookIndex.search(randomWord(), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<UUID> searchWordPrefix() throws IOException {
+        return bookIndex.search(randomWord().substring(0, 3), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<UUID> searchMisspelledWord() throws IOException {
+        var word = randomWord();
+        return bookIndex.search(word.substring(0, 2) + 'q' + word.substring(3), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<UUID> searchTwoMisspelledWords() throws IOException {
+        var first = randomWord();
+        var second = randomWord();
+        return bookIndex.search(first.substring(0, first.length() - 1) + " " + second.substring(1), 0, PAGE_SIZE);
+    }
+
+    private String randomWord() {
+        return words[ThreadLocalRandom.current().nextInt(WORDS)];
+    }
+
+    private static String randomWord(Random random) {
+        var word = new char[5 + random.nextInt(6)];
+        for (var index = 0; index < word.length; index++) {
+            word[index] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+}
@@ -0,0 +1,85 @@
+package fi.epassi.recruitment.inventory;
+
+import fi.epassi.recruitment.RecruitmentApplication;
+import fi.epassi.recruitment.book.BookDto;
+import fi.epassi.recruitment.book.BookService;
+import fi.epassi.recruitment.sales.SalesPipeline;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Sales and restocks of a single hot title from several threads at once, all contending for the same stock row. Write-behind sales
+ * only contend for the sales journal, their stock changes are committed in batches by the sales pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class InventoryBenchmark {
+
+    private static final int INITIAL_STOCK = 1_000_000_000;
+
+    private Path databaseDirectory;
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private SalesPipeline salesPipeline;
+    private UUID hotIsbn;
+
+    @Setup
+    public void setUp() throws IOException {
+        databaseDirectory = Files.createTempDirectory("inventory-benchmark");
+        context = new SpringApplicationBuilder(RecruitmentApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:file:" + databaseDirectory.resolve("books") + ";MODE=MYSQL",
+                "--full-text.index-path=" + databaseDirectory.resolve("full-text-index"),
+                "--sales.journal-path=" + databaseDirectory.resolve("sales-journal"),
+                "--sales.buffer-capacity=1000000",
+                "--logging.level.root=WARN");
+        inventoryService = context.getBean(InventoryService.class);
+        salesPipeline = context.getBean(SalesPipeline.class);
+
+        hotIsbn = UUID.randomUUID();
+        context.getBean(BookService.class).createBook(
+            BookDto.builder().isbn(hotIsbn).title("Hot title").author("Hot author").price(BigDecimal.TEN).build());
+        inventoryService.addCopies(hotIsbn, INITIAL_STOCK);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(databaseDirectory);
+    }
+
+    @Benchmark
+    public InventoryDto sellHotTitle() {
+        return inventoryService.takeCopies(hotIsbn, 1);
+    }
+
+    @Benchmark
+    public long sellHotTitleWriteBehind() {
+        return salesPipeline.sell(InventoryService.CENTRAL_WAREHOUSE_ID, hotIsbn, 1);
+    }
+
+    @Benchmark
+    public InventoryDto restockHotTitle() {
+        return inventoryService.addCopies(hotIsbn, 1);
+    }
+}
@@ -0,0 +1,120 @@
+package fi.epassi.recruitment.logging;
+
+import fi.epassi.recruitment.RecruitmentApplication;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Request throughput of the running application over HTTP with Logbook body logging turned off, logging every exchange in full, and in
+ * the {@code production-logging} mode (sampled, truncated, list pages unbuffered). Log events go to the asynchronous file appender of
+ * {@code logback-benchmark.xml}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class HttpLoggingBenchmark {
+
+    private static final int BOOKS = 1000;
+
+    private static final Map<String, List<String>> LOGGING_MODES = Map.of(
+        "off", List.of("--logging.level.org.zalando.logbook=INFO"),
+        "full", List.of("--logging.level.org.zalando.logbook=TRACE", "--http-logging.unbuffered-response-paths="),
+        "production", List.of("--logging.level.org.zalando.logbook=TRACE", "--spring.profiles.active=production-logging"));
+
+    @Param({"off", "full", "production"})
+    private String logging;
+
+    private Path databaseDirectory;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private List<UUID> isbns;
+
+    @Setup
+    public void setUp() throws Exception {
+        databaseDirectory = Files.createTempDirectory("http-logging-benchmark");
+        var args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:file:" + databaseDirectory.resolve("books") + ";MODE=MYSQL",
+            "--full-text.index-path=" + databaseDirectory.resolve("full-text-index"),
+            "--sales.journal-path=" + databaseDirectory.resolve("sales-journal"),
+            "--logging.config=classpath:logback-benchmark.xml"));
+        args.addAll(LOGGING_MODES.get(logging));
+        context = new SpringApplicationBuilder(RecruitmentApplication.class).run(args.toArray(String[]::new));
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/books";
+        seed();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(databaseDirectory);
+    }
+
+    @Benchmark
+    public String getBookByIsbn() throws Exception {
+        var isbn = isbns.get(ThreadLocalRandom.current().nextInt(BOOKS));
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + isbn)).GET());
+    }
+
+    @Benchmark
+    public String listBooks() throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "?limit=100")).GET());
+    }
+
+    @Benchmark
+    public String updateBook() throws Exception {
+        var isbn = isbns.get(ThreadLocalRandom.current().nextInt(BOOKS));
+        return send(HttpRequest.newBuilder(URI.create(baseUrl)).PUT(BodyPublishers.ofString(bookJson(isbn))));
+    }
+
+    private void seed() throws Exception {
+        isbns = IntStream.range(0, BOOKS).mapToObj(index -> UUID.randomUUID()).toList();
+        var books = String.join(",", isbns.stream().map(HttpLoggingBenchmark::bookJson).toList());
+        send(HttpRequest.newBuilder(URI.create(baseUrl + "/bulk")).POST(BodyPublishers.ofString("[" + books + "]")));
+    }
+
+    private String send(HttpRequest.Builder request) throws Exception {
+        var response = client.send(request.header("Content-Type", "application/json").build(), BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected response %d: %s".formatted(response.statusCode(), response.body()));
+        }
+        return response.body();
+    }
+
+    private static String bookJson(UUID isbn) {
+        var random = ThreadLocalRandom.current();
+        return """
+            {"isbn":"%s","title":"Title %d","author":"Author %d","price":%d.%02d}""".formatted(
+            isbn, random.nextInt(BOOKS), random.nextInt(100), random.nextInt(100), random.nextInt(100));
+    }
+}
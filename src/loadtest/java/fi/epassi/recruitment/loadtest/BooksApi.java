@@ -0,0 +1,118 @@
+package fi.epassi.recruitment.loadtest;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import fi.epassi.recruitment.book.BookDto;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Requests of the book endpoints of the application under test, with the JSON conventions of the application.
+ */
+class BooksApi {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(TIMEOUT)
+        .build();
+    private final ObjectMapper mapper = JsonMapper.builder()
+        .findAndAddModules()
+        .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+        .serializationInclusion(NON_NULL)
+        .build();
+    private final String booksUrl;
+
+    BooksApi(URI baseUrl) {
+        this.booksUrl = baseUrl.toString().replaceAll("/+$", "") + "/api/v1/books";
+    }
+
+    HttpRequest getBook(UUID isbn) {
+        return request("/" + isbn).GET().build();
+    }
+
+    HttpRequest listByAuthor(String author) {
+        return request("?author=" + encode(author)).GET().build();
+    }
+
+    HttpRequest searchTitlePrefix(String prefix) {
+        return request("?title_prefix=" + encode(prefix)).GET().build();
+    }
+
+    HttpRequest fullTextSearch(String query) {
+        return request("/full-text?query=" + encode(query)).GET().build();
+    }
+
+    HttpRequest createBook(BookDto book) {
+        return request("").POST(BodyPublishers.ofByteArray(toJson(book))).build();
+    }
+
+    HttpRequest updateBook(BookDto book) {
+        return request("").PUT(BodyPublishers.ofByteArray(toJson(book))).build();
+    }
+
+    /**
+     * Creates the books in one streamed bulk request, which reports only the books that were not created.
+     */
+    HttpRequest createBooks(Collection<BookDto> books) {
+        var ndjson = new ByteArrayOutputStream();
+        books.forEach(book -> {
+            ndjson.writeBytes(toJson(book));
+            ndjson.write('\n');
+        });
+        return request("/bulk").setHeader("Content-Type", "application/x-ndjson")
+            .POST(BodyPublishers.ofByteArray(ndjson.toByteArray()))
+            .timeout(Duration.ofMinutes(10))
+            .build();
+    }
+
+    HttpRequest deleteBooks(Collection<UUID> isbns) {
+        return request("/bulk").method("DELETE", BodyPublishers.ofByteArray(toJson(isbns))).build();
+    }
+
+    HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * @return the {@code response} of the {@code ApiResponse} in the body
+     */
+    JsonNode read(HttpResponse<byte[]> response) throws IOException {
+        return mapper.readTree(response.body()).path("response");
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(booksUrl + path))
+            .header("Content-Type", "application/json")
+            .timeout(TIMEOUT);
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, UTF_8);
+    }
+}
@@ -0,0 +1,135 @@
+package fi.epassi.recruitment.loadtest;
+
+import fi.epassi.recruitment.book.BookDto;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * Catalogue of made-up books that is the same for the same number of books and seed, so that a load test finds the books a seeding
+ * created without reading them back, and runs on different commits compare against the same data.
+ * <p>
+ * Every book is derived from its index alone. Authors write a Zipf-distributed number of books, a few of them hundreds and most of them
+ * one or two. Titles are one to four words of a vocabulary of made-up words, drawn with the Zipf distribution of the words of natural
+ * language, and prices are log-normal around {@value #MEDIAN_PRICE}. The popularity of the books, used by the load test to pick the
+ * books read, is Zipf-distributed over their index.
+ */
+class CatalogueGenerator {
+
+    private static final int WORDS = 20_000;
+    private static final int BOOKS_PER_AUTHOR = 25;
+    private static final double AUTHOR_SKEW = 0.8;
+    private static final double WORD_SKEW = 1.0;
+    private static final double POPULARITY_SKEW = 1.0;
+    private static final double MEDIAN_PRICE = 15;
+    private static final double PRICE_SPREAD = 0.6;
+    private static final String[] SYLLABLES = {
+        "ka", "lo", "mi", "ren", "dor", "sa", "vel", "tha", "quin", "bro", "el", "an", "mor", "ist", "ga", "ne", "ril", "to", "fen", "u",
+        "har", "ly", "os", "pe", "wyn", "ca", "di", "ro", "sel", "ju"};
+
+    private final int books;
+    private final long seed;
+    private final String[] words;
+    private final ZipfDistribution authors;
+    private final ZipfDistribution titleWords;
+    private final ZipfDistribution popularity;
+
+    CatalogueGenerator(int books, long seed) {
+        this.books = books;
+        this.seed = seed;
+        this.words = new String[WORDS];
+        for (var index = 0; index < WORDS; index++) {
+            words[index] = spell(SYLLABLES.length + index);
+        }
+        // Shuffled, so that the most frequent words are not the shortest ones
+        var random = new Random(seed);
+        for (var index = WORDS - 1; index > 0; index--) {
+            var other = random.nextInt(index + 1);
+            var word = words[index];
+            words[index] = words[other];
+            words[other] = word;
+        }
+        this.authors = new ZipfDistribution(Math.max(1, books / BOOKS_PER_AUTHOR), AUTHOR_SKEW);
+        this.titleWords = new ZipfDistribution(WORDS, WORD_SKEW);
+        this.popularity = new ZipfDistribution(books, POPULARITY_SKEW);
+    }
+
+    int books() {
+        return books;
+    }
+
+    /**
+     * @param index of the book, books from {@link #books()} on are not in the seeded catalogue and are used to create books
+     */
+    BookDto book(int index) {
+        var random = random(index);
+        var isbn = new UUID(random.nextLong(), random.nextLong());
+        var author = author(authors.sample(random));
+        var title = new StringBuilder(capitalize(words[titleWords.sample(random)]));
+        for (var word = random.nextInt(4); word > 0; word--) {
+            title.append(' ').append(words[titleWords.sample(random)]);
+        }
+        return new BookDto(isbn, title.toString(), author, price(random), null, null);
+    }
+
+    UUID isbn(int index) {
+        var random = random(index);
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    BigDecimal price(RandomGenerator random) {
+        var price = MEDIAN_PRICE * Math.exp(random.nextGaussian() * PRICE_SPREAD);
+        return BigDecimal.valueOf(Math.max(100, Math.min(Math.round(price * 100), 99_999)), 2);
+    }
+
+    /**
+     * @return index of a book, popular books more often
+     */
+    int popularBook(RandomGenerator random) {
+        return popularity.sample(random);
+    }
+
+    /**
+     * @return author with many books more often
+     */
+    String popularAuthor(RandomGenerator random) {
+        return author(authors.sample(random));
+    }
+
+    /**
+     * @return word of the titles, frequent words more often
+     */
+    String popularWord(RandomGenerator random) {
+        return words[titleWords.sample(random)];
+    }
+
+    private SplittableRandom random(int index) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+    }
+
+    /**
+     * Author of the given rank, with a first name of two syllables and a last name of three.
+     */
+    private static String author(int rank) {
+        var firstNames = SYLLABLES.length * SYLLABLES.length - SYLLABLES.length;
+        return capitalize(spell(SYLLABLES.length + rank % firstNames)) + " "
+            + capitalize(spell(SYLLABLES.length * SYLLABLES.length + rank / firstNames));
+    }
+
+    /**
+     * Spells the number with a syllable per digit in base of the number of syllables, so that different numbers make different words.
+     */
+    private static String spell(int number) {
+        var word = new StringBuilder();
+        for (var rest = number; rest > 0; rest /= SYLLABLES.length) {
+            word.insert(0, SYLLABLES[rest % SYLLABLES.length]);
+        }
+        return word.toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,226 @@
+package fi.epassi.recruitment.loadtest;
+
+import fi.epassi.recruitment.book.BookDto;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Mixed workload of reads, searches and writes of books against the running application, seeded with {@link SeedCatalogue} with the same
+ * {@code books} and {@code seed}. Each of {@code threads} threads sends one request after the other, picking the operation by the weights
+ * of the {@code mix}, and records its latency once the {@code warmup} is over. The results are printed and written to {@code results} as
+ * JSON, keep the file of a baseline run to compare a change against it.
+ * <p>
+ * Without a {@code rate} a thread sends its next request when the previous one returned, which measures the throughput the application
+ * reaches, but hides part of the latency of a stall: requests that would have been sent during the stall are not. With a {@code rate}
+ * the requests are sent on a fixed schedule, and the latency of a request counts from the time it was due, so that the time it waited
+ * for a stalled thread is included.
+ * <p>
+ * Books created by the run are deleted at its end, updates leave new prices behind.
+ */
+public class LoadTest {
+
+    // Latencies above are recorded as this
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(1);
+    private static final int DELETE_BATCH = 1000;
+
+    private final LoadTestSettings settings;
+    private final CatalogueGenerator generator;
+    private final BooksApi api;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final AtomicInteger createdBooks = new AtomicInteger();
+    private final Queue<UUID> created = new ConcurrentLinkedQueue<>();
+
+    LoadTest(LoadTestSettings settings) {
+        this.settings = settings;
+        this.generator = new CatalogueGenerator(settings.books(), settings.seed());
+        this.api = new BooksApi(settings.baseUrl());
+        this.operations = settings.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        var sum = 0;
+        for (var index = 0; index < operations.length; index++) {
+            sum += settings.mix().get(operations[index]);
+            cumulativeWeights[index] = sum;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        var settings = LoadTestSettings.parse(args);
+        var result = new LoadTest(settings).run();
+        result.print(System.out);
+        result.write(settings.results());
+        System.out.printf("Results written to %s%n", settings.results().toAbsolutePath());
+    }
+
+    LoadTestResult run() throws InterruptedException, IOException {
+        var startedAt = Instant.now();
+        var start = System.nanoTime();
+        var measureFrom = start + settings.warmup().toNanos();
+        var end = measureFrom + settings.duration().toNanos();
+        System.out.printf("Running %s for %s after a warmup of %s%n", settings.mix(), settings.duration(), settings.warmup());
+
+        var workers = new ArrayList<Worker>();
+        for (var thread = 0; thread < settings.threads(); thread++) {
+            workers.add(new Worker(thread, start, measureFrom, end));
+        }
+        var threads = workers.stream().map(worker -> Thread.ofPlatform().name("load-test-" + worker.index).start(worker)).toList();
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        var histograms = new EnumMap<Operation, Histogram>(Operation.class);
+        var errors = new EnumMap<Operation, Long>(Operation.class);
+        for (var operation : operations) {
+            histograms.put(operation, new Histogram(MAX_LATENCY, 3));
+            errors.put(operation, 0L);
+        }
+        for (var worker : workers) {
+            worker.histograms.forEach((operation, histogram) -> histograms.get(operation).add(histogram));
+            worker.errors.forEach((operation, count) -> errors.merge(operation, count, Long::sum));
+        }
+        deleteCreatedBooks();
+        return LoadTestResult.of(settings, startedAt, settings.duration(), histograms, errors);
+    }
+
+    private Operation pick(SplittableRandom random) {
+        var weight = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (var index = 0; ; index++) {
+            if (weight < cumulativeWeights[index]) {
+                return operations[index];
+            }
+        }
+    }
+
+    private HttpRequest request(Operation operation, SplittableRandom random) {
+        return switch (operation) {
+            case GET_BOOK -> api.getBook(generator.isbn(generator.popularBook(random)));
+            case LIST_BY_AUTHOR -> api.listByAuthor(generator.popularAuthor(random));
+            case SEARCH_TITLE_PREFIX -> {
+                var word = generator.popularWord(random);
+                yield api.searchTitlePrefix(word.substring(0, Math.min(3, word.length())));
+            }
+            case FULL_TEXT_SEARCH -> api.fullTextSearch(generator.popularWord(random));
+            case UPDATE_BOOK -> {
+                var book = generator.book(generator.popularBook(random));
+                yield api.updateBook(new BookDto(book.isbn(), book.title(), book.author(), generator.price(random), null, null));
+            }
+            case CREATE_BOOK -> {
+                var book = generator.book(generator.books() + createdBooks.getAndIncrement());
+                var isbn = UUID.randomUUID();
+                created.add(isbn);
+                yield api.createBook(new BookDto(isbn, book.title(), book.author(), book.price(), null, null));
+            }
+        };
+    }
+
+    // A failure leaves the books behind, the results of the run are still written
+    private void deleteCreatedBooks() throws InterruptedException {
+        var isbns = List.copyOf(created);
+        for (var from = 0; from < isbns.size(); from += DELETE_BATCH) {
+            try {
+                var response = api.send(api.deleteBooks(isbns.subList(from, Math.min(from + DELETE_BATCH, isbns.size()))));
+                if (response.statusCode() != 200) {
+                    System.err.printf("Deleting the created books failed with %d: %s%n", response.statusCode(), new String(response.body()));
+                    return;
+                }
+            } catch (IOException e) {
+                System.err.printf("Deleting the created books failed: %s%n", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sends requests until the end of the run, on a schedule when a {@code rate} is set, recording the latencies of its own requests.
+     */
+    private final class Worker implements Runnable {
+
+        private final int index;
+        private final long start;
+        private final long measureFrom;
+        private final long end;
+        private final SplittableRandom random;
+        private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+        private final Set<Operation> reported = EnumSet.noneOf(Operation.class);
+
+        Worker(int index, long start, long measureFrom, long end) {
+            this.index = index;
+            this.start = start;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.random = new SplittableRandom(settings.seed() + index);
+            for (var operation : operations) {
+                histograms.put(operation, new Histogram(MAX_LATENCY, 3));
+            }
+        }
+
+        @Override
+        public void run() {
+            // Requests of the threads are spread evenly over the interval between two requests of a thread
+            var interval = settings.rate() > 0 ? TimeUnit.SECONDS.toNanos(settings.threads()) / settings.rate() : 0;
+            var due = start + interval * index / settings.threads();
+            while (true) {
+                if (interval > 0) {
+                    LockSupport.parkNanos(due - System.nanoTime());
+                } else {
+                    due = System.nanoTime();
+                }
+                if (due >= end) {
+                    return;
+                }
+
+                var operation = pick(random);
+                var successful = send(operation);
+                if (due >= measureFrom) {
+                    if (successful) {
+                        histograms.get(operation).recordValue(Math.min(System.nanoTime() - due, MAX_LATENCY));
+                    } else {
+                        errors.merge(operation, 1L, Long::sum);
+                    }
+                }
+                due += interval;
+            }
+        }
+
+        /**
+         * @return whether the request succeeded, a request that could not be built or sent counts as failed like an error response
+         */
+        private boolean send(Operation operation) {
+            try {
+                var response = api.send(request(operation, random));
+                if (response.statusCode() == 200) {
+                    return true;
+                }
+                logError(operation, "%d %s".formatted(response.statusCode(), new String(response.body())));
+            } catch (IOException | RuntimeException e) {
+                logError(operation, e.toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        // Only the first error of each operation of a thread is printed, later ones are counted
+        private void logError(Operation operation, String error) {
+            if (reported.add(operation)) {
+                System.err.printf("%s failed: %s%n", operation.key(), error);
+            }
+        }
+    }
+}
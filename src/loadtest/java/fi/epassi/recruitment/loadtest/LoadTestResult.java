@@ -0,0 +1,85 @@
+package fi.epassi.recruitment.loadtest;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcome of a load test run, with the settings it ran with so that results of different commits can be told apart and compared.
+ * Latencies are in milliseconds.
+ */
+record LoadTestResult(
+    String commit, Instant startedAt, String baseUrl, int books, long seed, int threads, int rate, long durationSeconds,
+    Map<String, Integer> mix, Map<String, OperationResult> operations, OperationResult total) {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    static LoadTestResult of(
+        LoadTestSettings settings, Instant startedAt, Duration measured, Map<Operation, Histogram> histograms,
+        Map<Operation, Long> errors) {
+        var mix = new LinkedHashMap<String, Integer>();
+        settings.mix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+        var operations = new LinkedHashMap<String, OperationResult>();
+        var all = new Histogram(histograms.values().iterator().next().getHighestTrackableValue(), 3);
+        var allErrors = 0L;
+        for (var entry : histograms.entrySet()) {
+            operations.put(entry.getKey().key(), OperationResult.of(entry.getValue(), errors.get(entry.getKey()), measured));
+            all.add(entry.getValue());
+            allErrors += errors.get(entry.getKey());
+        }
+        return new LoadTestResult(settings.commit(), startedAt, settings.baseUrl().toString(), settings.books(), settings.seed(),
+            settings.threads(), settings.rate(), measured.toSeconds(), mix, operations, OperationResult.of(all, allErrors, measured));
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n%-20s %10s %8s %10s %9s %9s %9s %9s %9s%n", "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms",
+            "p99.9 ms", "max ms");
+        operations.forEach((operation, result) -> result.print(out, operation));
+        total.print(out, "total");
+    }
+
+    void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        JsonMapper.builder()
+            .findAndAddModules()
+            .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .build()
+            .writeValue(path.toFile(), this);
+    }
+
+    /**
+     * @param throughput successful requests per second
+     */
+    record OperationResult(
+        long requests, long errors, double throughput, double meanMs, double p50Ms, double p90Ms, double p99Ms, double p999Ms,
+        double maxMs) {
+
+        static OperationResult of(Histogram latencies, long errors, Duration measured) {
+            return new OperationResult(latencies.getTotalCount(), errors, latencies.getTotalCount() / (measured.toNanos() / 1e9),
+                latencies.getMean() / NANOS_PER_MILLI, millis(latencies, 50), millis(latencies, 90), millis(latencies, 99),
+                millis(latencies, 99.9), latencies.getMaxValue() / NANOS_PER_MILLI);
+        }
+
+        void print(PrintStream out, String name) {
+            out.printf("%-20s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, requests, errors, throughput, p50Ms, p90Ms, p99Ms,
+                p999Ms, maxMs);
+        }
+
+        private static double millis(Histogram latencies, double percentile) {
+            return latencies.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+        }
+    }
+}
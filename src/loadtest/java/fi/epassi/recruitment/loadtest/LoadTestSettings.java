@@ -0,0 +1,71 @@
+package fi.epassi.recruitment.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Settings of the seeding and the load test, given as {@code --name=value} arguments, which the Gradle tasks take from the project
+ * properties of the same name.
+ *
+ * @param books    books of the generated catalogue, the load test has to run with the number of books seeded
+ * @param batch    books seeded per bulk request
+ * @param threads  concurrent requests of the load test
+ * @param rate     requests per second the load test sends whatever the latency, or {@code 0} to send each request as soon as the previous
+ *                 one of the thread returned
+ * @param mix      weight of each operation in the workload
+ */
+record LoadTestSettings(
+    URI baseUrl, int books, long seed, int batch, int threads, int rate, Duration warmup, Duration duration, Map<Operation, Integer> mix,
+    Path results, String commit) {
+
+    private static final String DEFAULT_MIX =
+        "get_book=60,list_by_author=15,search_title_prefix=10,full_text_search=5,update_book=8,create_book=2";
+
+    static LoadTestSettings parse(String[] args) {
+        var values = new HashMap<String, String>();
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value instead of " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestSettings(
+            URI.create(values.getOrDefault("baseUrl", "http://localhost:8080")),
+            Integer.parseInt(values.getOrDefault("books", "1000000")),
+            Long.parseLong(values.getOrDefault("seed", "42")),
+            Integer.parseInt(values.getOrDefault("batch", "50000")),
+            Integer.parseInt(values.getOrDefault("threads", "16")),
+            Integer.parseInt(values.getOrDefault("rate", "0")),
+            DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+            DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+            parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+            Path.of(values.getOrDefault("results", "build/reports/loadtest/results.json")),
+            values.getOrDefault("commit", ""));
+    }
+
+    /**
+     * @param mix weights as {@code operation=weight} separated by commas, e.g. {@code get_book=90,update_book=10}
+     */
+    private static Map<Operation, Integer> parseMix(String mix) {
+        var weights = new EnumMap<Operation, Integer>(Operation.class);
+        Arrays.stream(mix.split(",")).map(String::trim).filter(entry -> !entry.isEmpty()).forEach(entry -> {
+            var weight = entry.split("=");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight instead of " + entry);
+            }
+            weights.put(Operation.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(weight[1].trim()));
+        });
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix has no operation with a weight: " + mix);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,26 @@
+package fi.epassi.recruitment.loadtest;
+
+import java.util.Locale;
+
+/**
+ * Requests of the load test workload, named in the mix and the results in lower case.
+ */
+enum Operation {
+
+    // GET /api/v1/books/{isbn} of a popular book
+    GET_BOOK,
+    // GET /api/v1/books?author= of an author with many books
+    LIST_BY_AUTHOR,
+    // GET /api/v1/books?title_prefix= with the start of a frequent word
+    SEARCH_TITLE_PREFIX,
+    // GET /api/v1/books/full-text?query= with a frequent word
+    FULL_TEXT_SEARCH,
+    // PUT /api/v1/books with a new price of a popular book
+    UPDATE_BOOK,
+    // POST /api/v1/books of a book outside the catalogue, deleted again after the run
+    CREATE_BOOK;
+
+    String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,47 @@
+package fi.epassi.recruitment.loadtest;
+
+import fi.epassi.recruitment.book.BookDto;
+import java.util.ArrayList;
+
+/**
+ * Creates the books of the {@link CatalogueGenerator} through the streamed bulk endpoint of the running application, {@code batch} books
+ * per request, which the application inserts in chunks of {@code books.bulk.chunk-size}. Books go through {@code BookService} like any
+ * other write, so the statistics, the change feed and the full-text index follow them.
+ * <p>
+ * Seeding again with the same settings creates only the books that are missing.
+ */
+public class SeedCatalogue {
+
+    public static void main(String[] args) throws Exception {
+        var settings = LoadTestSettings.parse(args);
+        var generator = new CatalogueGenerator(settings.books(), settings.seed());
+        var api = new BooksApi(settings.baseUrl());
+
+        var started = System.nanoTime();
+        var created = 0L;
+        var present = 0L;
+        for (var from = 0; from < settings.books(); from += settings.batch()) {
+            var to = Math.min(from + settings.batch(), settings.books());
+            var books = new ArrayList<BookDto>(to - from);
+            for (var index = from; index < to; index++) {
+                books.add(generator.book(index));
+            }
+
+            var response = api.send(api.createBooks(books));
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with %d: %s".formatted(response.statusCode(), new String(response.body())));
+            }
+            var result = api.read(response);
+            created += result.path("succeeded").asLong();
+            for (var item : result.path("items")) {
+                if (!"CONFLICT".equals(item.path("status").asText())) {
+                    throw new IllegalStateException("Book %s was not created: %s".formatted(item.path("isbn").asText(), item));
+                }
+                present++;
+            }
+            System.out.printf("Seeded %d of %d books%n", to, settings.books());
+        }
+        System.out.printf("Created %d books, %d were present already, in %d s%n", created, present,
+            (System.nanoTime() - started) / 1_000_000_000);
+    }
+}
@@ -0,0 +1,31 @@
+package fi.epassi.recruitment.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ranks {@code 0} to {@code n - 1} drawn with a probability proportional to {@code 1 / (rank + 1)^skew}: a few ranks are drawn very often
+ * and a long tail rarely, like the books of prolific authors, the words of titles or the popularity of books. The cumulative
+ * probabilities are kept in an array, a draw is a binary search in it.
+ */
+class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int n, double skew) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Zipf distribution needs at least one rank");
+        }
+        cumulative = new double[n];
+        var sum = 0.0;
+        for (var rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, skew);
+            cumulative[rank] = sum;
+        }
+    }
+
+    int sample(RandomGenerator random) {
+        var rank = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+        return Math.min(rank >= 0 ? rank : -rank - 1, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,66 @@
+package db.migration;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Steps shared by the expand and contract migrations that move the book ISBN key from its 36 character text form to the 16 byte binary
+ * form. The conversion is done in Java so that it runs unchanged on H2 and MySQL, which do not share a UUID-to-binary SQL function.
+ */
+final class BinaryBookIds {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private BinaryBookIds() {
+    }
+
+    /**
+     * Fills in the binary id of the books that do not have one yet, in keyset-ordered batches so that memory use does not depend on the
+     * table size.
+     */
+    static void copyMissingIds(Connection connection) throws SQLException {
+        try (var select = connection.prepareStatement(
+                 "SELECT `id` FROM `books` WHERE `id` > ? AND `id_binary` IS NULL ORDER BY `id` LIMIT " + BATCH_SIZE);
+             var update = connection.prepareStatement("UPDATE `books` SET `id_binary` = ? WHERE `id` = ?")) {
+            var lastId = "";
+            List<String> ids;
+            do {
+                ids = new ArrayList<>(BATCH_SIZE);
+                select.setString(1, lastId);
+                try (var rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        ids.add(rows.getString(1));
+                    }
+                }
+
+                for (var id : ids) {
+                    update.setBytes(1, toBytes(UUID.fromString(id)));
+                    update.setString(2, id);
+                    update.addBatch();
+                }
+                update.executeBatch();
+
+                if (!ids.isEmpty()) {
+                    lastId = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == BATCH_SIZE);
+        }
+    }
+
+    static void execute(Connection connection, String sql) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .array();
+    }
+}
@@ -0,0 +1,30 @@
+package db.migration;
+
+import static db.migration.BinaryBookIds.copyMissingIds;
+import static db.migration.BinaryBookIds.execute;
+
+import java.sql.SQLException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Expand step of moving the book ISBN key from its 36 character text form to the 16 byte binary form, which makes every key and index
+ * entry less than half the size and lookups byte comparisons instead of collation-aware string comparisons.
+ * <p>
+ * Adds the binary form next to the text one and fills it in, with a unique index of its own, and leaves the text key as it is. The
+ * application maps only the binary primary key of {@link V20240116000001__Drop_text_book_ids}, and Flyway applies both steps on its first
+ * start, so moving to it is a stop-the-world cutover: every instance of the previous version has to be stopped first. Keeping the text key
+ * in this step only makes a failed contract step recoverable, the previous version can be started again on the expanded table and the
+ * contract step converts the books it writes meanwhile.
+ */
+public class V20240116000000__Add_binary_book_ids extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        var connection = context.getConnection();
+
+        execute(connection, "ALTER TABLE `books` ADD COLUMN `id_binary` BINARY(16) NULL");
+        copyMissingIds(connection);
+        execute(connection, "CREATE UNIQUE INDEX `uk_books_id_binary` ON `books` (`id_binary`)");
+    }
+}
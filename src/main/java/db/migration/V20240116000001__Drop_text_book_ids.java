@@ -0,0 +1,35 @@
+package db.migration;
+
+import static db.migration.BinaryBookIds.copyMissingIds;
+import static db.migration.BinaryBookIds.execute;
+
+import java.sql.SQLException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Contract step of moving the book ISBN key to the 16 byte binary form, run right after the expand step while no instance runs. Converts
+ * the books written with only a text key since {@link V20240116000000__Add_binary_book_ids}, then drops the text key and makes the binary
+ * one the primary key, rebuilding the indexes that end with it. Tables added later that reference books must declare their ISBN columns
+ * as {@code BINARY(16)} as well.
+ */
+public class V20240116000001__Drop_text_book_ids extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        var connection = context.getConnection();
+
+        copyMissingIds(connection);
+
+        execute(connection, "DROP INDEX `idx_books_title` ON `books`");
+        execute(connection, "DROP INDEX `idx_books_author_title` ON `books`");
+        execute(connection, "DROP INDEX `uk_books_id_binary` ON `books`");
+        execute(connection, "ALTER TABLE `books` DROP PRIMARY KEY");
+        execute(connection, "ALTER TABLE `books` DROP COLUMN `id`");
+        execute(connection, "ALTER TABLE `books` RENAME COLUMN `id_binary` TO `id`");
+        execute(connection, "ALTER TABLE `books` MODIFY `id` BINARY(16) NOT NULL");
+        execute(connection, "ALTER TABLE `books` ADD PRIMARY KEY (`id`)");
+        execute(connection, "CREATE INDEX `idx_books_title` ON `books` (`title`, `id`)");
+        execute(connection, "CREATE INDEX `idx_books_author_title` ON `books` (`author`, `title`, `id`)");
+    }
+}
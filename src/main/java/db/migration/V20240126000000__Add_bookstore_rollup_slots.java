@@ -0,0 +1,49 @@
+package db.migration;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Stores the rollup slot of every bookstore, which new stores are given when they are created instead of it being derived from their id.
+ * The existing stores keep the slot derived from their id, the one their stock has been rolled up into so far. It is computed in Java, H2
+ * and MySQL do not share a function reading the bits of a binary column.
+ */
+public class V20240126000000__Add_bookstore_rollup_slots extends BaseJavaMigration {
+
+    private static final int ROLLUP_SLOTS = 16;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        var connection = context.getConnection();
+
+        execute(connection, "ALTER TABLE `bookstores` ADD COLUMN `rollup_slot` tinyint NULL");
+
+        var ids = new ArrayList<byte[]>();
+        try (var statement = connection.createStatement();
+             var rows = statement.executeQuery("SELECT `id` FROM `bookstores`")) {
+            while (rows.next()) {
+                ids.add(rows.getBytes(1));
+            }
+        }
+        try (var update = connection.prepareStatement("UPDATE `bookstores` SET `rollup_slot` = ? WHERE `id` = ?")) {
+            for (var id : ids) {
+                update.setInt(1, Math.floorMod(ByteBuffer.wrap(id).getLong(8), ROLLUP_SLOTS));
+                update.setBytes(2, id);
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+
+        execute(connection, "ALTER TABLE `bookstores` MODIFY `rollup_slot` tinyint NOT NULL");
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
 import static org.springframework.http.HttpStatus.OK;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -20,6 +21,9 @@ public class ApiResponse<T> {
     @JsonInclude(NON_NULL)
     private T response;
 
+    @JsonInclude(NON_NULL)
+    private String nextCursor;
+
     public static <T> ApiResponse<T> ok() {
         return buildResponse(OK, null);
     }
@@ -32,11 +36,15 @@ public class ApiResponse<T> {
         return buildResponse(OK, statusMessage, responseObject);
     }
 
+    public static <T> ApiResponse<List<T>> ok(List<T> page, String nextCursor) {
+        return new ApiResponse<>(OK.value(), OK.getReasonPhrase(), page, nextCursor);
+    }
+
     public static <T> ApiResponse<T> buildResponse(HttpStatus status, T responseObject) {
-        return new ApiResponse<>(status.value(), status.getReasonPhrase(), responseObject);
+        return new ApiResponse<>(status.value(), status.getReasonPhrase(), responseObject, null);
     }
 
     public static <T> ApiResponse<T> buildResponse(HttpStatus status, String message, T responseObject) {
-        return new ApiResponse<>(status.value(), message, responseObject);
+        return new ApiResponse<>(status.value(), message, responseObject, null);
     }
 }
\ No newline at end of file
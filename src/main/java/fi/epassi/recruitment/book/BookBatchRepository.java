@@ -0,0 +1,12 @@
+package fi.epassi.recruitment.book;
+
+import java.util.Collection;
+
+public interface BookBatchRepository {
+
+    /**
+     * Inserts the given new books without checking for existing rows first, letting Hibernate group the INSERTs into JDBC batches.
+     * Must be called within a transaction.
+     */
+    void insertAll(Collection<BookModel> books);
+}
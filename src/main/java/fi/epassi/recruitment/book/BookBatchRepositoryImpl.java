@@ -0,0 +1,18 @@
+package fi.epassi.recruitment.book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Collection;
+
+class BookBatchRepositoryImpl implements BookBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertAll(Collection<BookModel> books) {
+        books.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
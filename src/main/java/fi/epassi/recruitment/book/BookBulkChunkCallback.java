@@ -0,0 +1,21 @@
+package fi.epassi.recruitment.book;
+
+import java.util.List;
+
+/**
+ * Work of the caller committed in the transaction of each chunk of a bulk write, so that the caller's record of the chunk is committed if
+ * and only if the chunk is. When the chunk cannot be committed, the bulk write fails and the callback is not run for it or any chunk
+ * after it.
+ */
+@FunctionalInterface
+public interface BookBulkChunkCallback {
+
+    BookBulkChunkCallback NONE = (chunk, results) -> {
+    };
+
+    /**
+     * @param chunk   entries of the chunk
+     * @param results outcome of every entry of the chunk once the transaction commits, in no particular order
+     */
+    void beforeCommit(List<BookBulkItem> chunk, List<BookBulkItemResult> results);
+}
@@ -0,0 +1,17 @@
+package fi.epassi.recruitment.book;
+
+/**
+ * A single entry of a bulk request, either a parsed book or the reason why its input could not be parsed.
+ *
+ * @param index zero-based position of the entry in the JSON array or NDJSON stream
+ */
+public record BookBulkItem(int index, BookDto book, String error) {
+
+    public static BookBulkItem of(int index, BookDto book) {
+        return new BookBulkItem(index, book, null);
+    }
+
+    public static BookBulkItem malformed(int index, String error) {
+        return new BookBulkItem(index, null, error);
+    }
+}
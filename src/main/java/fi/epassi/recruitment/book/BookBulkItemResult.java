@@ -0,0 +1,29 @@
+package fi.epassi.recruitment.book;
+
+import java.util.UUID;
+
+public record BookBulkItemResult(int index, UUID isbn, Status status, String message) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        CONFLICT,
+        INVALID,
+        FAILED;
+
+        public boolean isSuccessful() {
+            return this == CREATED || this == UPDATED || this == DELETED;
+        }
+    }
+
+    static BookBulkItemResult of(BookBulkItem item, Status status) {
+        return of(item, status, null);
+    }
+
+    static BookBulkItemResult of(BookBulkItem item, Status status, String message) {
+        var isbn = item.book() != null ? item.book().isbn() : null;
+        return new BookBulkItemResult(item.index(), isbn, status, message);
+    }
+}
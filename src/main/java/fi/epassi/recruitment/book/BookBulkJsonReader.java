@@ -0,0 +1,51 @@
+package fi.epassi.recruitment.book;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.epassi.recruitment.exception.ApplicationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Reads the JSON array of a bulk request one element at a time, like {@link BookNdjsonReader} reads NDJSON, so that the limit on the
+ * number of books is enforced while the request is read: a request over it is rejected at the first element beyond the limit, before the
+ * rest of the array is deserialized.
+ */
+final class BookBulkJsonReader {
+
+    private BookBulkJsonReader() {
+    }
+
+    /**
+     * @param requireWithinLimit called with the number of elements before each one is read, throws once there are too many
+     */
+    static <T> List<T> readArray(InputStream body, ObjectMapper mapper, Class<T> type, IntConsumer requireWithinLimit) {
+        var elementReader = mapper.readerFor(type);
+        try (var parser = mapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ApplicationException(BAD_REQUEST, "Bulk requests take a JSON array");
+            }
+            var elements = new ArrayList<T>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new ApplicationException(BAD_REQUEST, "The JSON array of the bulk request is not closed");
+                }
+                requireWithinLimit.accept(elements.size() + 1);
+                elements.add(elementReader.readValue(parser));
+            }
+            return elements;
+        } catch (JsonProcessingException e) {
+            throw new ApplicationException(BAD_REQUEST, e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
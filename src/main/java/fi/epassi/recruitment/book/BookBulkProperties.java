@@ -0,0 +1,13 @@
+package fi.epassi.recruitment.book;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param chunkSize number of books written and committed per transaction
+ * @param maxItems  largest JSON array accepted by the bulk endpoints, bigger loads are expected to be streamed as NDJSON
+ */
+@ConfigurationProperties(prefix = "books.bulk")
+public record BookBulkProperties(@DefaultValue("500") int chunkSize, @DefaultValue("10000") int maxItems) {
+
+}
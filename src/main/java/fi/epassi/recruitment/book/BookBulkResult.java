@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.book;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk request. Depending on the request, {@code items} lists every entry or only the entries that were not applied.
+ */
+public record BookBulkResult(int processed, int succeeded, int failed, List<BookBulkItemResult> items) {
+
+}
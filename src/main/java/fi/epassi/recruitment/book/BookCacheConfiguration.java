@@ -0,0 +1,29 @@
+package fi.epassi.recruitment.book;
+
+import static fi.epassi.recruitment.book.BookSearchCache.BOOK_SEARCH_CACHE;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the search cache with its own bounds next to the caches built from {@code spring.cache.caffeine.spec}, so it is published
+ * with the cache metrics and managed through the caches endpoint like them. Pages are weighed by their number of books, since a page of
+ * 1000 books costs as much memory as a thousand single-book pages. Removed pages are dropped from the {@link BookSearchIndex}.
+ */
+@Configuration
+class BookCacheConfiguration {
+
+    @Bean
+    CacheManagerCustomizer<CaffeineCacheManager> bookSearchCacheCustomizer(BookSearchCacheProperties properties, BookSearchIndex index) {
+        return cacheManager -> cacheManager.registerCustomCache(BOOK_SEARCH_CACHE, Caffeine.newBuilder()
+            .maximumWeight(properties.maxBooks())
+            .weigher((key, page) -> Math.max(1, ((BookPage) page).books().size()))
+            .expireAfterWrite(properties.expireAfterWrite())
+            .removalListener((key, page, cause) -> index.remove((BookSearchCache.Key) key, page))
+            .recordStats()
+            .build());
+    }
+}
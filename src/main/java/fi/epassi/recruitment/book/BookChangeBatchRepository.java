@@ -0,0 +1,12 @@
+package fi.epassi.recruitment.book;
+
+import java.util.Collection;
+
+public interface BookChangeBatchRepository {
+
+    /**
+     * Inserts the given new changes with multi-row INSERTs, leaving their ids to the auto-increment and their sequences unset. Hibernate
+     * does not batch the INSERTs of entities with generated ids. Must be called within a transaction.
+     */
+    void insertAll(Collection<BookChangeModel> changes);
+}
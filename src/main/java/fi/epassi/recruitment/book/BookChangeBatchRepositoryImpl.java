@@ -0,0 +1,44 @@
+package fi.epassi.recruitment.book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+
+class BookChangeBatchRepositoryImpl implements BookChangeBatchRepository {
+
+    private static final int ROWS_PER_INSERT = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * The changed-at instant is bound as a parameter like Hibernate binds the attribute of the entity, the ISBN as the bytes of its
+     * {@code BINARY(16)} column.
+     */
+    @Override
+    public void insertAll(Collection<BookChangeModel> changes) {
+        var all = List.copyOf(changes);
+        for (var start = 0; start < all.size(); start += ROWS_PER_INSERT) {
+            var rows = all.subList(start, Math.min(start + ROWS_PER_INSERT, all.size()));
+            var sql = new StringBuilder("INSERT INTO `book_changes` (`isbn`, `type`, `changed_at`) VALUES ");
+            for (var index = 0; index < rows.size(); index++) {
+                sql.append(index == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+            }
+            var insert = entityManager.createNativeQuery(sql.toString());
+            var parameter = 0;
+            for (var change : rows) {
+                insert.setParameter(++parameter, toBytes(change));
+                insert.setParameter(++parameter, change.getType().name());
+                insert.setParameter(++parameter, change.getChangedAt());
+            }
+            insert.executeUpdate();
+        }
+    }
+
+    private static byte[] toBytes(BookChangeModel change) {
+        var isbn = change.getIsbn();
+        return ByteBuffer.allocate(16).putLong(isbn.getMostSignificantBits()).putLong(isbn.getLeastSignificantBits()).array();
+    }
+}
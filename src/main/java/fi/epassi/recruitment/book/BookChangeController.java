@@ -0,0 +1,33 @@
+package fi.epassi.recruitment.book;
+
+import static fi.epassi.recruitment.book.BookController.DEFAULT_PAGE_SIZE;
+import static fi.epassi.recruitment.book.BookController.MAX_PAGE_SIZE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import fi.epassi.recruitment.api.ApiResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Incremental sync of the catalogue: consumers page through the changes after the sequence they have applied last, see
+ * {@link BookChangeService}.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/books/changes", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+public class BookChangeController {
+
+    private final BookChangeService bookChangeService;
+
+    @GetMapping
+    ApiResponse<BookChangePage> getChanges(
+        @RequestParam(value = "since", required = false) @Min(0) Long since,
+        @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        return ApiResponse.ok(bookChangeService.getChanges(since, limit));
+    }
+}
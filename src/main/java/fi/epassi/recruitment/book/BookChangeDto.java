@@ -0,0 +1,11 @@
+package fi.epassi.recruitment.book;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * @param book the book as it is now rather than as it was changed, {@code null} when it has been deleted since
+ */
+public record BookChangeDto(long sequence, UUID isbn, BookChangeType type, Instant changedAt, BookDto book) {
+
+}
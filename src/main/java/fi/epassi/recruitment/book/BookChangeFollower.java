@@ -0,0 +1,147 @@
+package fi.epassi.recruitment.book;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread applying the change feed of {@link BookChangeService} to a copy of the catalogue, every {@code interval} and whenever a write
+ * through this instance asks for it. Writers do not read the feed themselves: they wake the thread up and wait for a refresh started after
+ * their commit, which has read their changes, see {@link BookChangeFollowers}. The writers arriving while a refresh runs are all served by
+ * the next one, so that refreshes run one at a time without writers queuing behind one refresh each. Waiting writers hold no monitor, so
+ * virtual threads unmount while they wait.
+ */
+public class BookChangeFollower {
+
+    private final String name;
+    private final Runnable refresh;
+    private final Duration interval;
+    private final Thread thread;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition requested = lock.newCondition();
+    private final Condition refreshed = lock.newCondition();
+    // Refreshes asked for and the ones served by a completed refresh or released, guarded by the lock
+    private long requests;
+    private long served;
+    private boolean running;
+
+    /**
+     * @param refresh applies the changes after the last applied one, failures are its own to handle, the thread stops on an exception
+     */
+    BookChangeFollower(String name, Duration interval, Runnable refresh) {
+        this.name = name;
+        this.refresh = refresh;
+        this.interval = interval;
+        this.thread = new Thread(this::follow, name);
+        thread.setDaemon(true);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void start() {
+        lock.lock();
+        try {
+            running = true;
+        } finally {
+            lock.unlock();
+        }
+        thread.start();
+    }
+
+    public void stop() {
+        thread.interrupt();
+    }
+
+    /**
+     * Serves the writers waiting so far without a refresh, before a refresh that takes long, such as loading the whole catalogue again.
+     * They return without the guarantee that their write can be read here.
+     */
+    public void releaseWaiting() {
+        lock.lock();
+        try {
+            served = requests;
+            refreshed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wakes the thread up for a refresh.
+     *
+     * @return the request to wait for with {@link #awaitRefresh}
+     */
+    long request() {
+        lock.lock();
+        try {
+            requested.signal();
+            return ++requests;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a refresh started after the request has completed, or the request has been released.
+     *
+     * @return false when the deadline, in {@link System#nanoTime()}, has passed first
+     */
+    boolean awaitRefresh(long request, long deadline) {
+        lock.lock();
+        try {
+            while (running && served < request) {
+                var remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                refreshed.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void follow() {
+        try {
+            while (true) {
+                long request;
+                lock.lock();
+                try {
+                    var timeout = interval.toNanos();
+                    while (requests == served && timeout > 0) {
+                        timeout = requested.awaitNanos(timeout);
+                    }
+                    request = requests;
+                } finally {
+                    lock.unlock();
+                }
+
+                refresh.run();
+
+                lock.lock();
+                try {
+                    served = Math.max(served, request);
+                    refreshed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (InterruptedException e) {
+            // Stopped
+        } finally {
+            lock.lock();
+            try {
+                running = false;
+                refreshed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package fi.epassi.recruitment.book;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The {@link BookChangeFollower}s of this instance, which a write through it waits for on its {@link BooksChangedEvent}. All of them are
+ * woken up before the write waits, so that they refresh at the same time and the write waits for the slowest one instead of for each in
+ * turn. The wait is bounded by {@code books.changes.max-follower-wait}: a write still waiting then returns without the guarantee that it
+ * can be read from the followers behind, the catalogue snapshot reads from the database until it has caught up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookChangeFollowers {
+
+    private final BookChangeProperties properties;
+    private final List<BookChangeFollower> followers = new CopyOnWriteArrayList<>();
+
+    /**
+     * A follower that writes wait for once it is started.
+     */
+    public BookChangeFollower create(String name, Duration interval, Runnable refresh) {
+        var follower = new BookChangeFollower(name, interval, refresh);
+        followers.add(follower);
+        return follower;
+    }
+
+    /**
+     * Within a transaction the changes of the caller are not committed yet and a refresh cannot read them, so the followers are only woken
+     * up, the next interval reads them.
+     */
+    @EventListener
+    void onBooksChanged(BooksChangedEvent event) {
+        var waited = List.copyOf(followers);
+        var requests = new long[waited.size()];
+        for (var index = 0; index < requests.length; index++) {
+            requests[index] = waited.get(index).request();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        var deadline = System.nanoTime() + properties.maxFollowerWait().toNanos();
+        for (var index = 0; index < requests.length; index++) {
+            var follower = waited.get(index);
+            if (!follower.awaitRefresh(requests[index], deadline)) {
+                log.warn("The {} has not applied a write within {}, returning before it can be read there", follower.name(),
+                    properties.maxFollowerWait());
+            }
+        }
+    }
+}
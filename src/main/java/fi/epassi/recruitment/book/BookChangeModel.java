@@ -0,0 +1,45 @@
+package fi.epassi.recruitment.book;
+
+import static java.sql.Types.BINARY;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+
+/**
+ * A mutation of a book in the outbox. Rows are inserted with an auto-increment id by {@link BookChangeBatchRepository}, and given their
+ * sequence in the feed by {@link BookChangeService} once committed, the sequence is null until then.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "book_changes")
+public class BookChangeModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long sequence;
+
+    @Column(name = "isbn", nullable = false, columnDefinition = "BINARY(16)")
+    @JdbcTypeCode(value = BINARY)
+    private UUID isbn;
+
+    @Enumerated(EnumType.STRING)
+    private BookChangeType type;
+
+    private Instant changedAt;
+}
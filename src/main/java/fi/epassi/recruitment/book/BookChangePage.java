@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.book;
+
+import java.util.List;
+
+/**
+ * Changes in the order of their sequence, together with the sequence to ask for the following changes with.
+ */
+public record BookChangePage(List<BookChangeDto> changes, long nextSince) {
+
+}
@@ -0,0 +1,20 @@
+package fi.epassi.recruitment.book;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param retention          how long changes are kept, consumers further behind have to export the catalogue again
+ * @param compactionInterval time between two removals of expired and superseded changes
+ * @param sequencingInterval time between two sequencings of the committed changes, bounding how long a change is not in the feed
+ * @param maxFollowerWait    longest a write waits for the followers of this instance to apply it before returning
+ */
+@ConfigurationProperties(prefix = "books.changes")
+public record BookChangeProperties(
+    @DefaultValue("7d") Duration retention,
+    @DefaultValue("1h") Duration compactionInterval,
+    @DefaultValue("200ms") Duration sequencingInterval,
+    @DefaultValue("2s") Duration maxFollowerWait) {
+
+}
@@ -0,0 +1,73 @@
+package fi.epassi.recruitment.book;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface BookChangeRepository extends JpaRepository<BookChangeModel, Long>, BookChangeBatchRepository {
+
+    List<BookChangeModel> findBySequenceGreaterThanOrderBySequence(long sequence, Limit limit);
+
+    /**
+     * @return committed changes not sequenced yet, in the order they were written
+     */
+    List<BookChangeModel> findBySequenceIsNullOrderById(Limit limit);
+
+    /**
+     * @return high-water mark of the feed, every change up to it is sequenced and committed
+     */
+    @Query(nativeQuery = true, value = "SELECT `last_sequence` FROM `book_change_sequence` WHERE `id` = 1")
+    long findLastSequence();
+
+    /**
+     * Reads the high-water mark and locks it until the transaction ends, so that one sequencing runs at a time over all instances.
+     */
+    @Query(nativeQuery = true, value = "SELECT `last_sequence` FROM `book_change_sequence` WHERE `id` = 1 FOR UPDATE")
+    long lockLastSequence();
+
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE `book_change_sequence` SET `last_sequence` = :sequence WHERE `id` = 1")
+    int updateLastSequence(@Param("sequence") long sequence);
+
+    /**
+     * @return last sequence removed by the retention, changes after it are all in the outbox but for the superseded ones
+     */
+    @Query(nativeQuery = true, value = "SELECT `expired_sequence` FROM `book_change_sequence` WHERE `id` = 1")
+    long findExpiredSequence();
+
+    @Query("select max(c.sequence) from BookChangeModel c where c.changedAt < :before")
+    Long findLastSequenceChangedBefore(@Param("before") Instant before);
+
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        UPDATE `book_change_sequence` SET `expired_sequence` = GREATEST(`expired_sequence`, :sequence) WHERE `id` = 1
+        """)
+    int expireUpTo(@Param("sequence") long sequence);
+
+    @Query("select c.sequence from BookChangeModel c where c.sequence <= :sequence order by c.sequence")
+    List<Long> findSequencesUpTo(@Param("sequence") long sequence, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from BookChangeModel c where c.sequence in :sequences")
+    int deleteBySequences(@Param("sequences") Collection<Long> sequences);
+
+    /**
+     * Changes after the given sequence of books changed again later. They are selected first and deleted by sequence, MySQL does not
+     * delete from a table that the condition of the delete reads. Batches go on from the last sequence of the previous one, so that each
+     * starts where the previous one stopped instead of scanning the changes before it again.
+     */
+    @Query("""
+        select c.sequence from BookChangeModel c
+        where c.sequence > :after and exists (select 1 from BookChangeModel l where l.isbn = c.isbn and l.sequence > c.sequence)
+        order by c.sequence
+        """)
+    List<Long> findSupersededSequences(@Param("after") long after, Limit limit);
+}
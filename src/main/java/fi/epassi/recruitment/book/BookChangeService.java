@@ -0,0 +1,235 @@
+package fi.epassi.recruitment.book;
+
+import static java.util.stream.Collectors.toMap;
+
+import fi.epassi.recruitment.exception.BookChangesExpiredException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Feed of the book mutations for consumers that keep a copy of the catalogue in sync: a consumer exports the catalogue once and from then
+ * on reads the changes after the last sequence it has applied.
+ * <p>
+ * Changes are written to an outbox table in the transaction of the mutation, so a change is recorded if and only if its mutation is
+ * committed. They are written with an auto-increment id and without a sequence, writers of books lock nothing but their own rows. The
+ * committed changes are given their sequences afterward by {@link #assignSequences()}, every {@code books.changes.sequencing-interval}
+ * and before the followers of this instance read the feed. A sequencing locks the counter row for its own short transaction, gives the
+ * changes it sees committed the sequences after the high-water mark in the order of their ids, and moves the mark to the last one. The
+ * feed only serves the changes up to the mark, which are all committed, so a consumer never skips a change that becomes visible after it
+ * read a later one. A change becomes visible in the feed up to one sequencing interval after its commit.
+ * <p>
+ * The outbox is bounded: changes older than {@code books.changes.retention} are removed, and so are the changes of books that have been
+ * changed again later, since every change carries the current state of its book.
+ */
+@Slf4j
+@Service
+public class BookChangeService {
+
+    private static final int COMPACTION_BATCH_SIZE = 1000;
+    private static final int SEQUENCING_BATCH_SIZE = 1000;
+
+    private final BookChangeRepository changeRepository;
+    private final BookRepository bookRepository;
+    private final BookChangeProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService compactor;
+    private final ScheduledExecutorService sequencer;
+
+    public BookChangeService(
+        BookChangeRepository changeRepository, BookRepository bookRepository, BookChangeProperties properties,
+        TransactionTemplate transactionTemplate) {
+        this.changeRepository = changeRepository;
+        this.bookRepository = bookRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.compactor = Executors.newSingleThreadScheduledExecutor(task -> new Thread(task, "book-change-compactor"));
+        this.sequencer = Executors.newSingleThreadScheduledExecutor(task -> new Thread(task, "book-change-sequencer"));
+    }
+
+    @PostConstruct
+    void start() {
+        var interval = properties.compactionInterval().toMillis();
+        compactor.scheduleWithFixedDelay(this::compactSafely, interval, interval, TimeUnit.MILLISECONDS);
+        var sequencingInterval = properties.sequencingInterval().toMillis();
+        sequencer.scheduleWithFixedDelay(this::assignSequencesSafely, sequencingInterval, sequencingInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        compactor.shutdownNow();
+        sequencer.shutdownNow();
+    }
+
+    /**
+     * Records the changes of the books in the current transaction, they are written when it commits and dropped when it rolls back.
+     */
+    void record(@NonNull BookChangeType type, Collection<UUID> isbns) {
+        if (isbns.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Book changes have to be recorded in the transaction of the change");
+        }
+        var pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        var now = Instant.now();
+        for (var isbn : isbns) {
+            pending.changes.add(new BookChangeModel(null, null, isbn, type, now));
+        }
+    }
+
+    /**
+     * Without {@code since}, responds with the current position of the feed and no changes, for a consumer about to export the catalogue.
+     *
+     * @throws BookChangesExpiredException when changes after {@code since} have been removed by the retention
+     */
+    @Transactional(readOnly = true)
+    public BookChangePage getChanges(Long since, int limit) {
+        if (since == null) {
+            return new BookChangePage(List.of(), changeRepository.findLastSequence());
+        }
+
+        var changes = changeRepository.findBySequenceGreaterThanOrderBySequence(since, Limit.of(limit));
+        // Read after the changes, a retention committed in between is noticed rather than leaving a gap in the page
+        var expiredSequence = changeRepository.findExpiredSequence();
+        if (since < expiredSequence) {
+            throw new BookChangesExpiredException(since, expiredSequence);
+        }
+
+        var isbns = changes.stream().filter(change -> change.getType() != BookChangeType.DELETED).map(BookChangeModel::getIsbn).toList();
+        var books = isbns.isEmpty()
+            ? Map.<UUID, BookDto>of()
+            : bookRepository.findBookDtosByIsbns(isbns).stream().collect(toMap(BookDto::isbn, Function.identity()));
+        var page = changes.stream()
+            .map(change -> new BookChangeDto(change.getSequence(), change.getIsbn(), change.getType(), change.getChangedAt(),
+                books.get(change.getIsbn())))
+            .toList();
+        return new BookChangePage(page, page.isEmpty() ? since : page.get(page.size() - 1).sequence());
+    }
+
+    /**
+     * Gives the committed changes not sequenced yet the sequences after the high-water mark, in batches that each lock the counter row
+     * for their own transaction only. A change committed while a batch reads is sequenced by the next sequencing.
+     *
+     * @return number of sequenced changes
+     */
+    public int assignSequences() {
+        var sequenced = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                // Locked before the changes are read, so that they are read as committed when no other sequencing can run
+                var sequence = changeRepository.lockLastSequence();
+                var changes = changeRepository.findBySequenceIsNullOrderById(Limit.of(SEQUENCING_BATCH_SIZE));
+                if (changes.isEmpty()) {
+                    return 0;
+                }
+                for (var change : changes) {
+                    change.setSequence(++sequence);
+                }
+                changeRepository.flush();
+                changeRepository.updateLastSequence(sequence);
+                return changes.size();
+            });
+            sequenced += batch;
+        } while (batch == SEQUENCING_BATCH_SIZE);
+        return sequenced;
+    }
+
+    /**
+     * Removes the changes beyond the retention, then the superseded changes. The position consumers have to be at to read on is moved
+     * first in a short transaction of its own, and the expired changes are deleted after it in batches like the superseded ones, so that
+     * the sequencing does not wait for the whole delete.
+     *
+     * @return number of removed changes
+     */
+    public int compact() {
+        var cutoff = Instant.now().minus(properties.retention());
+        var expired = 0;
+        var lastExpired = changeRepository.findLastSequenceChangedBefore(cutoff);
+        if (lastExpired != null) {
+            changeRepository.expireUpTo(lastExpired);
+            List<Long> expiredSequences;
+            do {
+                expiredSequences = changeRepository.findSequencesUpTo(lastExpired, Limit.of(COMPACTION_BATCH_SIZE));
+                if (!expiredSequences.isEmpty()) {
+                    expired += changeRepository.deleteBySequences(expiredSequences);
+                }
+            } while (expiredSequences.size() == COMPACTION_BATCH_SIZE);
+        }
+
+        var superseded = 0;
+        var after = 0L;
+        List<Long> sequences;
+        do {
+            sequences = changeRepository.findSupersededSequences(after, Limit.of(COMPACTION_BATCH_SIZE));
+            if (!sequences.isEmpty()) {
+                changeRepository.deleteBySequences(sequences);
+                after = sequences.get(sequences.size() - 1);
+            }
+            superseded += sequences.size();
+        } while (sequences.size() == COMPACTION_BATCH_SIZE);
+
+        if (expired + superseded > 0) {
+            log.info("Removed {} expired and {} superseded book changes", expired, superseded);
+        }
+        return expired + superseded;
+    }
+
+    private void assignSequencesSafely() {
+        try {
+            assignSequences();
+        } catch (RuntimeException e) {
+            log.error("Failed to sequence the book changes, retrying in {}", properties.sequencingInterval(), e);
+        }
+    }
+
+    private void compactSafely() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.error("Failed to compact the book changes, retrying in {}", properties.compactionInterval(), e);
+        }
+    }
+
+    /**
+     * Changes recorded in a transaction, written when it commits, so that their ids follow the order in which the transactions writing
+     * the same book commit.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<BookChangeModel> changes = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            changeRepository.insertAll(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BookChangeService.this);
+        }
+    }
+}
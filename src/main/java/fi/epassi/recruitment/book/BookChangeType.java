@@ -0,0 +1,16 @@
+package fi.epassi.recruitment.book;
+
+public enum BookChangeType {
+    CREATED,
+    UPDATED,
+    DELETED;
+
+    static BookChangeType of(BookBulkItemResult.Status status) {
+        return switch (status) {
+            case CREATED -> CREATED;
+            case UPDATED -> UPDATED;
+            case DELETED -> DELETED;
+            default -> throw new IllegalArgumentException("Bulk status %s is not a change".formatted(status));
+        };
+    }
+}
@@ -1,10 +1,17 @@
 package fi.epassi.recruitment.book;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import fi.epassi.recruitment.api.ApiResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
@@ -17,6 +24,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Slf4j
 @RestController
@@ -24,13 +32,27 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping(path = "/api/v1/books", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
 public class BookController {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final BookService bookService;
+    private final ObjectMapper mapper;
 
     @GetMapping
     ApiResponse<List<BookDto>> getBooks(
         @RequestParam(value = "author", required = false) String author,
-        @RequestParam(value = "title", required = false) String title) {
-        return ApiResponse.ok(bookService.getBooks(author, title));
+        @RequestParam(value = "title", required = false) String title,
+        @RequestParam(value = "author_prefix", required = false) String authorPrefix,
+        @RequestParam(value = "title_prefix", required = false) String titlePrefix,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit,
+        WebRequest request) {
+        var criteria = new BookSearchCriteria(author, title, authorPrefix, titlePrefix);
+        var page = bookService.getBooks(criteria, cursor, limit);
+        if (request.checkNotModified(BookETags.of(page))) {
+            return null;
+        }
+        return ApiResponse.ok(page.books(), page.nextCursor());
     }
 
     @PostMapping
@@ -45,9 +67,41 @@ public class BookController {
         return ApiResponse.ok(ret);
     }
 
+    @PostMapping("/bulk")
+    ApiResponse<BookBulkResult> createBooks(InputStream body) {
+        var books = BookBulkJsonReader.readArray(body, mapper, BookDto.class, bookService::requireWithinBulkLimit);
+        return ApiResponse.ok(bookService.createBooks(toBulkItems(books), true));
+    }
+
+    @PostMapping(path = "/bulk", consumes = APPLICATION_NDJSON_VALUE)
+    ApiResponse<BookBulkResult> createBooksFromStream(InputStream body) {
+        return ApiResponse.ok(bookService.createBooks(new BookNdjsonReader(body, mapper), false));
+    }
+
+    @PutMapping("/bulk")
+    ApiResponse<BookBulkResult> updateBooks(InputStream body) {
+        var books = BookBulkJsonReader.readArray(body, mapper, BookDto.class, bookService::requireWithinBulkLimit);
+        return ApiResponse.ok(bookService.updateBooks(toBulkItems(books), true));
+    }
+
+    @PutMapping(path = "/bulk", consumes = APPLICATION_NDJSON_VALUE)
+    ApiResponse<BookBulkResult> updateBooksFromStream(InputStream body) {
+        return ApiResponse.ok(bookService.updateBooks(new BookNdjsonReader(body, mapper), false));
+    }
+
+    @DeleteMapping("/bulk")
+    ApiResponse<BookBulkResult> deleteBooks(InputStream body) {
+        var isbns = BookBulkJsonReader.readArray(body, mapper, UUID.class, bookService::requireWithinBulkLimit);
+        return ApiResponse.ok(bookService.deleteBooks(isbns));
+    }
+
     @GetMapping("/{isbn}")
-    ApiResponse<BookDto> getBookByIsbn(@PathVariable("isbn") @Validated UUID isbn) {
-        return ApiResponse.ok(bookService.getBookByIsbn(isbn));
+    ApiResponse<BookDto> getBookByIsbn(@PathVariable("isbn") @Validated UUID isbn, WebRequest request) {
+        var book = bookService.getBookByIsbn(isbn);
+        if (request.checkNotModified(BookETags.of(book), book.updatedAt().toEpochMilli())) {
+            return null;
+        }
+        return ApiResponse.ok(book);
     }
 
     @DeleteMapping("/{isbn}")
@@ -56,4 +110,8 @@ public class BookController {
         return ApiResponse.ok();
     }
 
+    private static Iterator<BookBulkItem> toBulkItems(List<BookDto> books) {
+        return IntStream.range(0, books.size()).mapToObj(index -> BookBulkItem.of(index, books.get(index))).iterator();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package fi.epassi.recruitment.book;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import fi.epassi.recruitment.exception.InvalidCursorException;
+import java.util.Base64;
+import java.util.UUID;
+import lombok.NonNull;
+
+/**
+ * Opaque keyset position of the last book returned in a page. Books are listed in {@code (title, isbn)} order, so the next page starts
+ * strictly after this pair and can be served by an index seek instead of an OFFSET scan.
+ */
+record BookCursor(@NonNull String title, @NonNull UUID isbn) {
+
+    private static final int UUID_LENGTH = 36;
+    private static final char SEPARATOR = ':';
+
+    static BookCursor after(BookDto bookDto) {
+        return new BookCursor(bookDto.title(), bookDto.isbn());
+    }
+
+    static BookCursor decode(String cursor) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+            if (decoded.length() <= UUID_LENGTH || decoded.charAt(UUID_LENGTH) != SEPARATOR) {
+                throw new InvalidCursorException(cursor);
+            }
+            return new BookCursor(decoded.substring(UUID_LENGTH + 1), UUID.fromString(decoded.substring(0, UUID_LENGTH)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    String encode() {
+        var raw = isbn.toString() + SEPARATOR + title;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+    }
+}
@@ -1,32 +1,44 @@
 package fi.epassi.recruitment.book;
 
+import static com.fasterxml.jackson.annotation.JsonProperty.Access.READ_ONLY;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
 
-@Data
+/**
+ * Book as it is read and written over the API. Being a record, it is selected straight out of JPQL constructor expressions (see
+ * {@link BookRepository#SELECT_BOOK_DTO}) and Jackson reads and writes it through its canonical constructor and accessors.
+ *
+ * @param version   version the book is read at. When sent with an update, the update only applies if the book is still at this version.
+ */
 @Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class BookDto {
-
+public record BookDto(
     @NotNull
-    private UUID isbn;
+    UUID isbn,
 
     @NotBlank
-    private String title;
+    @Size(max = 128)
+    String title,
 
     @NotBlank
-    private String author;
+    @Size(max = 64)
+    String author,
 
     @NotNull
     @DecimalMin(value = "0.00", message = "Book price must be higher than 0.00")
-    private BigDecimal price;
+    BigDecimal price,
+
+    Long version,
+
+    @JsonProperty(access = READ_ONLY)
+    Instant updatedAt
+) {
 
-}
\ No newline at end of file
+}
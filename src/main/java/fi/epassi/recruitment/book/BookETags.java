@@ -0,0 +1,37 @@
+package fi.epassi.recruitment.book;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Entity tags of book responses, derived from the book versions so that a request matching the client's copy is answered with
+ * {@code 304 Not Modified} before the response is serialized. The version restarts when a book is deleted and created again, so a tag
+ * carries the modification time of the book as well, in the microseconds the database keeps.
+ */
+final class BookETags {
+
+    private BookETags() {
+    }
+
+    static String of(BookDto book) {
+        return "\"" + version(book) + "\"";
+    }
+
+    /**
+     * Weak tag of a page, which changes whenever a book of the page is updated, or books join or leave it. The page has no reliable
+     * modification time, as a removed book leaves no trace, so it is validated by this tag only.
+     */
+    static String of(BookPage page) {
+        var content = new StringBuilder(page.books().size() * 48);
+        page.books().forEach(book -> content.append(book.isbn()).append(':').append(version(book)).append(','));
+        content.append(page.nextCursor());
+        return "W/\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(UTF_8)) + "\"";
+    }
+
+    private static String version(BookDto book) {
+        return book.version() + "-" + (book.updatedAt() == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH, book.updatedAt()));
+    }
+}
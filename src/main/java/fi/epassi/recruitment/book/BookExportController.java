@@ -0,0 +1,109 @@
+package fi.epassi.recruitment.book;
+
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.VARY;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Exports the whole catalogue as newline-delimited JSON for indexers and partners. Books are written to the response while they are
+ * read from the database, so heap usage stays flat and the first books reach the client right away.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/books/export")
+public class BookExportController {
+
+    private static final String GZIP = "gzip";
+    private static final String WILDCARD = "*";
+
+    private final BookService bookService;
+    private final ObjectMapper mapper;
+
+    @GetMapping
+    ResponseEntity<StreamingResponseBody> exportBooks(@RequestHeader(value = ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        var gzip = acceptsGzip(acceptEncoding);
+        var response = ResponseEntity.ok().contentType(APPLICATION_NDJSON).header(VARY, ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(CONTENT_ENCODING, GZIP);
+        }
+
+        return response.body(outputStream -> {
+            if (gzip) {
+                try (var gzipStream = new GZIPOutputStream(outputStream)) {
+                    writeBooks(gzipStream);
+                }
+            } else {
+                writeBooks(outputStream);
+            }
+        });
+    }
+
+    /**
+     * Tells whether the client accepts gzip with a quality above zero, listed by name or else by the {@code *} wildcard.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double wildcardQuality = null;
+        for (var coding : acceptEncoding.split(",")) {
+            var parameters = coding.split(";");
+            var name = parameters[0].trim();
+            var quality = quality(parameters);
+            if (GZIP.equalsIgnoreCase(name)) {
+                return quality > 0;
+            }
+            if (WILDCARD.equals(name)) {
+                wildcardQuality = quality;
+            }
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+
+    // A missing or malformed quality counts as 1, as if the parameter was not there
+    private static double quality(String[] parameters) {
+        for (var index = 1; index < parameters.length; index++) {
+            var parameter = parameters[index].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private void writeBooks(OutputStream outputStream) throws IOException {
+        var writer = mapper.writerFor(BookDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (var generator = mapper.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            bookService.exportBooks(book -> {
+                try {
+                    writer.writeValue(generator, book);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
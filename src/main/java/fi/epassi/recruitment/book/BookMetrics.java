@@ -0,0 +1,50 @@
+package fi.epassi.recruitment.book;
+
+import fi.epassi.recruitment.exception.BookNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+
+/**
+ * Book specific meters, next to the request, repository and connection pool timers that Actuator publishes on its own. Percentiles of
+ * all of them are configured in {@code application.properties}.
+ */
+@Component
+public class BookMetrics {
+
+    static final String PAGE_SIZE = "books.page.size";
+    static final String NOT_FOUND = "books.not.found";
+
+    private final DistributionSummary firstPageSize;
+    private final DistributionSummary nextPageSize;
+    private final MeterRegistry meterRegistry;
+
+    public BookMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.firstPageSize = pageSizeSummary("first", meterRegistry);
+        this.nextPageSize = pageSizeSummary("next", meterRegistry);
+    }
+
+    void recordPage(BookPage page, boolean firstPage) {
+        (firstPage ? firstPageSize : nextPageSize).record(page.books().size());
+    }
+
+    BookNotFoundException notFound(String operation, UUID isbn) {
+        Counter.builder(NOT_FOUND)
+            .description("Lookups and updates of books that do not exist")
+            .tag("operation", operation)
+            .register(meterRegistry)
+            .increment();
+        return new BookNotFoundException(isbn.toString());
+    }
+
+    private static DistributionSummary pageSizeSummary(String page, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder(PAGE_SIZE)
+            .description("Number of books returned in a page of the book list")
+            .baseUnit("books")
+            .tag("page", page)
+            .register(meterRegistry);
+    }
+}
@@ -1,22 +1,37 @@
 package fi.epassi.recruitment.book;
 
-import static java.sql.Types.VARCHAR;
+import static java.sql.Types.BINARY;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Locale;
 import java.util.UUID;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity
 @Data
@@ -25,11 +40,12 @@ import org.hibernate.annotations.JdbcTypeCode;
 @NoArgsConstructor
 @EqualsAndHashCode
 @Table(name = "books")
-public class BookModel {
+@EntityListeners(AuditingEntityListener.class)
+public class BookModel implements Persistable<UUID> {
 
     @Id
-    @Column(name = "id", updatable = false, nullable = false, columnDefinition = "VARCHAR(36)")
-    @JdbcTypeCode(value = VARCHAR)
+    @Column(name = "id", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
+    @JdbcTypeCode(value = BINARY)
     private UUID isbn;
 
     @NotBlank
@@ -42,4 +58,53 @@ public class BookModel {
     @DecimalMin(value = "0.00", message = "Book price must be higher than 0.00")
     private BigDecimal price;
 
+    @Setter(AccessLevel.NONE)
+    private String authorNormalized;
+
+    @Setter(AccessLevel.NONE)
+    private String titleNormalized;
+
+    @Version
+    private Long version;
+
+    @LastModifiedDate
+    private Instant updatedAt;
+
+    /**
+     * ISBNs are assigned by clients, so Spring Data cannot tell new books from existing ones by their id. Tracking it here lets
+     * {@code save} issue a plain INSERT for new books instead of a merge that SELECTs the row first.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private boolean persisted;
+
+    @Override
+    public UUID getId() {
+        return isbn;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
+    static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeSearchColumns() {
+        authorNormalized = normalize(author);
+        titleNormalized = normalize(title);
+    }
+
 }
@@ -0,0 +1,69 @@
+package fi.epassi.recruitment.book;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily reads books from a newline-delimited JSON stream, one line at a time, so that arbitrarily large uploads are never held in
+ * memory. Lines that cannot be parsed are handed on as malformed items instead of aborting the whole stream.
+ */
+public class BookNdjsonReader implements Iterator<BookBulkItem> {
+
+    private final BufferedReader reader;
+    private final ObjectReader bookReader;
+    private BookBulkItem next;
+    private int index;
+
+    public BookNdjsonReader(InputStream inputStream, ObjectMapper mapper) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, UTF_8));
+        this.bookReader = mapper.readerFor(BookDto.class);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public BookBulkItem next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var current = next;
+        next = null;
+        return current;
+    }
+
+    private BookBulkItem readNext() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                var lineIndex = index++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return BookBulkItem.of(lineIndex, bookReader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    return BookBulkItem.malformed(lineIndex, e.getOriginalMessage());
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.book;
+
+import java.util.List;
+
+/**
+ * One page of books together with the cursor of the following page, {@code null} when this is the last one.
+ */
+public record BookPage(List<BookDto> books, String nextCursor) {
+
+}
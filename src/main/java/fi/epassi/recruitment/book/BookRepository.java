@@ -1,17 +1,84 @@
 package fi.epassi.recruitment.book;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface BookRepository extends JpaRepository<BookModel, UUID>, BookSearchRepository, BookBatchRepository {
 
-public interface BookRepository extends JpaRepository<BookModel, UUID> {
+    int EXPORT_FETCH_SIZE = 1000;
+
+    /**
+     * Select clause of the read queries, which build the DTOs straight from the columns instead of loading managed entities that would be
+     * snapshotted for dirty checking and kept in the persistence context.
+     */
+    String SELECT_BOOK_DTO = "select new fi.epassi.recruitment.book.BookDto(b.isbn, b.title, b.author, b.price, b.version, b.updatedAt)";
 
     Optional<BookModel> findByIsbn(UUID isbn);
 
-    List<BookModel> findByTitle(String title);
+    @Query(SELECT_BOOK_DTO + " from BookModel b where b.isbn = :isbn")
+    Optional<BookDto> findBookDtoByIsbn(@Param("isbn") UUID isbn);
+
+    @Query(SELECT_BOOK_DTO + " from BookModel b where b.isbn in :isbns")
+    List<BookDto> findBookDtosByIsbns(@Param("isbns") Collection<UUID> isbns);
+
+    /**
+     * Overwrites an existing book in a single statement, without loading it first. When the book carries a version, the book is only
+     * overwritten at that version.
+     *
+     * @return number of updated rows, {@code 0} when no book with the ISBN exists, or it is at another version
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update BookModel b
+        set b.title = :#{#book.title}, b.author = :#{#book.author}, b.price = :#{#book.price},
+            b.titleNormalized = :#{#book.titleNormalized}, b.authorNormalized = :#{#book.authorNormalized},
+            b.version = b.version + 1, b.updatedAt = :#{#book.updatedAt}
+        where b.isbn = :#{#book.isbn} and (:#{#book.version} is null or b.version = :#{#book.version})
+        """)
+    int updateByIsbn(@Param("book") BookModel book);
+
+    /**
+     * Deletes a book in a single statement, only at the given version.
+     *
+     * @return number of deleted rows, {@code 0} when no book with the ISBN exists, or it is at another version
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from BookModel b where b.isbn = :isbn and b.version = :version")
+    int deleteByIsbnAndVersion(@Param("isbn") UUID isbn, @Param("version") long version);
+
+    /**
+     * Streams every book straight into its DTO through a forward-only cursor, so neither the result set nor the persistence context grows
+     * with the catalogue. Must be consumed and closed within a transaction. On MySQL the cursor only streams with
+     * {@code useCursorFetch=true} on the JDBC URL.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query(SELECT_BOOK_DTO + " from BookModel b")
+    Stream<BookDto> streamAll();
 
-    List<BookModel> findByAuthor(String author);
+    /**
+     * Loads the books and locks them until the end of the surrounding transaction, so that they are not changed by others between being
+     * read and written.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from BookModel b where b.isbn in :isbns")
+    List<BookModel> findAllForUpdate(@Param("isbns") Collection<UUID> isbns);
 
-    List<BookModel> findByAuthorAndTitle(String author, String title);
+    @Query("select b.isbn from BookModel b where b.isbn in :isbns")
+    List<UUID> findExistingIsbns(@Param("isbns") Collection<UUID> isbns);
 }
@@ -0,0 +1,76 @@
+package fi.epassi.recruitment.book;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pages of book searches by author or title. A write evicts only the pages of the searches that the old or the new values of the book
+ * match, no other search could list the book before or after the write. The unfiltered list changes with every write and is not cached.
+ */
+@Component
+public class BookSearchCache {
+
+    public static final String BOOK_SEARCH_CACHE = "book-searches";
+
+    private final Cache<Object, Object> pages;
+    private final BookSearchIndex index;
+
+    /**
+     * Incremented on every eviction before the pages are evicted, a search that ran concurrently with a write does not know whether it
+     * read the old values, so its page is returned but not cached. The counter is read again once the page is put, an eviction that
+     * started in between may not have found the page, which is evicted again.
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BookSearchCache(CacheManager cacheManager, BookSearchIndex index) {
+        this.pages = ((CaffeineCache) cacheManager.getCache(BOOK_SEARCH_CACHE)).getNativeCache();
+        this.index = index;
+    }
+
+    BookPage get(BookSearchCriteria criteria, String cursor, int limit, Supplier<BookPage> search) {
+        if (!criteria.isFiltered()) {
+            return search.get();
+        }
+
+        var key = new Key(criteria.normalized(), cursor, limit);
+        if (pages.getIfPresent(key) instanceof BookPage page) {
+            return page;
+        }
+
+        var evictionsBefore = evictions.get();
+        var page = search.get();
+        if (evictions.get() == evictionsBefore) {
+            index.add(key, page);
+            pages.put(key, page);
+            // An eviction between the check and the put may have missed the page, so it is evicted once more
+            if (evictions.get() != evictionsBefore) {
+                pages.invalidate(key);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Evicts the pages of every search matching any of the given books, to be called with the values before and after the write.
+     */
+    void evict(Collection<BookSearchFields> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        evictions.incrementAndGet();
+        pages.invalidateAll(index.keysMatching(books));
+    }
+
+    boolean isCached(BookSearchCriteria criteria, String cursor, int limit) {
+        return pages.getIfPresent(new Key(criteria.normalized(), cursor, limit)) != null;
+    }
+
+    record Key(BookSearchCriteria criteria, String cursor, int limit) {
+
+    }
+}
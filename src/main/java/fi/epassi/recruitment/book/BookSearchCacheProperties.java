@@ -0,0 +1,15 @@
+package fi.epassi.recruitment.book;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param maxBooks         total number of books held over all cached search pages, least frequently and recently used pages are evicted
+ *                         first
+ * @param expireAfterWrite time after which a page is searched again, bounding how long a page computed concurrently with a write may stay
+ */
+@ConfigurationProperties(prefix = "books.search-cache")
+public record BookSearchCacheProperties(@DefaultValue("100000") long maxBooks, @DefaultValue("5m") Duration expireAfterWrite) {
+
+}
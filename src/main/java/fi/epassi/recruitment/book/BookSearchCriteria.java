@@ -0,0 +1,44 @@
+package fi.epassi.recruitment.book;
+
+import static fi.epassi.recruitment.book.BookModel.normalize;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Filters applied when listing books, blank components are not filtered on. Author and title are matched exactly, while the prefixes
+ * are matched case-insensitively against the start of the author and title.
+ */
+public record BookSearchCriteria(String author, String title, String authorPrefix, String titlePrefix) {
+
+    public BookSearchCriteria {
+        author = blankToNull(author);
+        title = blankToNull(title);
+        authorPrefix = blankToNull(authorPrefix);
+        titlePrefix = blankToNull(titlePrefix);
+    }
+
+    boolean isFiltered() {
+        return author != null || title != null || authorPrefix != null || titlePrefix != null;
+    }
+
+    /**
+     * Same criteria with the prefixes in the case they are matched in, so that searches returning the same books are equal.
+     */
+    BookSearchCriteria normalized() {
+        return new BookSearchCriteria(author, title, normalize(authorPrefix), normalize(titlePrefix));
+    }
+
+    /**
+     * Tells whether the search may list the book. Exact values are compared ignoring case, as the database collation may do.
+     */
+    boolean matches(BookSearchFields book) {
+        return (author == null || author.equalsIgnoreCase(book.author()))
+            && (title == null || title.equalsIgnoreCase(book.title()))
+            && (authorPrefix == null || book.author() != null && normalize(book.author()).startsWith(normalize(authorPrefix)))
+            && (titlePrefix == null || book.title() != null && normalize(book.title()).startsWith(normalize(titlePrefix)));
+    }
+
+    private static String blankToNull(String value) {
+        return StringUtils.isNotBlank(value) ? value : null;
+    }
+}
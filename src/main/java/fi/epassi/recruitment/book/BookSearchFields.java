@@ -0,0 +1,13 @@
+package fi.epassi.recruitment.book;
+
+import java.util.UUID;
+
+/**
+ * Values of a book that searches filter on, read before a write to find the cached searches that the book is about to leave.
+ */
+public record BookSearchFields(UUID isbn, String author, String title) {
+
+    static BookSearchFields of(BookDto bookDto) {
+        return new BookSearchFields(bookDto.isbn(), bookDto.author(), bookDto.title());
+    }
+}
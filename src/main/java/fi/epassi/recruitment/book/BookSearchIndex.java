@@ -0,0 +1,111 @@
+package fi.epassi.recruitment.book;
+
+import static fi.epassi.recruitment.book.BookModel.normalize;
+
+import fi.epassi.recruitment.book.BookSearchCache.Key;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cached search pages by one of the values they filter on, the exact author, else the exact title, the author prefix or the title prefix.
+ * A write looks up the pages the book may be listed on by its author, its title and each of their prefixes, instead of testing every
+ * cached page. The index follows the cache through its removal listener, a page is only removed together with the page it was indexed
+ * with, so that the late notice of a removed page does not unindex the page cached in its place.
+ */
+@Component
+class BookSearchIndex {
+
+    private final Map<Filter, Map<Key, Object>> pagesByFilter = new ConcurrentHashMap<>();
+
+    /**
+     * To be called before the page is put into the cache, so that its removal is always noticed after it was indexed.
+     */
+    void add(Key key, Object page) {
+        pagesByFilter.compute(filterOf(key.criteria()), (filter, pages) -> {
+            pages = pages == null ? new HashMap<>() : pages;
+            pages.put(key, page);
+            return pages;
+        });
+    }
+
+    void remove(Key key, Object page) {
+        pagesByFilter.computeIfPresent(filterOf(key.criteria()), (filter, pages) -> {
+            pages.remove(key, page);
+            return pages.isEmpty() ? null : pages;
+        });
+    }
+
+    /**
+     * @return keys of the pages of every search matching any of the books
+     */
+    Set<Key> keysMatching(Collection<BookSearchFields> books) {
+        var keys = new HashSet<Key>();
+        for (var book : books) {
+            for (var filter : filtersOf(book)) {
+                pagesByFilter.computeIfPresent(filter, (ignored, pages) -> {
+                    pages.keySet().stream().filter(key -> key.criteria().matches(book)).forEach(keys::add);
+                    return pages;
+                });
+            }
+        }
+        return keys;
+    }
+
+    private static Filter filterOf(BookSearchCriteria criteria) {
+        if (criteria.author() != null) {
+            return new Filter(Field.AUTHOR, fold(criteria.author()));
+        }
+        if (criteria.title() != null) {
+            return new Filter(Field.TITLE, fold(criteria.title()));
+        }
+        if (criteria.authorPrefix() != null) {
+            return new Filter(Field.AUTHOR_PREFIX, criteria.authorPrefix());
+        }
+        return new Filter(Field.TITLE_PREFIX, criteria.titlePrefix());
+    }
+
+    /**
+     * Every filter a search listing the book may be indexed under, as matched by {@link BookSearchCriteria#matches}.
+     */
+    private static List<Filter> filtersOf(BookSearchFields book) {
+        var filters = new ArrayList<Filter>();
+        if (book.author() != null) {
+            filters.add(new Filter(Field.AUTHOR, fold(book.author())));
+            addPrefixes(filters, Field.AUTHOR_PREFIX, normalize(book.author()));
+        }
+        if (book.title() != null) {
+            filters.add(new Filter(Field.TITLE, fold(book.title())));
+            addPrefixes(filters, Field.TITLE_PREFIX, normalize(book.title()));
+        }
+        return filters;
+    }
+
+    private static void addPrefixes(List<Filter> filters, Field field, String value) {
+        for (var length = 1; length <= value.length(); length++) {
+            filters.add(new Filter(field, value.substring(0, length)));
+        }
+    }
+
+    // Equal for any two values that equalsIgnoreCase considers equal
+    private static String fold(String value) {
+        return value.codePoints()
+            .map(codePoint -> Character.toLowerCase(Character.toUpperCase(codePoint)))
+            .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+            .toString();
+    }
+
+    private enum Field {
+        AUTHOR, TITLE, AUTHOR_PREFIX, TITLE_PREFIX
+    }
+
+    private record Filter(Field field, String value) {
+
+    }
+}
@@ -0,0 +1,15 @@
+package fi.epassi.recruitment.book;
+
+import java.util.List;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface BookSearchRepository {
+
+    /**
+     * Returns at most {@code limit} books matching the criteria, ordered by {@code (title, isbn)} and starting after the given cursor. The
+     * books are selected straight into DTOs, so none of them enters the persistence context. Runs on the read-only pool unless it joins
+     * the transaction of the caller.
+     */
+    @Transactional(readOnly = true)
+    List<BookDto> search(BookSearchCriteria criteria, BookCursor after, int limit);
+}
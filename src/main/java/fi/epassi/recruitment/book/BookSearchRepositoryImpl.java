@@ -0,0 +1,61 @@
+package fi.epassi.recruitment.book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+class BookSearchRepositoryImpl implements BookSearchRepository {
+
+    private static final char LIKE_ESCAPE = '!';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookDto> search(BookSearchCriteria criteria, BookCursor after, int limit) {
+        var predicates = new ArrayList<String>();
+        var parameters = new HashMap<String, Object>();
+
+        if (criteria.author() != null) {
+            predicates.add("b.author = :author");
+            parameters.put("author", criteria.author());
+        }
+        if (criteria.title() != null) {
+            predicates.add("b.title = :title");
+            parameters.put("title", criteria.title());
+        }
+        if (criteria.authorPrefix() != null) {
+            predicates.add("b.authorNormalized like :authorPrefix escape '" + LIKE_ESCAPE + "'");
+            parameters.put("authorPrefix", toLikePrefix(criteria.authorPrefix()));
+        }
+        if (criteria.titlePrefix() != null) {
+            predicates.add("b.titleNormalized like :titlePrefix escape '" + LIKE_ESCAPE + "'");
+            parameters.put("titlePrefix", toLikePrefix(criteria.titlePrefix()));
+        }
+        if (after != null) {
+            predicates.add("(b.title > :afterTitle or (b.title = :afterTitle and b.isbn > :afterIsbn))");
+            parameters.put("afterTitle", after.title());
+            parameters.put("afterIsbn", after.isbn());
+        }
+
+        var jpql = new StringBuilder(BookRepository.SELECT_BOOK_DTO + " from BookModel b");
+        if (!predicates.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", predicates));
+        }
+        jpql.append(" order by b.title, b.isbn");
+
+        var query = entityManager.createQuery(jpql.toString(), BookDto.class).setMaxResults(limit);
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    private static String toLikePrefix(String prefix) {
+        var escaped = BookModel.normalize(prefix)
+            .replace(String.valueOf(LIKE_ESCAPE), LIKE_ESCAPE + String.valueOf(LIKE_ESCAPE))
+            .replace("%", LIKE_ESCAPE + "%")
+            .replace("_", LIKE_ESCAPE + "_");
+        return escaped + "%";
+    }
+}
@@ -1,73 +1,511 @@
 package fi.epassi.recruitment.book;
 
+import static fi.epassi.recruitment.book.BookBulkItemResult.Status.CONFLICT;
+import static fi.epassi.recruitment.book.BookBulkItemResult.Status.CREATED;
+import static fi.epassi.recruitment.book.BookBulkItemResult.Status.DELETED;
+import static fi.epassi.recruitment.book.BookBulkItemResult.Status.FAILED;
+import static fi.epassi.recruitment.book.BookBulkItemResult.Status.INVALID;
+import static fi.epassi.recruitment.book.BookBulkItemResult.Status.NOT_FOUND;
+import static fi.epassi.recruitment.book.BookBulkItemResult.Status.UPDATED;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toMap;
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+import fi.epassi.recruitment.exception.ApplicationException;
+import fi.epassi.recruitment.exception.BookAlreadyExistsException;
 import fi.epassi.recruitment.exception.BookNotFoundException;
+import fi.epassi.recruitment.exception.BookVersionConflictException;
+import fi.epassi.recruitment.statistics.BookStatisticsService;
+import jakarta.validation.Validator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
 public class BookService {
 
+    public static final String BOOKS_BY_ISBN_CACHE = "books-by-isbn";
+
+    /**
+     * Attempts of a write that lost a race with a concurrent write of the same books before it gives up.
+     */
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
     private final BookRepository bookRepository;
+    private final BookBulkProperties bulkProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final BookMetrics bookMetrics;
+    private final BookSearchCache bookSearchCache;
+    private final BookSnapshot bookSnapshot;
+    private final BookChangeService bookChangeService;
+    private final BookStatisticsService bookStatisticsService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Incremented on every eviction of the books cache, which follows the commit of the write. A lookup that ran concurrently with a write
+     * does not know whether it read the book before the write, so its book is returned but not cached, like the pages of
+     * {@link BookSearchCache}.
+     */
+    private final AtomicLong bookEvictions = new AtomicLong();
 
     public UUID createBook(BookDto bookDto) {
-        BookModel bookModel = toBookModel(bookDto);
-        var savedBook = bookRepository.save(bookModel);
-        return savedBook.getIsbn();
+        try {
+            var isbn = transactionTemplate.execute(status -> {
+                var created = bookRepository.saveAndFlush(toBookModel(bookDto)).getIsbn();
+                bookChangeService.record(BookChangeType.CREATED, List.of(created));
+                bookStatisticsService.recordAdded(bookDto.author(), bookDto.price());
+                return created;
+            });
+            evictBooks(List.of(isbn));
+            bookSearchCache.evict(List.of(BookSearchFields.of(bookDto)));
+            eventPublisher.publishEvent(BooksChangedEvent.saved(List.of(bookDto)));
+            return isbn;
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateBook(e)) {
+                throw e;
+            }
+            throw new BookAlreadyExistsException(bookDto.isbn().toString());
+        }
     }
 
+    /**
+     * Reads the book without locking it and deletes it only at the version read, like {@link #updateBook} does.
+     *
+     * @throws BookVersionConflictException when the book is written by others during every attempt
+     */
     public void deleteBookWithIsbn(@NonNull UUID isbn) {
-        bookRepository.deleteById(isbn);
+        List<BookSearchFields> deleted = null;
+        for (var attempt = 0; deleted == null; attempt++) {
+            if (attempt == MAX_WRITE_ATTEMPTS) {
+                throw new BookVersionConflictException(isbn.toString(), null);
+            }
+            deleted = transactionTemplate.execute(status -> {
+                var existing = bookRepository.findBookDtoByIsbn(isbn);
+                if (existing.isEmpty()) {
+                    return List.of();
+                }
+                if (bookRepository.deleteByIsbnAndVersion(isbn, existing.get().version()) == 0) {
+                    return null;
+                }
+                bookChangeService.record(BookChangeType.DELETED, List.of(isbn));
+                bookStatisticsService.recordRemoved(existing.get().author(), existing.get().price());
+                return List.of(BookSearchFields.of(existing.get()));
+            });
+        }
+        evictBooks(List.of(isbn));
+        bookSearchCache.evict(deleted);
+        eventPublisher.publishEvent(BooksChangedEvent.deleted(List.of(isbn)));
     }
 
+    /**
+     * Runs without a transaction of its own, so that a lookup served by the catalogue snapshot touches neither Hibernate nor a connection.
+     * Only the results of the query are cached, the snapshot is already in memory and follows the writes of every instance. The query
+     * runs on the read-write pool, a replica lagging behind would leave the book it read in the cache until it expires. A book read while
+     * this instance writes it is not cached, it may have been read before the write and be put back after the write evicted it. Writes
+     * count their evictions before they evict, so a write that evicts between the check of the counter and the put is seen once the book
+     * is put, and the book is evicted again.
+     */
     public BookDto getBookByIsbn(@NonNull UUID isbn) throws BookNotFoundException {
-        return bookRepository.findByIsbn(isbn)
-            .map(BookService::toBookDto)
-            .orElseThrow(() -> new BookNotFoundException(isbn.toString()));
+        if (bookSnapshot.isServing()) {
+            return bookSnapshot.get(isbn).orElseThrow(() -> bookMetrics.notFound("get", isbn));
+        }
+        var cache = cacheManager.getCache(BOOKS_BY_ISBN_CACHE);
+        var cached = cache == null ? null : cache.get(isbn, BookDto.class);
+        if (cached != null) {
+            return cached;
+        }
+        var evictionsBefore = bookEvictions.get();
+        var book = transactionTemplate.execute(status -> bookRepository.findBookDtoByIsbn(isbn))
+            .orElseThrow(() -> bookMetrics.notFound("get", isbn));
+        if (cache != null && bookEvictions.get() == evictionsBefore) {
+            cache.put(isbn, book);
+            // A write that evicted between the check and the put missed the book, so it is evicted once more
+            if (bookEvictions.get() != evictionsBefore) {
+                cache.evict(isbn);
+            }
+        }
+        return book;
     }
 
+    /**
+     * Searches that fill the search cache run on the read-write pool, like {@link #getBookByIsbn}. The unfiltered list is never cached, and
+     * its scans run on the read-only pool.
+     */
+    public BookPage getBooks(BookSearchCriteria criteria, String cursor, int limit) {
+        var after = StringUtils.isNotBlank(cursor) ? BookCursor.decode(cursor) : null;
+        var page = bookSearchCache.get(criteria, after == null ? null : cursor, limit, () -> criteria.isFiltered()
+            ? transactionTemplate.execute(status -> searchBooks(criteria, after, limit))
+            : searchBooks(criteria, after, limit));
+        bookMetrics.recordPage(page, after == null);
+        return page;
+    }
 
-    public List<BookDto> getBooks(String author, String title) {
-        if (StringUtils.isNotBlank(author) && StringUtils.isNotBlank(title)) {
-            return bookRepository.findByAuthorAndTitle(author, title).stream().map(BookService::toBookDto).toList();
-        } else if (StringUtils.isNotBlank(author) && StringUtils.isBlank(title)) {
-            return bookRepository.findByAuthor(author).stream().map(BookService::toBookDto).toList();
-        } else if (StringUtils.isNotBlank(title) && StringUtils.isBlank(author)) {
-            return bookRepository.findByTitle(title).stream().map(BookService::toBookDto).toList();
-        }
+    private BookPage searchBooks(BookSearchCriteria criteria, BookCursor after, int limit) {
+        // One extra row tells whether another page follows without issuing a COUNT query.
+        var books = bookRepository.search(criteria, after, limit + 1);
+        return books.size() <= limit
+            ? new BookPage(books, null)
+            : new BookPage(books.subList(0, limit), BookCursor.after(books.get(limit - 1)).encode());
+    }
 
-        return bookRepository.findAll().stream().map(BookService::toBookDto).toList();
+    /**
+     * Books with the given ISBNs in the same order, skipping the ISBNs of books that do not exist.
+     */
+    @Transactional(readOnly = true)
+    public List<BookDto> getBooksByIsbns(List<UUID> isbns) {
+        var books = bookRepository.findBookDtosByIsbns(isbns).stream().collect(toMap(BookDto::isbn, Function.identity()));
+        return isbns.stream().map(books::get).filter(Objects::nonNull).toList();
     }
 
+    /**
+     * Hands every book of the catalogue to the consumer as it is read from the database cursor, keeping memory use independent of the
+     * catalogue size.
+     */
+    @Transactional(readOnly = true)
+    public void exportBooks(Consumer<BookDto> consumer) {
+        try (var books = bookRepository.streamAll()) {
+            books.forEach(consumer);
+        }
+    }
+
+    /**
+     * Reads the previous values of the book, which the search cache and the statistics need, without locking it, then overwrites it only
+     * at the version read. A write of the book in between makes the update miss, and the book is read and written again, up to
+     * {@value #MAX_WRITE_ATTEMPTS} times, so the values removed from the statistics are exact without holding a lock from the read to the
+     * write. On H2 with a million books the plain read and the UPDATE take 1 to 2 ms, about as long as the UPDATE alone, where a locking
+     * read took them to 5.6 ms, see {@code BookRepositoryBenchmark}.
+     *
+     * @throws BookVersionConflictException when the book is at another version than the given one, or is written by others during every
+     *                                      attempt
+     */
     public UUID updateBook(BookDto bookDto) {
-        if (bookRepository.findByIsbn(bookDto.getIsbn()).isPresent()) {
-            var bookModel = toBookModel(bookDto);
-            var savedBook = bookRepository.save(bookModel);
-            return savedBook.getIsbn();
+        var bookModel = toBookModel(bookDto);
+        bookModel.normalizeSearchColumns();
+        bookModel.setUpdatedAt(Instant.now());
+        BookDto previous = null;
+        for (var attempt = 0; previous == null; attempt++) {
+            if (attempt == MAX_WRITE_ATTEMPTS) {
+                throw new BookVersionConflictException(bookDto.isbn().toString(), null);
+            }
+            previous = transactionTemplate.execute(status -> {
+                var current = bookRepository.findBookDtoByIsbn(bookDto.isbn())
+                    .orElseThrow(() -> bookMetrics.notFound("update", bookDto.isbn()));
+                if (bookDto.version() != null && !bookDto.version().equals(current.version())) {
+                    throw new BookVersionConflictException(bookDto.isbn().toString(), bookDto.version());
+                }
+                bookModel.setVersion(current.version());
+                if (bookRepository.updateByIsbn(bookModel) == 0) {
+                    return null;
+                }
+                bookChangeService.record(BookChangeType.UPDATED, List.of(bookModel.getIsbn()));
+                bookStatisticsService.recordRemoved(current.author(), current.price());
+                bookStatisticsService.recordAdded(bookDto.author(), bookDto.price());
+                return current;
+            });
         }
+        evictBooks(List.of(bookModel.getIsbn()));
+        bookSearchCache.evict(List.of(BookSearchFields.of(previous), BookSearchFields.of(bookDto)));
+        eventPublisher.publishEvent(BooksChangedEvent.saved(List.of(bookDto)));
+        return bookModel.getIsbn();
+    }
 
-        throw new BookNotFoundException(bookDto.getIsbn().toString());
+    /**
+     * Creates the books chunk by chunk, each chunk in its own transaction with batched INSERTs. Books that already exist are reported as
+     * conflicts and left untouched.
+     */
+    public BookBulkResult createBooks(Iterator<BookBulkItem> items, boolean reportSuccesses) {
+        return createBooks(items, reportSuccesses, BookBulkChunkCallback.NONE);
     }
 
-    private static BookModel toBookModel(BookDto bookDto) {
+    /**
+     * Creates the books like {@link #createBooks(Iterator, boolean)}, running the callback in the transaction of each chunk.
+     *
+     * @throws DataAccessException when a chunk cannot be committed, the chunks before it stay committed
+     */
+    public BookBulkResult createBooks(Iterator<BookBulkItem> items, boolean reportSuccesses, BookBulkChunkCallback callback) {
+        return writeInChunks(items, reportSuccesses, chunk -> createChunk(chunk, callback));
+    }
+
+    /**
+     * Updates the books chunk by chunk, each chunk loaded with a single query and flushed as batched UPDATEs in its own transaction.
+     */
+    public BookBulkResult updateBooks(Iterator<BookBulkItem> items, boolean reportSuccesses) {
+        return updateBooks(items, reportSuccesses, BookBulkChunkCallback.NONE);
+    }
+
+    /**
+     * Updates the books like {@link #updateBooks(Iterator, boolean)}, running the callback in the transaction of each chunk.
+     *
+     * @throws DataAccessException when a chunk cannot be committed, the chunks before it stay committed
+     */
+    public BookBulkResult updateBooks(Iterator<BookBulkItem> items, boolean reportSuccesses, BookBulkChunkCallback callback) {
+        return writeInChunks(items, reportSuccesses, chunk -> updateChunk(chunk, callback));
+    }
+
+    public BookBulkResult deleteBooks(List<UUID> isbns) {
+        var items = IntStream.range(0, isbns.size())
+            .mapToObj(index -> BookBulkItem.of(index, BookDto.builder().isbn(isbns.get(index)).build()))
+            .iterator();
+        return writeInChunks(items, true, chunk -> deleteChunk(chunk, BookBulkChunkCallback.NONE));
+    }
+
+    public void requireWithinBulkLimit(int size) {
+        if (size > bulkProperties.maxItems()) {
+            throw new ApplicationException(BAD_REQUEST,
+                "Bulk requests are limited to %d books, stream larger loads as NDJSON".formatted(bulkProperties.maxItems()));
+        }
+    }
+
+    private BookBulkResult writeInChunks(
+        Iterator<BookBulkItem> items, boolean reportSuccesses, Function<List<BookBulkItem>, List<BookBulkItemResult>> chunkWriter) {
+        var processed = 0;
+        var succeeded = 0;
+        var reported = new ArrayList<BookBulkItemResult>();
+        var chunk = new ArrayList<BookBulkItem>(bulkProperties.chunkSize());
+
+        while (items.hasNext()) {
+            chunk.add(items.next());
+            if (chunk.size() == bulkProperties.chunkSize() || !items.hasNext()) {
+                for (var result : chunkWriter.apply(chunk)) {
+                    processed++;
+                    if (result.status().isSuccessful()) {
+                        succeeded++;
+                    }
+                    if (reportSuccesses || !result.status().isSuccessful()) {
+                        reported.add(result);
+                    }
+                }
+                chunk.clear();
+            }
+        }
+
+        reported.sort(Comparator.comparingInt(BookBulkItemResult::index));
+        return new BookBulkResult(processed, succeeded, processed - succeeded, reported);
+    }
+
+    /**
+     * Checks for existing books in the transaction of the chunk, a book created by others since then fails the insert of the chunk on its
+     * key, and the chunk is written again reporting that book as a conflict.
+     */
+    private List<BookBulkItemResult> createChunk(List<BookBulkItem> chunk, BookBulkChunkCallback callback) {
+        var results = new ArrayList<BookBulkItemResult>(chunk.size());
+        var valid = validate(chunk, results);
+        var pending = new ArrayList<BookBulkItem>(valid.size());
+        var touched = new ArrayList<BookSearchFields>(valid.size());
+
+        return commitChunk(chunk, pending, results, touched, CREATED, callback, () -> {
+            var taken = new HashSet<>(bookRepository.findExistingIsbns(isbnsOf(valid)));
+            for (var item : valid) {
+                if (taken.add(item.book().isbn())) {
+                    pending.add(item);
+                    touched.add(BookSearchFields.of(item.book()));
+                } else {
+                    results.add(BookBulkItemResult.of(item, CONFLICT, "Book already exists"));
+                }
+            }
+            bookRepository.insertAll(pending.stream().map(item -> toBookModel(item.book())).toList());
+            pending.forEach(item -> bookStatisticsService.recordAdded(item.book().author(), item.book().price()));
+        });
+    }
+
+    private List<BookBulkItemResult> updateChunk(List<BookBulkItem> chunk, BookBulkChunkCallback callback) {
+        var results = new ArrayList<BookBulkItemResult>(chunk.size());
+        var valid = validate(chunk, results);
+        var pending = new ArrayList<BookBulkItem>(valid.size());
+        var touched = new ArrayList<BookSearchFields>(2 * valid.size());
+
+        return commitChunk(chunk, pending, results, touched, UPDATED, callback, () -> {
+            var existing = bookRepository.findAllById(isbnsOf(valid)).stream()
+                .collect(toMap(BookModel::getIsbn, Function.identity()));
+            for (var item : valid) {
+                var bookModel = existing.get(item.book().isbn());
+                if (bookModel == null) {
+                    results.add(BookBulkItemResult.of(item, NOT_FOUND));
+                    continue;
+                }
+                if (item.book().version() != null && !item.book().version().equals(bookModel.getVersion())) {
+                    results.add(BookBulkItemResult.of(item, CONFLICT, "Book has been modified since version " + item.book().version()));
+                    continue;
+                }
+                touched.add(toSearchFields(bookModel));
+                touched.add(BookSearchFields.of(item.book()));
+                bookStatisticsService.recordRemoved(bookModel.getAuthor(), bookModel.getPrice());
+                bookStatisticsService.recordAdded(item.book().author(), item.book().price());
+                bookModel.setAuthor(item.book().author());
+                bookModel.setTitle(item.book().title());
+                bookModel.setPrice(item.book().price());
+                pending.add(item);
+            }
+        });
+    }
+
+    private List<BookBulkItemResult> deleteChunk(List<BookBulkItem> chunk, BookBulkChunkCallback callback) {
+        var results = new ArrayList<BookBulkItemResult>(chunk.size());
+        var pending = new ArrayList<BookBulkItem>(chunk.size());
+        var touched = new ArrayList<BookSearchFields>(chunk.size());
+
+        return commitChunk(chunk, pending, results, touched, DELETED, callback, () -> {
+            var existing = bookRepository.findAllForUpdate(isbnsOf(chunk)).stream()
+                .collect(toMap(BookModel::getIsbn, Function.identity()));
+            for (var item : chunk) {
+                var bookModel = existing.remove(item.book().isbn());
+                if (bookModel != null) {
+                    touched.add(toSearchFields(bookModel));
+                    bookStatisticsService.recordRemoved(bookModel.getAuthor(), bookModel.getPrice());
+                    pending.add(item);
+                } else {
+                    results.add(BookBulkItemResult.of(item, NOT_FOUND));
+                }
+            }
+            bookRepository.deleteAllByIdInBatch(isbnsOf(pending));
+        });
+    }
+
+    /**
+     * Runs the write of a chunk in one transaction together with the changes of the pending items and the callback, and records every
+     * pending item with the given status, or as failed when the transaction could not be committed. The write fills in the pending items,
+     * their results and the touched values, and runs again from the results it was given when it failed on the key of a book created
+     * concurrently. A chunk that could not be committed is answered with its pending items failed, or, with a callback, fails the whole
+     * write, so that the caller's record stays at the last committed chunk and the rows of the chunk are written again when it resumes. A
+     * lock timeout or a deadlock would otherwise lose them for good. The cached searches matching the touched values are evicted either
+     * way.
+     */
+    private List<BookBulkItemResult> commitChunk(
+        List<BookBulkItem> chunk, List<BookBulkItem> pending, List<BookBulkItemResult> results, List<BookSearchFields> touched,
+        BookBulkItemResult.Status status, BookBulkChunkCallback callback, Runnable write) {
+        var given = List.copyOf(results);
+        for (var attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(transactionStatus -> {
+                    write.run();
+                    bookChangeService.record(BookChangeType.of(status), isbnsOf(pending));
+                    var committed = new ArrayList<>(results);
+                    pending.forEach(item -> committed.add(BookBulkItemResult.of(item, status)));
+                    callback.beforeCommit(chunk, committed);
+                });
+                pending.forEach(item -> results.add(BookBulkItemResult.of(item, status)));
+                if (!pending.isEmpty()) {
+                    eventPublisher.publishEvent(status == DELETED
+                        ? BooksChangedEvent.deleted(isbnsOf(pending))
+                        : BooksChangedEvent.saved(pending.stream().map(BookBulkItem::book).toList()));
+                }
+                break;
+            } catch (DataAccessException e) {
+                if (attempt < MAX_WRITE_ATTEMPTS && isDuplicateBook(e)) {
+                    pending.clear();
+                    touched.clear();
+                    results.clear();
+                    results.addAll(given);
+                    continue;
+                }
+                if (callback != BookBulkChunkCallback.NONE) {
+                    evictChunk(pending, touched);
+                    throw e;
+                }
+                pending.forEach(item -> results.add(BookBulkItemResult.of(item, FAILED, getRootCauseMessage(e))));
+                break;
+            }
+        }
+
+        evictChunk(pending, touched);
+        return results;
+    }
+
+    private void evictChunk(List<BookBulkItem> pending, List<BookSearchFields> touched) {
+        evictBooks(isbnsOf(pending));
+        bookSearchCache.evict(touched);
+    }
+
+    private void evictBooks(Collection<UUID> isbns) {
+        if (isbns.isEmpty()) {
+            return;
+        }
+        bookEvictions.incrementAndGet();
+        var cache = cacheManager.getCache(BOOKS_BY_ISBN_CACHE);
+        if (cache != null) {
+            isbns.forEach(cache::evict);
+        }
+    }
+
+    private List<BookBulkItem> validate(List<BookBulkItem> chunk, List<BookBulkItemResult> results) {
+        var valid = new ArrayList<BookBulkItem>(chunk.size());
+        for (var item : chunk) {
+            if (item.book() == null) {
+                results.add(BookBulkItemResult.of(item, INVALID, item.error()));
+                continue;
+            }
+            var violations = validator.validate(item.book());
+            if (violations.isEmpty()) {
+                valid.add(item);
+            } else {
+                var message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(joining(", "));
+                results.add(BookBulkItemResult.of(item, INVALID, message));
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Whether a statement inserting books failed on a key, which only the primary key of the books can be: a book with the ISBN exists.
+     * Violations of the change feed or the statistics written in the same transaction are not. The duplicate key codes are those of H2 and
+     * MySQL.
+     */
+    private static boolean isDuplicateBook(DataAccessException e) {
+        return ExceptionUtils.getThrowableList(e).stream()
+            .filter(ConstraintViolationException.class::isInstance)
+            .map(ConstraintViolationException.class::cast)
+            .anyMatch(violation -> StringUtils.startsWithIgnoreCase(violation.getSQL(), "insert into books ")
+                && ("23505".equals(violation.getSQLState()) || violation.getErrorCode() == 1062));
+    }
+
+    private static List<UUID> isbnsOf(List<BookBulkItem> items) {
+        return items.stream().map(item -> item.book().isbn()).toList();
+    }
+
+    private static BookSearchFields toSearchFields(BookModel bookModel) {
+        return new BookSearchFields(bookModel.getIsbn(), bookModel.getAuthor(), bookModel.getTitle());
+    }
+
+    static BookModel toBookModel(BookDto bookDto) {
         return BookModel.builder()
-            .isbn(bookDto.getIsbn())
-            .author(bookDto.getAuthor())
-            .title(bookDto.getTitle())
-            .price(bookDto.getPrice())
+            .isbn(bookDto.isbn())
+            .author(bookDto.author())
+            .title(bookDto.title())
+            .price(bookDto.price())
             .build();
     }
 
-    private static BookDto toBookDto(BookModel bookModel) {
-        return BookDto.builder()
-            .isbn(bookModel.getIsbn())
-            .author(bookModel.getAuthor())
-            .title(bookModel.getTitle())
-            .price(bookModel.getPrice())
-            .build();
+    static BookDto toBookDto(BookModel bookModel) {
+        return new BookDto(bookModel.getIsbn(), bookModel.getTitle(), bookModel.getAuthor(), bookModel.getPrice(), bookModel.getVersion(),
+            bookModel.getUpdatedAt());
     }
 }
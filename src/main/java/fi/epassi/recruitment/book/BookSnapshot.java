@@ -0,0 +1,176 @@
+package fi.epassi.recruitment.book;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Copy of the whole catalogue in a {@link BookTable} when {@code books.snapshot.enabled}, serving the lookups of books by ISBN without
+ * Hibernate or a connection. It is loaded when the application starts, before requests are accepted, and follows the change feed of
+ * {@link BookChangeService} from the sequence it was loaded at, so that it sees the writes of every instance. The feed is polled every
+ * {@code books.snapshot.refresh-interval} by a {@link BookChangeFollower}, and a write through this instance waits until the follower has
+ * read it, see {@link BookChangeFollowers}, so that it is in the snapshot before it returns to its caller. Writers neither read the feed
+ * on their own thread nor queue on a monitor, the writes committed during one refresh are all read by the next one.
+ * <p>
+ * Refreshes read the books as committed at the time of the refresh instead of taking them from the changes, and run one at a time on the
+ * follower, so that the last refresh of a book always leaves its latest state. A refresh that fails leaves the snapshot behind the
+ * database: lookups go to the database until a later refresh catches up, and the snapshot is loaded again when the changes it missed have
+ * expired.
+ */
+@Slf4j
+@Component
+public class BookSnapshot {
+
+    static final String SIZE = "books.snapshot.size";
+    static final String FOOTPRINT = "books.snapshot.footprint";
+
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+    private final BookChangeRepository changeRepository;
+    private final BookChangeService changeService;
+    private final TransactionTemplate transactionTemplate;
+    private final BookSnapshotProperties properties;
+    private final BookChangeFollower follower;
+    private final boolean enabled;
+    private volatile BookTable books;
+    private volatile boolean serving;
+    // Last change applied, only used by the follower once it is started
+    private long appliedSequence;
+
+    public BookSnapshot(
+        BookRepository bookRepository, BookChangeRepository changeRepository, BookChangeService changeService,
+        TransactionTemplate transactionTemplate, BookChangeFollowers followers, BookSnapshotProperties properties,
+        MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.changeRepository = changeRepository;
+        this.changeService = changeService;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.enabled = properties.enabled();
+        this.follower = enabled
+            ? followers.create("book-snapshot-follower", properties.refreshInterval(), this::refreshSafely)
+            : null;
+        if (enabled) {
+            Gauge.builder(SIZE, this, snapshot -> snapshot.books == null ? 0 : snapshot.books.size())
+                .description("Books in the catalogue snapshot")
+                .baseUnit("books")
+                .register(meterRegistry);
+            Gauge.builder(FOOTPRINT, this, snapshot -> snapshot.books == null ? 0 : snapshot.books.footprintBytes())
+                .description("Memory taken by the catalogue snapshot")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        load();
+        follower.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (enabled) {
+            follower.stop();
+        }
+    }
+
+    boolean isServing() {
+        return serving;
+    }
+
+    Optional<BookDto> get(UUID isbn) {
+        return books.get(isbn);
+    }
+
+    /**
+     * Reads from the read-write pool like the refreshes do, a replica may lag behind the writes the snapshot follows. The position of the
+     * feed is read before the books, a change committed while they are streamed is applied again by the next refresh. A load replaces
+     * the table once it is complete, so that a book deleted while changes were missed does not stay behind.
+     */
+    private void load() {
+        var started = System.nanoTime();
+        var loaded = new BookTable(properties.expectedBooks());
+        appliedSequence = transactionTemplate.execute(status -> {
+            var position = changeRepository.findLastSequence();
+            var chunk = new ArrayList<BookDto>(BookRepository.EXPORT_FETCH_SIZE);
+            try (var all = bookRepository.streamAll()) {
+                all.forEach(book -> {
+                    chunk.add(book);
+                    if (chunk.size() == BookRepository.EXPORT_FETCH_SIZE) {
+                        loaded.putAll(chunk);
+                        chunk.clear();
+                    }
+                });
+            }
+            loaded.putAll(chunk);
+            return position;
+        });
+        books = loaded;
+        serving = true;
+        log.info("Loaded {} books into the catalogue snapshot in {} ms, taking {} bytes", books.size(),
+            (System.nanoTime() - started) / 1_000_000, books.footprintBytes());
+    }
+
+    /**
+     * Applies the changes after the last applied one, loading the whole catalogue again when some of them have expired from the feed. The
+     * committed changes are sequenced first, so that the writes the refresh was asked for are in the feed without waiting for the
+     * sequencing interval. The writers waiting are released before a load, which reads the whole catalogue, they are served from the
+     * database until it completes.
+     */
+    private void refresh() {
+        changeService.assignSequences();
+        int applied;
+        do {
+            applied = transactionTemplate.execute(status -> {
+                var changes = changeRepository.findBySequenceGreaterThanOrderBySequence(appliedSequence, Limit.of(REFRESH_BATCH_SIZE));
+                // Read after the changes, like the feed does, so that a retention committed in between is noticed
+                if (appliedSequence < changeRepository.findExpiredSequence()) {
+                    return -1;
+                }
+                if (changes.isEmpty()) {
+                    return 0;
+                }
+                var isbns = new HashSet<UUID>();
+                changes.forEach(change -> isbns.add(change.getIsbn()));
+                var current = bookRepository.findBookDtosByIsbns(isbns);
+                current.forEach(book -> isbns.remove(book.isbn()));
+                books.putAll(current);
+                books.removeAll(isbns);
+                appliedSequence = changes.get(changes.size() - 1).getSequence();
+                return changes.size();
+            });
+            if (applied < 0) {
+                log.warn("Changes after sequence {} have expired, loading the catalogue snapshot again", appliedSequence);
+                serving = false;
+                follower.releaseWaiting();
+                load();
+                return;
+            }
+        } while (applied == REFRESH_BATCH_SIZE);
+        serving = true;
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            serving = false;
+            log.error("Failed to refresh the catalogue snapshot, books are read from the database, retrying in {}",
+                properties.refreshInterval(), e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package fi.epassi.recruitment.book;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled         whether the whole catalogue is kept in memory to serve the lookups of books by ISBN
+ * @param expectedBooks   number of books the snapshot is sized for when the application starts, it grows beyond as needed
+ * @param refreshInterval delay between two reads of the change feed, bounding how long a write through another instance is not seen
+ */
+@ConfigurationProperties(prefix = "books.snapshot")
+public record BookSnapshotProperties(
+    @DefaultValue("false") boolean enabled, @DefaultValue("100000") int expectedBooks, @DefaultValue("1s") Duration refreshInterval) {
+
+}
@@ -0,0 +1,339 @@
+package fi.epassi.recruitment.book;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Books kept in primitive arrays instead of objects: one row of longs per book with the ISBN as two longs and the price as a long of cents,
+ * all rows in one array, and the title and author as UTF-8 bytes in another. Rows are found through an open-addressing index of the ISBNs
+ * with linear probing, kept at most half full so that a lookup rarely probes more than a slot or two. The fields of a row are adjacent,
+ * so that a lookup touches about as many cache lines as a lookup in a map of objects.
+ * <p>
+ * Lookups take no lock: they read optimistically and only read again under the lock when a write happened in the meantime. A lookup
+ * allocates the returned book, but neither entities nor intermediate objects.
+ */
+class BookTable {
+
+    // Fields of a row. Text holds the offset of the title in the upper 32 bits, the title length and the author length, which follows the
+    // title, in 16 bits each below.
+    private static final int HIGH = 0;
+    private static final int LOW = 1;
+    private static final int PRICE = 2;
+    private static final int VERSION = 3;
+    private static final int UPDATED_SECONDS = 4;
+    private static final int UPDATED_NANOS = 5;
+    private static final int TEXT = 6;
+    private static final int ROW_LENGTH = 7;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+    private static final int MIN_ROWS = 16;
+    private static final int TEXT_BYTES_PER_ROW = 48;
+    private static final int MAX_TEXT_LENGTH = 0xFFFF;
+    private static final int EMPTY = 0;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Row of the ISBN plus one per slot, 0 for an empty slot
+    private int[] slots;
+    private long[] rows;
+    private int size;
+
+    // Text of replaced and removed books stays behind until the array is full, then the text of the books left is copied to a new array
+    private byte[] text;
+    private int textSize;
+
+    BookTable(int expectedBooks) {
+        var capacity = Math.min(Math.max(MIN_ROWS, expectedBooks), MAX_ARRAY_LENGTH / ROW_LENGTH);
+        rows = new long[capacity * ROW_LENGTH];
+        slots = new int[slotCount(capacity)];
+        text = new byte[(int) Math.min((long) capacity * TEXT_BYTES_PER_ROW, MAX_ARRAY_LENGTH)];
+    }
+
+    Optional<BookDto> get(UUID isbn) {
+        var stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                var book = read(isbn);
+                if (lock.validate(stamp)) {
+                    return Optional.ofNullable(book);
+                }
+            } catch (RuntimeException e) {
+                // Arrays replaced or changed by a concurrent write, read again under the lock
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return Optional.ofNullable(read(isbn));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void putAll(Collection<BookDto> books) {
+        var stamp = lock.writeLock();
+        try {
+            books.forEach(this::write);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void removeAll(Collection<UUID> isbns) {
+        var stamp = lock.writeLock();
+        try {
+            isbns.forEach(this::delete);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        var stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return bytes taken by the arrays of the table, including the room reserved for further books
+     */
+    long footprintBytes() {
+        var stamp = lock.readLock();
+        try {
+            return 3L * ARRAY_HEADER_BYTES + (long) slots.length * Integer.BYTES + (long) rows.length * Long.BYTES + text.length;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Finds the book without any lock. Probing is bounded, so that a read racing with a write ends, with a wrong result or an exception
+     * that the validation of the read discards.
+     */
+    private BookDto read(UUID isbn) {
+        var high = isbn.getMostSignificantBits();
+        var low = isbn.getLeastSignificantBits();
+        var index = slots;
+        var mask = index.length - 1;
+        var slot = hash(high, low) & mask;
+        for (var probes = 0; probes < index.length; probes++) {
+            var entry = index[slot];
+            if (entry == EMPTY) {
+                return null;
+            }
+            var row = (entry - 1) * ROW_LENGTH;
+            if (rows[row + HIGH] == high && rows[row + LOW] == low) {
+                return toBookDto(isbn, row);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private BookDto toBookDto(UUID isbn, int row) {
+        var offset = textOffset(rows[row + TEXT]);
+        var titleLength = titleLength(rows[row + TEXT]);
+        return new BookDto(
+            isbn,
+            new String(text, offset, titleLength, UTF_8),
+            new String(text, offset + titleLength, authorLength(rows[row + TEXT]), UTF_8),
+            BigDecimal.valueOf(rows[row + PRICE], 2),
+            rows[row + VERSION] == NO_VALUE ? null : rows[row + VERSION],
+            rows[row + UPDATED_SECONDS] == NO_VALUE ? null : Instant.ofEpochSecond(rows[row + UPDATED_SECONDS], rows[row + UPDATED_NANOS]));
+    }
+
+    private void write(BookDto book) {
+        var title = book.title().getBytes(UTF_8);
+        var author = book.author().getBytes(UTF_8);
+        if (title.length > MAX_TEXT_LENGTH || author.length > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("Title or author of book %s is too long".formatted(book.isbn()));
+        }
+        var cents = book.price().movePointRight(2).longValueExact();
+
+        var high = book.isbn().getMostSignificantBits();
+        var low = book.isbn().getLeastSignificantBits();
+        var slot = slotOf(high, low);
+        int row;
+        if (slots[slot] != EMPTY) {
+            row = (slots[slot] - 1) * ROW_LENGTH;
+            // The old text is left behind, and not copied along if the text array is replaced for the new one
+            rows[row + TEXT] = 0;
+        } else {
+            if ((size + 1) * ROW_LENGTH > rows.length) {
+                growRows();
+            }
+            if (slotCount(size + 1) > slots.length) {
+                rehash(slotCount(size + 1));
+                slot = slotOf(high, low);
+            }
+            slots[slot] = size + 1;
+            row = size++ * ROW_LENGTH;
+            rows[row + HIGH] = high;
+            rows[row + LOW] = low;
+        }
+
+        rows[row + PRICE] = cents;
+        rows[row + VERSION] = book.version() != null ? book.version() : NO_VALUE;
+        rows[row + UPDATED_SECONDS] = book.updatedAt() != null ? book.updatedAt().getEpochSecond() : NO_VALUE;
+        rows[row + UPDATED_NANOS] = book.updatedAt() != null ? book.updatedAt().getNano() : 0;
+        var offset = appendText(title, author);
+        rows[row + TEXT] = (long) offset << 32 | (long) title.length << 16 | author.length;
+    }
+
+    private void delete(UUID isbn) {
+        var high = isbn.getMostSignificantBits();
+        var low = isbn.getLeastSignificantBits();
+        var slot = slotOf(high, low);
+        if (slots[slot] == EMPTY) {
+            return;
+        }
+        var removed = slots[slot] - 1;
+        clearSlot(slot);
+
+        // The last row moves into the removed one, so that the rows stay dense
+        var last = size - 1;
+        if (removed != last) {
+            slots[slotOf(rows[last * ROW_LENGTH + HIGH], rows[last * ROW_LENGTH + LOW])] = removed + 1;
+            System.arraycopy(rows, last * ROW_LENGTH, rows, removed * ROW_LENGTH, ROW_LENGTH);
+        }
+        size--;
+    }
+
+    /**
+     * @return slot of the ISBN, or the empty slot it would take
+     */
+    private int slotOf(long high, long low) {
+        var mask = slots.length - 1;
+        var slot = hash(high, low) & mask;
+        while (slots[slot] != EMPTY) {
+            var row = (slots[slot] - 1) * ROW_LENGTH;
+            if (rows[row + HIGH] == high && rows[row + LOW] == low) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties the slot and shifts back the following entries of the probe sequence that may take it, so that no lookup stops early at
+     * the empty slot.
+     */
+    private void clearSlot(int slot) {
+        var mask = slots.length - 1;
+        var hole = slot;
+        var next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            var entry = slots[next];
+            if (entry == EMPTY) {
+                break;
+            }
+            var row = (entry - 1) * ROW_LENGTH;
+            var home = hash(rows[row + HIGH], rows[row + LOW]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = entry;
+                hole = next;
+            }
+        }
+        slots[hole] = EMPTY;
+    }
+
+    private void rehash(int slotCount) {
+        slots = new int[slotCount];
+        for (var row = 0; row < size; row++) {
+            slots[slotOf(rows[row * ROW_LENGTH + HIGH], rows[row * ROW_LENGTH + LOW])] = row + 1;
+        }
+    }
+
+    private void growRows() {
+        var capacity = rows.length / ROW_LENGTH;
+        var grown = (int) Math.min(capacity + (long) (capacity >> 1), MAX_ARRAY_LENGTH / ROW_LENGTH);
+        if (grown == capacity) {
+            throw new IllegalStateException("Book table is full");
+        }
+        rows = Arrays.copyOf(rows, grown * ROW_LENGTH);
+    }
+
+    /**
+     * @return offset of the title, followed by the author
+     */
+    private int appendText(byte[] title, byte[] author) {
+        var length = title.length + author.length;
+        if (textSize + length > text.length) {
+            compactText(length);
+        }
+        var offset = textSize;
+        System.arraycopy(title, 0, text, offset, title.length);
+        System.arraycopy(author, 0, text, offset + title.length, author.length);
+        textSize += length;
+        return offset;
+    }
+
+    /**
+     * Copies the text of the books to a new array with room for the given number of bytes, grown when the books take more than half of
+     * the current one.
+     */
+    private void compactText(int length) {
+        var live = 0L;
+        for (var row = 0; row < size; row++) {
+            live += textLength(rows[row * ROW_LENGTH + TEXT]);
+        }
+        var capacity = live + length > text.length / 2 ? text.length + (long) (text.length >> 1) : text.length;
+        capacity = Math.max(capacity, live + length);
+        if (capacity > MAX_ARRAY_LENGTH) {
+            throw new IllegalStateException("Book table text exceeds %d bytes".formatted(MAX_ARRAY_LENGTH));
+        }
+
+        var compacted = new byte[(int) capacity];
+        var position = 0;
+        for (var row = 0; row < size; row++) {
+            var field = row * ROW_LENGTH + TEXT;
+            var rowLength = textLength(rows[field]);
+            System.arraycopy(text, textOffset(rows[field]), compacted, position, rowLength);
+            rows[field] = (long) position << 32 | (rows[field] & 0xFFFF_FFFFL);
+            position += rowLength;
+        }
+        text = compacted;
+        textSize = position;
+    }
+
+    private static int textOffset(long text) {
+        return (int) (text >>> 32);
+    }
+
+    private static int titleLength(long text) {
+        return (int) (text >>> 16) & MAX_TEXT_LENGTH;
+    }
+
+    private static int authorLength(long text) {
+        return (int) text & MAX_TEXT_LENGTH;
+    }
+
+    private static int textLength(long text) {
+        return titleLength(text) + authorLength(text);
+    }
+
+    /**
+     * Smallest power of two that keeps the index at most half full.
+     */
+    private static int slotCount(int rows) {
+        return Integer.highestOneBit(Math.max(1, rows * 2 - 1)) << 1;
+    }
+
+    private static int hash(long high, long low) {
+        var hash = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
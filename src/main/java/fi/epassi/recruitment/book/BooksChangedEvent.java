@@ -0,0 +1,22 @@
+package fi.epassi.recruitment.book;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published once the books written by a single or bulk operation have been committed, for the features that keep their own copy of the
+ * catalogue in step with it.
+ *
+ * @param saved   books created or updated, as they were written
+ * @param deleted ISBNs of the deleted books
+ */
+public record BooksChangedEvent(List<BookDto> saved, List<UUID> deleted) {
+
+    static BooksChangedEvent saved(List<BookDto> books) {
+        return new BooksChangedEvent(books, List.of());
+    }
+
+    static BooksChangedEvent deleted(List<UUID> isbns) {
+        return new BooksChangedEvent(List.of(), isbns);
+    }
+}
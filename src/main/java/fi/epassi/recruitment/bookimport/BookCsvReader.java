@@ -0,0 +1,159 @@
+package fi.epassi.recruitment.bookimport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import fi.epassi.recruitment.book.BookBulkItem;
+import fi.epassi.recruitment.book.BookDto;
+import fi.epassi.recruitment.book.BookNdjsonReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.function.Function;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Lazily reads books from a CSV stream, one record per line, like {@link BookNdjsonReader} does for NDJSON. The header line names the
+ * {@code isbn}, {@code title}, {@code author} and {@code price} columns, optionally {@code version}, in any order. Fields containing
+ * commas are quoted with double quotes, a double quote inside a quoted field is doubled. Records that cannot be parsed are handed on as
+ * malformed items, their index is the position of the record after the header.
+ */
+class BookCsvReader implements Iterator<BookBulkItem> {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("isbn", "title", "author", "price");
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final int columnCount;
+    private BookBulkItem next;
+    private int index;
+
+    /**
+     * @throws IllegalArgumentException when the header does not name all required columns
+     */
+    BookCsvReader(InputStream inputStream) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, UTF_8));
+        var header = reader.readLine();
+        var names = header == null ? List.<String>of() : parseRecord(StringUtils.removeStart(header, BYTE_ORDER_MARK));
+        for (var column = 0; column < names.size(); column++) {
+            columns.putIfAbsent(names.get(column).trim().toLowerCase(Locale.ROOT), column);
+        }
+        this.columnCount = names.size();
+
+        var missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing the columns " + missing);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public BookBulkItem next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var current = next;
+        next = null;
+        return current;
+    }
+
+    private BookBulkItem readNext() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                var recordIndex = index++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return BookBulkItem.of(recordIndex, toBook(parseRecord(line)));
+                } catch (IllegalArgumentException e) {
+                    return BookBulkItem.malformed(recordIndex, e.getMessage());
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BookDto toBook(List<String> fields) {
+        if (fields.size() != columnCount) {
+            throw new IllegalArgumentException("Expected %d fields but found %d".formatted(columnCount, fields.size()));
+        }
+        return BookDto.builder()
+            .isbn(parse(fields, "isbn", UUID::fromString))
+            .title(parse(fields, "title", Function.identity()))
+            .author(parse(fields, "author", Function.identity()))
+            .price(parse(fields, "price", BigDecimal::new))
+            .version(parse(fields, "version", Long::valueOf))
+            .build();
+    }
+
+    /**
+     * Empty fields and missing optional columns are read as {@code null}, left to the validation of the book.
+     */
+    private <T> T parse(List<String> fields, String column, Function<String, T> parser) {
+        var position = columns.get(column);
+        if (position == null || fields.get(position).isEmpty()) {
+            return null;
+        }
+        var value = fields.get(position);
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid %s {%s}".formatted(column, value));
+        }
+    }
+
+    private static List<String> parseRecord(String line) {
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        var quoted = false;
+        for (var position = 0; position < line.length(); position++) {
+            var character = line.charAt(position);
+            if (quoted) {
+                if (character != QUOTE) {
+                    field.append(character);
+                } else if (position + 1 < line.length() && line.charAt(position + 1) == QUOTE) {
+                    field.append(QUOTE);
+                    position++;
+                } else {
+                    quoted = false;
+                }
+            } else if (character == QUOTE) {
+                quoted = true;
+            } else if (character == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(character);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
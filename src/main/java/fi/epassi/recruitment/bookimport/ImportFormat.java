@@ -0,0 +1,6 @@
+package fi.epassi.recruitment.bookimport;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,46 @@
+package fi.epassi.recruitment.bookimport;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+import fi.epassi.recruitment.api.ApiResponse;
+import java.io.InputStream;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/books/imports", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+public class ImportJobController {
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final ImportJobService importJobService;
+
+    @PostMapping(consumes = TEXT_CSV_VALUE)
+    ApiResponse<ImportJobDto> importCsv(InputStream body, @RequestParam(value = "mode", defaultValue = "CREATE") ImportMode mode) {
+        return ApiResponse.ok(importJobService.submit(body, ImportFormat.CSV, mode));
+    }
+
+    @PostMapping(consumes = APPLICATION_NDJSON_VALUE)
+    ApiResponse<ImportJobDto> importNdjson(InputStream body, @RequestParam(value = "mode", defaultValue = "CREATE") ImportMode mode) {
+        return ApiResponse.ok(importJobService.submit(body, ImportFormat.NDJSON, mode));
+    }
+
+    @GetMapping("/{id}")
+    ApiResponse<ImportJobDto> getJob(@PathVariable("id") @Validated UUID id) {
+        return ApiResponse.ok(importJobService.getJob(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    ApiResponse<ImportJobDto> resumeJob(@PathVariable("id") @Validated UUID id) {
+        return ApiResponse.ok(importJobService.resume(id));
+    }
+}
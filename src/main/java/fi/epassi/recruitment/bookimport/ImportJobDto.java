@@ -0,0 +1,32 @@
+package fi.epassi.recruitment.bookimport;
+
+import fi.epassi.recruitment.book.BookBulkItemResult;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress of an import job.
+ *
+ * @param committedRows position in the upload up to which every row has been committed, where a failed job resumes
+ * @param rowsPerSecond rows imported per second over all runs of the job, once the first chunk is committed
+ * @param error         reason why the job failed
+ * @param errors        the first rows that were not applied, see {@code books.import.max-reported-errors}
+ */
+public record ImportJobDto(
+    UUID id,
+    ImportFormat format,
+    ImportMode mode,
+    ImportJobStatus status,
+    int committedRows,
+    long processed,
+    long succeeded,
+    long failed,
+    Double rowsPerSecond,
+    String error,
+    Instant createdAt,
+    Instant updatedAt,
+    Instant finishedAt,
+    List<BookBulkItemResult> errors) {
+
+}
@@ -0,0 +1,67 @@
+package fi.epassi.recruitment.bookimport;
+
+import static java.sql.Types.BINARY;
+
+import fi.epassi.recruitment.book.BookBulkItemResult;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A row of an import that was not applied. Rows are only ever inserted, so {@code saveAll} persists them without looking them up first.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(ImportJobErrorModel.Key.class)
+@Table(name = "import_job_errors")
+public class ImportJobErrorModel implements Persistable<ImportJobErrorModel.Key> {
+
+    @Id
+    @Column(name = "job_id", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
+    @JdbcTypeCode(value = BINARY)
+    private UUID jobId;
+
+    @Id
+    private int rowIndex;
+
+    @Column(name = "isbn", columnDefinition = "BINARY(16)")
+    @JdbcTypeCode(value = BINARY)
+    private UUID isbn;
+
+    @Enumerated(EnumType.STRING)
+    private BookBulkItemResult.Status status;
+
+    private String message;
+
+    @Override
+    public Key getId() {
+        return new Key(jobId, rowIndex);
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private UUID jobId;
+        private int rowIndex;
+    }
+}
@@ -0,0 +1,11 @@
+package fi.epassi.recruitment.bookimport;
+
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ImportJobErrorRepository extends JpaRepository<ImportJobErrorModel, ImportJobErrorModel.Key> {
+
+    List<ImportJobErrorModel> findByJobIdOrderByRowIndex(UUID jobId, Limit limit);
+}
@@ -0,0 +1,72 @@
+package fi.epassi.recruitment.bookimport;
+
+import static java.sql.Types.BINARY;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+
+@Entity
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "import_jobs")
+public class ImportJobModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
+    @JdbcTypeCode(value = BINARY)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    private ImportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    private ImportMode mode;
+
+    @Enumerated(EnumType.STRING)
+    private ImportJobStatus status;
+
+    /**
+     * Position in the upload up to which every row has been committed, the row index of CSV uploads and the line index of NDJSON uploads.
+     */
+    private int committedRows;
+
+    private long processed;
+
+    private long succeeded;
+
+    private long failed;
+
+    /**
+     * Time spent importing over all runs of the job, the base of its throughput.
+     */
+    private long runningMillis;
+
+    private String error;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    private Instant finishedAt;
+
+    @Version
+    private Long version;
+
+}
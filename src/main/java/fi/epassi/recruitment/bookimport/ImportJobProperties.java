@@ -0,0 +1,26 @@
+package fi.epassi.recruitment.bookimport;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Books are imported in chunks of {@code books.bulk.chunk-size}, see {@link fi.epassi.recruitment.book.BookBulkProperties}.
+ *
+ * @param directory         where uploads are kept until their job completes, a failed job resumes reading its upload
+ * @param workers           number of jobs running at the same time, each of them holding at most one database connection
+ * @param queueCapacity     number of jobs waiting for a worker, further uploads are rejected until a job finishes
+ * @param maxReportedErrors number of failed rows kept per job for its status, further failed rows are only counted
+ * @param staleAfter        time without progress after which a running job counts as interrupted and can be resumed, longer than
+ *                          writing a chunk takes
+ */
+@ConfigurationProperties(prefix = "books.import")
+public record ImportJobProperties(
+    @DefaultValue("./db/imports") Path directory,
+    @DefaultValue("2") int workers,
+    @DefaultValue("8") int queueCapacity,
+    @DefaultValue("1000") int maxReportedErrors,
+    @DefaultValue("5m") Duration staleAfter) {
+
+}
@@ -0,0 +1,55 @@
+package fi.epassi.recruitment.bookimport;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface ImportJobRepository extends JpaRepository<ImportJobModel, UUID> {
+
+    /**
+     * Queues a failed job, or a running job that made no progress since {@code staleBefore} because the instance running it stopped, again.
+     * Being a single conditional statement, only one of concurrent resumes of a job succeeds. A queued job is not requeued, it is run by
+     * the worker it waits for.
+     *
+     * @return number of updated rows, {@code 0} when the job cannot be resumed
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update versioned ImportJobModel j
+        set j.status = fi.epassi.recruitment.bookimport.ImportJobStatus.QUEUED, j.error = null, j.updatedAt = :now
+        where j.id = :id
+        and (j.status = fi.epassi.recruitment.bookimport.ImportJobStatus.FAILED
+            or (j.status = fi.epassi.recruitment.bookimport.ImportJobStatus.RUNNING and j.updatedAt < :staleBefore))
+        """)
+    int requeue(@Param("id") UUID id, @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+    /**
+     * Takes a queued job for the calling worker, only one worker can take it.
+     *
+     * @return number of updated rows, {@code 0} when the job is not queued
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update versioned ImportJobModel j set j.status = fi.epassi.recruitment.bookimport.ImportJobStatus.RUNNING, j.updatedAt = :now
+        where j.id = :id and j.status = fi.epassi.recruitment.bookimport.ImportJobStatus.QUEUED
+        """)
+    int claim(@Param("id") UUID id, @Param("now") Instant now);
+
+    /**
+     * Fails a job that is still queued, for a job whose worker will not run it.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update versioned ImportJobModel j
+        set j.status = fi.epassi.recruitment.bookimport.ImportJobStatus.FAILED, j.error = :error, j.updatedAt = :now
+        where j.id = :id and j.status = fi.epassi.recruitment.bookimport.ImportJobStatus.QUEUED
+        """)
+    int failQueued(@Param("id") UUID id, @Param("error") String error, @Param("now") Instant now);
+}
@@ -0,0 +1,321 @@
+package fi.epassi.recruitment.bookimport;
+
+import static fi.epassi.recruitment.bookimport.ImportJobStatus.COMPLETED;
+import static fi.epassi.recruitment.bookimport.ImportJobStatus.FAILED;
+import static fi.epassi.recruitment.bookimport.ImportJobStatus.QUEUED;
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.epassi.recruitment.book.BookBulkChunkCallback;
+import fi.epassi.recruitment.book.BookBulkItem;
+import fi.epassi.recruitment.book.BookBulkItemResult;
+import fi.epassi.recruitment.book.BookNdjsonReader;
+import fi.epassi.recruitment.book.BookService;
+import fi.epassi.recruitment.exception.ApplicationException;
+import fi.epassi.recruitment.exception.ImportJobNotFoundException;
+import fi.epassi.recruitment.exception.ImportJobNotResumableException;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.StreamSupport;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Imports uploaded files of books in the background. The upload is kept on disk and read a chunk at a time by one of a fixed number of
+ * workers, so that a job never holds more than a chunk in memory and the parsing never runs ahead of the writes. Every chunk is written
+ * through {@link BookService} in its own transaction, which commits the progress of the job and its failed rows together with the chunk.
+ * <p>
+ * A chunk that cannot be committed, on a lock timeout for instance, fails the job instead of recording its rows as failed. A job that
+ * fails or is interrupted midway resumes after its last committed chunk. A job is run by the worker that claims it queued, so that no row
+ * is imported twice.
+ */
+@Slf4j
+@Service
+public class ImportJobService {
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final ImportJobRepository jobRepository;
+    private final ImportJobErrorRepository errorRepository;
+    private final BookService bookService;
+    private final ImportJobProperties properties;
+    private final ObjectMapper mapper;
+    private final ExecutorService workers;
+    private final Semaphore slots;
+
+    public ImportJobService(
+        ImportJobRepository jobRepository,
+        ImportJobErrorRepository errorRepository,
+        BookService bookService,
+        ImportJobProperties properties,
+        ObjectMapper mapper) {
+        this.jobRepository = jobRepository;
+        this.errorRepository = errorRepository;
+        this.bookService = bookService;
+        this.properties = properties;
+        this.mapper = mapper;
+        var threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.workers(), task -> new Thread(task, "book-import-" + threads.incrementAndGet()));
+        // Running and waiting jobs together, a job takes its slot before its upload is stored
+        this.slots = new Semaphore(properties.workers() + properties.queueCapacity());
+    }
+
+    /**
+     * Stores the upload and queues its import.
+     *
+     * @throws ApplicationException with {@code 429 Too Many Requests} when all workers are busy and the queue is full
+     */
+    public ImportJobDto submit(InputStream upload, @NonNull ImportFormat format, @NonNull ImportMode mode) {
+        takeSlot();
+        UUID jobId = null;
+        try {
+            var now = Instant.now();
+            var job = jobRepository.save(ImportJobModel.builder().format(format).mode(mode).status(QUEUED).createdAt(now).updatedAt(now).build());
+            jobId = job.getId();
+            Files.createDirectories(properties.directory());
+            Files.copy(upload, uploadPath(jobId));
+            workers.execute(new QueuedJob(jobId));
+            return toImportJobDto(job, List.of());
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            discard(jobId);
+            throw e instanceof ApplicationException applicationException
+                ? applicationException
+                : new ApplicationException("Storing the upload failed", e);
+        }
+    }
+
+    public ImportJobDto getJob(@NonNull UUID id) {
+        var job = jobRepository.findById(id).orElseThrow(() -> new ImportJobNotFoundException(id.toString()));
+        var errors = errorRepository.findByJobIdOrderByRowIndex(id, Limit.of(properties.maxReportedErrors())).stream()
+            .map(error -> new BookBulkItemResult(error.getRowIndex(), error.getIsbn(), error.getStatus(), error.getMessage()))
+            .toList();
+        return toImportJobDto(job, errors);
+    }
+
+    /**
+     * Queues a failed job again, or a running job left behind by an instance that stopped while running it. It goes on after its last
+     * committed chunk.
+     */
+    public ImportJobDto resume(@NonNull UUID id) {
+        var job = jobRepository.findById(id).orElseThrow(() -> new ImportJobNotFoundException(id.toString()));
+        if (!Files.exists(uploadPath(id))) {
+            throw new ImportJobNotResumableException(id.toString(), job.getStatus().name());
+        }
+
+        takeSlot();
+        try {
+            var now = Instant.now();
+            if (jobRepository.requeue(id, now, now.minus(properties.staleAfter())) == 0) {
+                throw new ImportJobNotResumableException(id.toString(), job.getStatus().name());
+            }
+            workers.execute(new QueuedJob(id));
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        return getJob(id);
+    }
+
+    /**
+     * Running jobs are interrupted before their next chunk commits and fail, queued jobs fail right away, ready to be resumed.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        for (var task : workers.shutdownNow()) {
+            var jobId = ((QueuedJob) task).jobId;
+            try {
+                jobRepository.failQueued(jobId, "Interrupted by shutdown", Instant.now());
+            } catch (RuntimeException e) {
+                log.error("Failed to record the failure of queued import job {}", jobId, e);
+            }
+        }
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    Path uploadPath(UUID jobId) {
+        return properties.directory().resolve(jobId.toString());
+    }
+
+    /**
+     * Runs the job unless another worker took it already, which a job resumed while it was still waiting for its worker would otherwise
+     * be. Every save of the job checks its version, so a run whose job has been taken over fails instead of overwriting the progress.
+     */
+    private void run(UUID jobId) {
+        try {
+            if (jobRepository.claim(jobId, Instant.now()) == 0) {
+                log.info("Import job {} is no longer queued, not running it", jobId);
+                return;
+            }
+            var progress = new ChunkProgress(jobRepository.findById(jobId).orElseThrow());
+            try {
+                try (var upload = Files.newInputStream(uploadPath(jobId))) {
+                    importRows(progress, open(progress.job.getFormat(), upload));
+                }
+
+                var now = Instant.now();
+                var job = jobRepository.save(progress.job.toBuilder().status(COMPLETED).finishedAt(now).updatedAt(now).build());
+                Files.deleteIfExists(uploadPath(jobId));
+                log.info("Import job {} completed, {} of {} rows imported", jobId, job.getSucceeded(), job.getProcessed());
+            } catch (Exception e) {
+                log.warn("Import job {} failed", jobId, e);
+                fail(progress.job, e);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to start import job {}", jobId, e);
+        } finally {
+            slots.release();
+        }
+    }
+
+    private void importRows(ChunkProgress progress, Iterator<BookBulkItem> items) {
+        var resumeFrom = progress.job.getCommittedRows();
+        var rows = StreamSupport.stream(Spliterators.spliteratorUnknownSize(items, Spliterator.ORDERED), false)
+            .dropWhile(item -> item.index() < resumeFrom)
+            .iterator();
+        if (progress.job.getMode() == ImportMode.CREATE) {
+            bookService.createBooks(rows, false, progress);
+        } else {
+            bookService.updateBooks(rows, false, progress);
+        }
+    }
+
+    /**
+     * The failed rows of the chunk, as far as the job has not reported {@code books.import.max-reported-errors} rows yet.
+     */
+    private List<ImportJobErrorModel> toErrorModels(ImportJobModel job, List<BookBulkItemResult> failed) {
+        var reported = Math.min(job.getFailed(), properties.maxReportedErrors());
+        return failed.stream()
+            .sorted(Comparator.comparingInt(BookBulkItemResult::index))
+            .limit(properties.maxReportedErrors() - reported)
+            .map(item -> new ImportJobErrorModel(job.getId(), item.index(), item.isbn(), item.status(), truncate(item.message())))
+            .toList();
+    }
+
+    private Iterator<BookBulkItem> open(ImportFormat format, InputStream upload) throws IOException {
+        return switch (format) {
+            case CSV -> new BookCsvReader(upload);
+            case NDJSON -> new BookNdjsonReader(upload, mapper);
+        };
+    }
+
+    /**
+     * Records the failure on the job as this run last saved it, unless another run has taken the job over since.
+     */
+    private void fail(ImportJobModel job, Exception cause) {
+        try {
+            jobRepository.save(job.toBuilder().status(FAILED).error(truncate(getRootCauseMessage(cause))).updatedAt(Instant.now()).build());
+        } catch (RuntimeException e) {
+            log.error("Failed to record the failure of import job {}, it can be resumed once it is stale", job.getId(), e);
+        }
+    }
+
+    private void discard(UUID jobId) {
+        if (jobId == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(uploadPath(jobId));
+            jobRepository.deleteById(jobId);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to discard import job {}", jobId, e);
+        }
+    }
+
+    private void takeSlot() {
+        if (!slots.tryAcquire()) {
+            throw new ApplicationException(TOO_MANY_REQUESTS, "Too many imports are running or queued, retry once one of them has finished");
+        }
+    }
+
+    private static String truncate(String message) {
+        return StringUtils.abbreviate(message, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Saves the progress of the job and the failed rows of each chunk in the transaction of the chunk, and takes the saved job over once
+     * it commits. A job is interrupted by a shutdown before its next chunk commits.
+     */
+    private final class ChunkProgress implements BookBulkChunkCallback {
+
+        private ImportJobModel job;
+        private long started = System.nanoTime();
+
+        private ChunkProgress(ImportJobModel job) {
+            this.job = job;
+        }
+
+        @Override
+        public void beforeCommit(List<BookBulkItem> chunk, List<BookBulkItemResult> results) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Interrupted by shutdown");
+            }
+
+            var failed = results.stream().filter(result -> !result.status().isSuccessful()).toList();
+            var errors = toErrorModels(job, failed);
+            var now = System.nanoTime();
+            var progress = job.toBuilder()
+                .committedRows(chunk.get(chunk.size() - 1).index() + 1)
+                .processed(job.getProcessed() + results.size())
+                .succeeded(job.getSucceeded() + results.size() - failed.size())
+                .failed(job.getFailed() + failed.size())
+                .runningMillis(job.getRunningMillis() + TimeUnit.NANOSECONDS.toMillis(now - started))
+                .updatedAt(Instant.now())
+                .build();
+            errorRepository.saveAll(errors);
+            var saved = jobRepository.save(progress);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    job = saved;
+                    started = now;
+                }
+            });
+        }
+    }
+
+    /**
+     * Task of a job waiting for a worker, tells the jobs that a shutdown drops from the queue.
+     */
+    private final class QueuedJob implements Runnable {
+
+        private final UUID jobId;
+
+        private QueuedJob(UUID jobId) {
+            this.jobId = jobId;
+        }
+
+        @Override
+        public void run() {
+            ImportJobService.this.run(jobId);
+        }
+    }
+
+    private static ImportJobDto toImportJobDto(ImportJobModel job, List<BookBulkItemResult> errors) {
+        var rowsPerSecond = job.getRunningMillis() > 0 ? job.getProcessed() * 1000.0 / job.getRunningMillis() : null;
+        return new ImportJobDto(job.getId(), job.getFormat(), job.getMode(), job.getStatus(), job.getCommittedRows(), job.getProcessed(),
+            job.getSucceeded(), job.getFailed(), rowsPerSecond, job.getError(), job.getCreatedAt(), job.getUpdatedAt(), job.getFinishedAt(),
+            errors);
+    }
+}
@@ -0,0 +1,8 @@
+package fi.epassi.recruitment.bookimport;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,9 @@
+package fi.epassi.recruitment.bookimport;
+
+/**
+ * Whether the books of an import are created, like {@code POST /api/v1/books/bulk}, or updated, like {@code PUT /api/v1/books/bulk}.
+ */
+public enum ImportMode {
+    CREATE,
+    UPDATE
+}
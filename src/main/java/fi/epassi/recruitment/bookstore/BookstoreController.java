@@ -0,0 +1,78 @@
+package fi.epassi.recruitment.bookstore;
+
+import static fi.epassi.recruitment.book.BookController.DEFAULT_PAGE_SIZE;
+import static fi.epassi.recruitment.book.BookController.MAX_PAGE_SIZE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import fi.epassi.recruitment.api.ApiResponse;
+import fi.epassi.recruitment.book.BookSearchCriteria;
+import fi.epassi.recruitment.inventory.InventoryChangeDto;
+import fi.epassi.recruitment.inventory.InventoryDto;
+import fi.epassi.recruitment.inventory.InventoryService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/bookstores", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+public class BookstoreController {
+
+    private final BookstoreService bookstoreService;
+    private final InventoryService inventoryService;
+
+    @GetMapping
+    ApiResponse<List<BookstoreDto>> getBookstores() {
+        return ApiResponse.ok(bookstoreService.getBookstores());
+    }
+
+    @PostMapping
+    ApiResponse<UUID> createBookstore(@RequestBody @Validated BookstoreDto bookstoreDto) {
+        return ApiResponse.ok(bookstoreService.createBookstore(bookstoreDto));
+    }
+
+    @GetMapping("/{storeId}/books")
+    ApiResponse<List<StoreBookDto>> getStoreBooks(
+        @PathVariable("storeId") @Validated UUID storeId,
+        @RequestParam(value = "author", required = false) String author,
+        @RequestParam(value = "title", required = false) String title,
+        @RequestParam(value = "author_prefix", required = false) String authorPrefix,
+        @RequestParam(value = "title_prefix", required = false) String titlePrefix,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        var criteria = new BookSearchCriteria(author, title, authorPrefix, titlePrefix);
+        var page = bookstoreService.getStoreBooks(storeId, criteria, cursor, limit);
+        return ApiResponse.ok(page.books(), page.nextCursor());
+    }
+
+    @GetMapping("/{storeId}/stock/{isbn}")
+    ApiResponse<InventoryDto> getStoreInventory(@PathVariable("storeId") @Validated UUID storeId, @PathVariable("isbn") @Validated UUID isbn) {
+        return ApiResponse.ok(inventoryService.getStoreInventory(storeId, isbn));
+    }
+
+    @PostMapping("/{storeId}/stock/{isbn}/increment")
+    ApiResponse<InventoryDto> addStoreCopies(
+        @PathVariable("storeId") @Validated UUID storeId,
+        @PathVariable("isbn") @Validated UUID isbn,
+        @RequestBody @Validated InventoryChangeDto change) {
+        return ApiResponse.ok(inventoryService.addStoreCopies(storeId, isbn, change.copies()));
+    }
+
+    @PostMapping("/{storeId}/stock/{isbn}/decrement")
+    ApiResponse<InventoryDto> takeStoreCopies(
+        @PathVariable("storeId") @Validated UUID storeId,
+        @PathVariable("isbn") @Validated UUID isbn,
+        @RequestBody @Validated InventoryChangeDto change) {
+        return ApiResponse.ok(inventoryService.takeStoreCopies(storeId, isbn, change.copies()));
+    }
+}
@@ -0,0 +1,13 @@
+package fi.epassi.recruitment.bookstore;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.util.UUID;
+
+/**
+ * @param id   assigned when the bookstore is created
+ * @param name unique name of the physical or online store
+ */
+public record BookstoreDto(UUID id, @NotBlank @Size(max = 128) String name) {
+
+}
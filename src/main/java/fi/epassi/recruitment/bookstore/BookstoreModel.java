@@ -0,0 +1,42 @@
+package fi.epassi.recruitment.bookstore;
+
+import static java.sql.Types.BINARY;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "bookstores")
+public class BookstoreModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
+    @JdbcTypeCode(value = BINARY)
+    private UUID id;
+
+    @NotBlank
+    private String name;
+
+    /**
+     * Row of {@code inventory_totals} the stock of the store is rolled up into, assigned when the store is created.
+     */
+    @Column(updatable = false)
+    private int rollupSlot;
+
+}
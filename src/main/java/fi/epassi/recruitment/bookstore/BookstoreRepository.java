@@ -0,0 +1,12 @@
+package fi.epassi.recruitment.bookstore;
+
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface BookstoreRepository extends JpaRepository<BookstoreModel, UUID> {
+
+    @Query("select s.rollupSlot from BookstoreModel s")
+    List<Integer> findRollupSlots();
+}
@@ -0,0 +1,75 @@
+package fi.epassi.recruitment.bookstore;
+
+import fi.epassi.recruitment.book.BookDto;
+import fi.epassi.recruitment.book.BookSearchCriteria;
+import fi.epassi.recruitment.book.BookService;
+import fi.epassi.recruitment.exception.BookstoreAlreadyExistsException;
+import fi.epassi.recruitment.exception.BookstoreNotFoundException;
+import fi.epassi.recruitment.inventory.InventoryService;
+import java.util.List;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class BookstoreService {
+
+    private final BookstoreRepository bookstoreRepository;
+    private final BookService bookService;
+    private final InventoryService inventoryService;
+
+    public UUID createBookstore(BookstoreDto bookstoreDto) {
+        try {
+            var bookstore = BookstoreModel.builder().name(bookstoreDto.name()).rollupSlot(leastUsedRollupSlot()).build();
+            return bookstoreRepository.saveAndFlush(bookstore).getId();
+        } catch (DataIntegrityViolationException e) {
+            throw new BookstoreAlreadyExistsException(bookstoreDto.name());
+        }
+    }
+
+    public List<BookstoreDto> getBookstores() {
+        return bookstoreRepository.findAll(Sort.by("name")).stream().map(BookstoreService::toBookstoreDto).toList();
+    }
+
+    /**
+     * Searches the catalogue like {@link BookService#getBooks} and adds the copies available in the store, read for the whole page with a
+     * single query.
+     */
+    public StoreBookPage getStoreBooks(@NonNull UUID storeId, BookSearchCriteria criteria, String cursor, int limit) {
+        requireBookstore(storeId);
+        var page = bookService.getBooks(criteria, cursor, limit);
+        var copies = inventoryService.getStoreCopies(storeId, page.books().stream().map(BookDto::isbn).toList());
+        var books = page.books().stream().map(book -> new StoreBookDto(book, copies.getOrDefault(book.isbn(), 0))).toList();
+        return new StoreBookPage(books, page.nextCursor());
+    }
+
+    /**
+     * Gives every store a slot of its own as long as there are no more stores than slots, and spreads them evenly beyond. Two stores
+     * created at the same time may get the same slot, which only makes them share a rollup row.
+     */
+    private int leastUsedRollupSlot() {
+        var stores = new int[InventoryService.ROLLUP_SLOTS];
+        bookstoreRepository.findRollupSlots().forEach(slot -> stores[slot]++);
+        var leastUsed = 0;
+        for (var slot = 1; slot < stores.length; slot++) {
+            if (stores[slot] < stores[leastUsed]) {
+                leastUsed = slot;
+            }
+        }
+        return leastUsed;
+    }
+
+    private void requireBookstore(UUID storeId) {
+        if (!bookstoreRepository.existsById(storeId)) {
+            throw new BookstoreNotFoundException(storeId.toString());
+        }
+    }
+
+    private static BookstoreDto toBookstoreDto(BookstoreModel bookstoreModel) {
+        return new BookstoreDto(bookstoreModel.getId(), bookstoreModel.getName());
+    }
+}
@@ -0,0 +1,11 @@
+package fi.epassi.recruitment.bookstore;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import fi.epassi.recruitment.book.BookDto;
+
+/**
+ * A book of the catalogue with the copies available in one store.
+ */
+public record StoreBookDto(@JsonUnwrapped BookDto book, int copies) {
+
+}
@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.bookstore;
+
+import java.util.List;
+
+/**
+ * @param nextCursor cursor of the page that follows, {@code null} on the last page
+ */
+public record StoreBookPage(List<StoreBookDto> books, String nextCursor) {
+
+}
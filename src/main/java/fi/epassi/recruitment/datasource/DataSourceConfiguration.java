@@ -0,0 +1,86 @@
+package fi.epassi.recruitment.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Splits the database connections into a read-write and a read-only pool, so that long read scans cannot starve writes of connections
+ * and can be moved onto a replica. Connections are only fetched from a pool once the transaction has marked them read-only or not, so
+ * {@code @Transactional(readOnly = true)} work runs on the read-only pool and everything else on the read-write one. Both pools publish
+ * their {@code hikaricp.connections.*} meters, tagged with the pool name.
+ * <p>
+ * A replica lags behind its primary, so work that has to read its own writes must not be marked read-only, and neither must reads whose
+ * results are cached, a stale result would be served until it expires.
+ */
+@Slf4j
+@Configuration
+public class DataSourceConfiguration {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writeDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.read.hikari")
+    public HikariDataSource readDataSource(DataSourceProperties writeProperties, ReadDataSourceProperties readProperties) {
+        return DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(writeProperties.determineDriverClassName())
+            .url(StringUtils.defaultIfBlank(readProperties.url(), writeProperties.determineUrl()))
+            .username(StringUtils.defaultIfBlank(readProperties.username(), writeProperties.determineUsername()))
+            .password(StringUtils.defaultIfBlank(readProperties.password(), writeProperties.determinePassword()))
+            .build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource writeDataSource, HikariDataSource readDataSource) {
+        var dataSource = new LazyConnectionDataSourceProxy(writeDataSource);
+        dataSource.setReadOnlyDataSource(readDataSource);
+        return dataSource;
+    }
+
+    /**
+     * Caps each pool at the number of carrier threads of the virtual threads, {@code jdk.virtualThreadScheduler.parallelism}. H2 waits for
+     * row locks inside synchronized blocks, which pins the carrier of the waiting virtual thread. With more connections than carriers the
+     * writers waiting for a lock can pin every carrier and leave none to the writer holding it, the load test stalled that way with 40
+     * connections per pool on one core. Requests beyond the pool park their virtual thread while waiting for a connection instead.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    static BeanPostProcessor virtualThreadPoolSizeLimit() {
+        var carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    var size = pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+                    if (size > carriers) {
+                        log.info("Capping connection pool {} at {} connections, the number of virtual thread carriers", beanName, carriers);
+                        pool.setMaximumPoolSize(carriers);
+                        pool.setMinimumIdle(Math.min(pool.getMinimumIdle(), carriers));
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
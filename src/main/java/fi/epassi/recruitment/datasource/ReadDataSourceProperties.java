@@ -0,0 +1,12 @@
+package fi.epassi.recruitment.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Database of the read-only pool, e.g. a replica. Unset values are taken from {@code spring.datasource.*}, so by default the read-only
+ * pool connects to the same database as the read-write one. The pool itself is tuned with {@code datasource.read.hikari.*}.
+ */
+@ConfigurationProperties(prefix = "datasource.read")
+public record ReadDataSourceProperties(String url, String username, String password) {
+
+}
@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.exception;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+public class BookAlreadyExistsException extends ApplicationException {
+
+    public BookAlreadyExistsException(final String isbn) {
+        super(CONFLICT, "Book with ISBN {%s} already exists".formatted(isbn));
+    }
+}
@@ -0,0 +1,11 @@
+package fi.epassi.recruitment.exception;
+
+import static org.springframework.http.HttpStatus.GONE;
+
+public class BookChangesExpiredException extends ApplicationException {
+
+    public BookChangesExpiredException(final long since, final long expiredSequence) {
+        super(GONE, "Book changes up to {%d} have been removed, changes since {%d} are incomplete, export the catalogue again"
+            .formatted(expiredSequence, since));
+    }
+}
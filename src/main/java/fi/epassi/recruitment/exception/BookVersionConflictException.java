@@ -0,0 +1,12 @@
+package fi.epassi.recruitment.exception;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+public class BookVersionConflictException extends ApplicationException {
+
+    public BookVersionConflictException(final String isbn, final Long version) {
+        super(CONFLICT, version == null
+            ? "Book with ISBN {%s} has been modified concurrently".formatted(isbn)
+            : "Book with ISBN {%s} has been modified since version {%d}".formatted(isbn, version));
+    }
+}
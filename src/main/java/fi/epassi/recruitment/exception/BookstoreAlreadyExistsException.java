@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.exception;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+public class BookstoreAlreadyExistsException extends ApplicationException {
+
+    public BookstoreAlreadyExistsException(final String name) {
+        super(CONFLICT, "Bookstore with name {%s} already exists".formatted(name));
+    }
+}
@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.exception;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+public class BookstoreNotFoundException extends ApplicationException {
+
+    public BookstoreNotFoundException(final String id) {
+        super(NOT_FOUND, "No bookstore found with id {%s}".formatted(id));
+    }
+}
@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.exception;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+public class ImportJobNotFoundException extends ApplicationException {
+
+    public ImportJobNotFoundException(final String id) {
+        super(NOT_FOUND, "No import job found with id {%s}".formatted(id));
+    }
+}
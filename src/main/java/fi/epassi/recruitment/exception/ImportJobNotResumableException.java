@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.exception;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+public class ImportJobNotResumableException extends ApplicationException {
+
+    public ImportJobNotResumableException(final String id, final String status) {
+        super(CONFLICT, "Import job with id {%s} is {%s} and cannot be resumed".formatted(id, status));
+    }
+}
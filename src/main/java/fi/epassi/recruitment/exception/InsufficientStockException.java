@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.exception;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+public class InsufficientStockException extends ApplicationException {
+
+    public InsufficientStockException(final String isbn, final int copies) {
+        super(CONFLICT, "Not enough copies of book with ISBN {%s} in stock to take {%d}".formatted(isbn, copies));
+    }
+}
@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.exception;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+public class InvalidCursorException extends ApplicationException {
+
+    public InvalidCursorException(final String cursor) {
+        super(BAD_REQUEST, "Invalid page cursor {%s}".formatted(cursor));
+    }
+}
@@ -0,0 +1,12 @@
+package fi.epassi.recruitment.exception;
+
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+public class SalesBufferFullException extends ApplicationException {
+
+    public SalesBufferFullException(final long retryAfterSeconds) {
+        super(TOO_MANY_REQUESTS, "Too many sales are waiting to be committed, retry in {%d} seconds".formatted(retryAfterSeconds));
+        getHeaders().set(RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    }
+}
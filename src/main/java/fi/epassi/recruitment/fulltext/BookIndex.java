@@ -0,0 +1,362 @@
+package fi.epassi.recruitment.fulltext;
+
+import fi.epassi.recruitment.book.BookDto;
+import jakarta.annotation.PostConstruct;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.ThreadInterruptedException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Lucene index of the titles and authors of all books. Only the ISBN is stored, the books themselves are read from the database, so a
+ * hit never shows stale values. Changes are made visible to searches before the call returns by a near-real-time reopen, which does not
+ * force them to disk. Reopens are left to a {@link ControlledRealTimeReopenThread}, which serves the changes waiting for one together,
+ * instead of each change reopening the searcher. Changes are committed every {@code full-text.commit-interval} and when the index is
+ * closed, together with the sequence of the change feed they were read at, so that after a crash the index goes on from the changes of
+ * its last commit.
+ */
+@Slf4j
+@Component
+public class BookIndex implements Closeable {
+
+    private static final String ISBN = "isbn";
+    private static final String TITLE = "title";
+    private static final String AUTHOR = "author";
+    // Rebuild a document was indexed by, so that the documents of the index it replaces can be told apart after they are added
+    private static final String REBUILD = "rebuild";
+    private static final Set<String> STORED_FIELDS = Set.of(ISBN);
+    private static final String SEQUENCE = "sequence";
+
+    private static final int MAX_WORDS = 16;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int MIN_TWO_EDITS_LENGTH = 6;
+    private static final float EXACT_BOOST = 4;
+    private static final float PREFIX_BOOST = 2;
+    private static final double MAX_STALE_SECONDS = 1;
+    private static final double MIN_STALE_SECONDS = 0;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final FSDirectory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+    private final FullTextProperties properties;
+    private final ScheduledExecutorService committer;
+    // Shared by writes and commits, held exclusively to start a rebuild and to swap it in, so that no half-swapped index is seen
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // Latest state of the books written while a rebuild runs, empty for deleted ones, null when no rebuild runs
+    private Map<UUID, Optional<BookDto>> rebuildChanges;
+    // Sequence of the change feed the index is at, written with every commit, negative when the index is at no sequence
+    private final AtomicLong sequence = new AtomicLong(-1);
+
+    public BookIndex(FullTextProperties properties) {
+        this.properties = properties;
+        this.committer = Executors.newSingleThreadScheduledExecutor(task -> new Thread(task, "full-text-committer"));
+        try {
+            directory = FSDirectory.open(properties.indexPath());
+            writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the full-text index in " + properties.indexPath(), e);
+        }
+        var commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            commitData.forEach(entry -> {
+                if (SEQUENCE.equals(entry.getKey())) {
+                    sequence.set(Long.parseLong(entry.getValue()));
+                }
+            });
+        }
+        reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, MAX_STALE_SECONDS, MIN_STALE_SECONDS);
+        reopenThread.setName("full-text-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+    }
+
+    @PostConstruct
+    void start() {
+        var interval = properties.commitInterval().toMillis();
+        committer.scheduleWithFixedDelay(this::commitSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return sequence of the change feed the index was last committed or written at, empty for a new index or one never written from
+     *     the feed
+     */
+    public OptionalLong sequence() {
+        var current = sequence.get();
+        return current < 0 ? OptionalLong.empty() : OptionalLong.of(current);
+    }
+
+    /**
+     * Writes the saved books and removes the deleted ones, read from the change feed up to {@code sequence}, and waits until searches
+     * see them.
+     */
+    public void apply(Collection<BookDto> saved, Collection<UUID> deleted, long sequence) throws IOException {
+        var generation = -1L;
+        swapLock.readLock().lock();
+        try {
+            for (var book : saved) {
+                generation = writer.updateDocument(isbnTerm(book.isbn()), toDocument(book));
+                if (rebuildChanges != null) {
+                    rebuildChanges.put(book.isbn(), Optional.of(book));
+                }
+            }
+            if (!deleted.isEmpty()) {
+                generation = writer.deleteDocuments(deleted.stream().map(BookIndex::isbnTerm).toArray(Term[]::new));
+                if (rebuildChanges != null) {
+                    deleted.forEach(isbn -> rebuildChanges.put(isbn, Optional.empty()));
+                }
+            }
+            setSequence(sequence);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        if (generation >= 0) {
+            try {
+                reopenThread.waitForGeneration(generation);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ThreadInterruptedException(e);
+            }
+        }
+    }
+
+    /**
+     * Replaces the whole index with the books handed to the consumer by {@code source}, indexed into a fresh directory next to the index
+     * and swapped in once all books are indexed. Searches keep seeing the previous index until then. The books written meanwhile are
+     * recorded and applied again to the rebuilt index when it is swapped in, so that the source, which may have read them before the
+     * write, neither brings back a deleted book nor leaves an updated one with its old values. A rebuild that fails is discarded and leaves
+     * the previous index as it was.
+     *
+     * @param sequence sequence of the change feed read before the source, the rebuilt index is at least at it
+     * @return number of indexed books
+     */
+    public synchronized long rebuild(Consumer<Consumer<BookDto>> source, long sequence) throws IOException {
+        var rebuildPath = properties.indexPath().resolveSibling(properties.indexPath().getFileName() + "-rebuild");
+        FileSystemUtils.deleteRecursively(rebuildPath);
+        var indexed = new long[1];
+        var rebuild = UUID.randomUUID().toString();
+        try (var rebuildDirectory = FSDirectory.open(rebuildPath)) {
+            var newWriter = new IndexWriter(rebuildDirectory, new IndexWriterConfig(analyzer));
+            setRebuildChanges(new ConcurrentHashMap<>());
+            try {
+                source.accept(book -> {
+                    try {
+                        newWriter.updateDocument(isbnTerm(book.isbn()), toDocument(book, rebuild));
+                        indexed[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                swapIn(newWriter, rebuildDirectory, rebuild, sequence);
+            } catch (IOException | RuntimeException e) {
+                setRebuildChanges(null);
+                if (newWriter.isOpen()) {
+                    newWriter.rollback();
+                }
+                throw e;
+            }
+        } finally {
+            FileSystemUtils.deleteRecursively(rebuildPath);
+        }
+        return indexed[0];
+    }
+
+    /**
+     * Ranks the books whose title or author contain every word of the text, each word matching exactly, as the start of a word or with
+     * up to two typos, in this order of relevance.
+     *
+     * @return ISBNs of up to {@code limit + 1} books from the {@code offset}, the extra one tells that more books follow
+     */
+    public List<UUID> search(String text, int offset, int limit) throws IOException {
+        var query = toQuery(text);
+        if (query == null) {
+            return List.of();
+        }
+
+        var searcher = searcherManager.acquire();
+        try {
+            var hits = searcher.search(query, offset + limit + 1).scoreDocs;
+            var storedFields = searcher.storedFields();
+            var isbns = new ArrayList<UUID>(Math.max(0, hits.length - offset));
+            for (var i = offset; i < hits.length; i++) {
+                isbns.add(UUID.fromString(storedFields.document(hits[i].doc, STORED_FIELDS).get(ISBN)));
+            }
+            return isbns;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Commits the changes not committed yet, when the writer is closed.
+     */
+    @Override
+    public void close() throws IOException {
+        committer.shutdown();
+        reopenThread.close();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private Query toQuery(String text) throws IOException {
+        var query = new BooleanQuery.Builder();
+        var words = 0;
+        try (var tokens = analyzer.tokenStream(TITLE, text)) {
+            var term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (words < MAX_WORDS && tokens.incrementToken()) {
+                query.add(toWordQuery(term.toString()), Occur.MUST);
+                words++;
+            }
+            tokens.end();
+        }
+        return words == 0 ? null : query.build();
+    }
+
+    private static Query toWordQuery(String word) {
+        var query = new BooleanQuery.Builder();
+        for (var field : List.of(TITLE, AUTHOR)) {
+            var term = new Term(field, word);
+            query.add(new BoostQuery(new TermQuery(term), EXACT_BOOST), Occur.SHOULD);
+            if (word.length() >= MIN_PREFIX_LENGTH) {
+                query.add(new BoostQuery(new PrefixQuery(term), PREFIX_BOOST), Occur.SHOULD);
+            }
+            if (word.length() >= MIN_FUZZY_LENGTH) {
+                // Requiring the first letter to match keeps the typo search fast on large term dictionaries.
+                query.add(new FuzzyQuery(term, word.length() >= MIN_TWO_EDITS_LENGTH ? 2 : 1, 1), Occur.SHOULD);
+            }
+        }
+        return query.build();
+    }
+
+    private void setRebuildChanges(Map<UUID, Optional<BookDto>> changes) {
+        swapLock.writeLock().lock();
+        try {
+            rebuildChanges = changes;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the documents of the index with the rebuilt ones, committed and refreshed together so that a crash never sees the index
+     * emptied in between. The books written during the rebuild are applied first, no write can slip in under the lock. The live index is
+     * only changed once the rebuilt documents have been added, which Lucene does for all of them or none, and the documents of other
+     * rebuilds or writes are removed after that, so that a failure never leaves the removal of the previous documents pending for the next
+     * commit. A reopen between the two may show a book twice for one search, never miss one.
+     */
+    private void swapIn(IndexWriter newWriter, FSDirectory rebuildDirectory, String rebuild, long rebuiltSequence) throws IOException {
+        swapLock.writeLock().lock();
+        try {
+            for (var change : rebuildChanges.entrySet()) {
+                if (change.getValue().isPresent()) {
+                    newWriter.updateDocument(isbnTerm(change.getKey()), toDocument(change.getValue().get(), rebuild));
+                } else {
+                    newWriter.deleteDocuments(isbnTerm(change.getKey()));
+                }
+            }
+            newWriter.close();
+            writer.addIndexes(rebuildDirectory);
+            try {
+                writer.deleteDocuments(new BooleanQuery.Builder()
+                    .add(new MatchAllDocsQuery(), Occur.FILTER)
+                    .add(new TermQuery(new Term(REBUILD, rebuild)), Occur.MUST_NOT)
+                    .build());
+            } catch (IOException | RuntimeException e) {
+                writer.deleteDocuments(new Term(REBUILD, rebuild));
+                throw e;
+            }
+            // A failed commit leaves the rebuilt index with its sequence to the next one
+            setSequence(rebuiltSequence);
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+        } finally {
+            rebuildChanges = null;
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Never moves the sequence back, a rebuild may be swapped in while the changes after the sequence it read are applied.
+     */
+    private void setSequence(long applied) {
+        var current = sequence.accumulateAndGet(applied, Math::max);
+        writer.setLiveCommitData(Map.of(SEQUENCE, Long.toString(current)).entrySet());
+    }
+
+    private void commitSafely() {
+        swapLock.readLock().lock();
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to commit the full-text index, retrying in {}", properties.commitInterval(), e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static Term isbnTerm(UUID isbn) {
+        return new Term(ISBN, isbn.toString());
+    }
+
+    private static Document toDocument(BookDto book) {
+        var document = new Document();
+        document.add(new StringField(ISBN, book.isbn().toString(), Store.YES));
+        document.add(new TextField(TITLE, book.title(), Store.NO));
+        document.add(new TextField(AUTHOR, book.author(), Store.NO));
+        return document;
+    }
+
+    private static Document toDocument(BookDto book, String rebuild) {
+        var document = toDocument(book);
+        document.add(new StringField(REBUILD, rebuild, Store.NO));
+        return document;
+    }
+}
@@ -0,0 +1,43 @@
+package fi.epassi.recruitment.fulltext;
+
+import static fi.epassi.recruitment.book.BookController.DEFAULT_PAGE_SIZE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import fi.epassi.recruitment.api.ApiResponse;
+import fi.epassi.recruitment.book.BookDto;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/books/full-text", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+public class FullTextController {
+
+    static final int MAX_QUERY_LENGTH = 256;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final FullTextService fullTextService;
+
+    @GetMapping
+    ApiResponse<List<BookDto>> searchBooks(
+        @RequestParam("query") @NotBlank @Size(max = MAX_QUERY_LENGTH) String query,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        var page = fullTextService.searchBooks(query, cursor, limit);
+        return ApiResponse.ok(page.books(), page.nextCursor());
+    }
+
+    @PostMapping("/rebuild")
+    ApiResponse<Long> rebuildIndex() {
+        return ApiResponse.ok(fullTextService.rebuildIndex());
+    }
+}
@@ -0,0 +1,21 @@
+package fi.epassi.recruitment.fulltext;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param indexPath       directory of the Lucene index, next to the database files by default
+ * @param maxResults      deepest position a search can page to, ranked results further down are not worth their cost
+ * @param commitInterval  time between two commits of the index to disk, changes are visible to searches without waiting for it
+ * @param refreshInterval delay between two reads of the change feed, bounding how long a write through another instance is not found
+ */
+@ConfigurationProperties(prefix = "full-text")
+public record FullTextProperties(
+    @DefaultValue("./db/full-text-index") Path indexPath,
+    @DefaultValue("10000") int maxResults,
+    @DefaultValue("10s") Duration commitInterval,
+    @DefaultValue("1s") Duration refreshInterval) {
+
+}
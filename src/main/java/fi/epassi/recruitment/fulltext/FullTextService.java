@@ -0,0 +1,203 @@
+package fi.epassi.recruitment.fulltext;
+
+import fi.epassi.recruitment.book.BookChangeFollower;
+import fi.epassi.recruitment.book.BookChangeFollowers;
+import fi.epassi.recruitment.book.BookChangePage;
+import fi.epassi.recruitment.book.BookChangeService;
+import fi.epassi.recruitment.book.BookDto;
+import fi.epassi.recruitment.book.BookPage;
+import fi.epassi.recruitment.book.BookService;
+import fi.epassi.recruitment.exception.ApplicationException;
+import fi.epassi.recruitment.exception.BookChangesExpiredException;
+import fi.epassi.recruitment.exception.InvalidCursorException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Full-text search over the {@link BookIndex}, which follows the change feed of {@link BookChangeService} like the catalogue snapshot
+ * does, so that it sees the writes of every instance. The feed is polled every {@code full-text.refresh-interval}, and a write through
+ * this instance waits until the index has applied it, see {@link BookChangeFollowers}, so that the book can be searched for once the write
+ * returns. The changes are
+ * applied by a single thread with the books as committed at the time, not as they were sent, so that the last change of a book always
+ * leaves its latest state in the index.
+ * <p>
+ * The feed and the books are read from the read-write pool, a replica may lag behind the writes the index waits for. An index at no
+ * sequence of the feed, a new one or one ahead of the database, or behind changes that have expired, is rebuilt from the catalogue.
+ */
+@Slf4j
+@Service
+public class FullTextService {
+
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final BookIndex bookIndex;
+    private final BookService bookService;
+    private final BookChangeService bookChangeService;
+    private final TransactionTemplate transactionTemplate;
+    private final FullTextProperties properties;
+    private final BookChangeFollower follower;
+    // Last change applied to the index, only used by the follower once it is started
+    private long appliedSequence;
+
+    public FullTextService(
+        BookIndex bookIndex, BookService bookService, BookChangeService bookChangeService, TransactionTemplate transactionTemplate,
+        BookChangeFollowers followers, FullTextProperties properties) {
+        this.bookIndex = bookIndex;
+        this.bookService = bookService;
+        this.bookChangeService = bookChangeService;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.follower = followers.create("full-text-follower", properties.refreshInterval(), this::refreshSafely);
+    }
+
+    @PostConstruct
+    void start() {
+        var position = findFeedPosition();
+        var indexed = bookIndex.sequence();
+        if (indexed.isPresent() && indexed.getAsLong() <= position) {
+            appliedSequence = indexed.getAsLong();
+        } else {
+            log.info("The full-text index is at no sequence of the change feed, rebuilding it");
+            appliedSequence = position;
+            rebuildSafely(position);
+        }
+        follower.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        follower.stop();
+    }
+
+    /**
+     * Ranked page of books matching the text, the cursor is the position of the page in the ranking.
+     */
+    public BookPage searchBooks(String text, String cursor, int limit) {
+        var offset = StringUtils.isNotBlank(cursor) ? decodeCursor(cursor) : 0;
+        var end = Math.min(offset + limit, properties.maxResults());
+        if (offset >= end) {
+            return new BookPage(List.of(), null);
+        }
+
+        try {
+            var isbns = bookIndex.search(text, offset, end - offset);
+            var hasMore = isbns.size() > end - offset && end < properties.maxResults();
+            var books = bookService.getBooksByIsbns(isbns.subList(0, Math.min(isbns.size(), end - offset)));
+            return new BookPage(books, hasMore ? String.valueOf(end) : null);
+        } catch (IOException e) {
+            throw new ApplicationException("Full-text search failed", e);
+        }
+    }
+
+    /**
+     * Indexes all books of the catalogue anew, for a new or damaged index.
+     *
+     * @return number of indexed books
+     */
+    public long rebuildIndex() {
+        return rebuild(findFeedPosition());
+    }
+
+    /**
+     * The position is read before the books are exported, a change committed while they are exported is applied again by the follower.
+     */
+    private long rebuild(long position) {
+        try {
+            var indexed = bookIndex.rebuild(
+                consumer -> transactionTemplate.executeWithoutResult(status -> bookService.exportBooks(consumer)), position);
+            log.info("Rebuilt the full-text index of {} books at change {}", indexed, position);
+            return indexed;
+        } catch (IOException e) {
+            throw new ApplicationException("Rebuilding the full-text index failed", e);
+        }
+    }
+
+    private void rebuildSafely(long position) {
+        try {
+            rebuild(position);
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild the full-text index, searches miss the books it lacks until it is rebuilt", e);
+        }
+    }
+
+    private long findFeedPosition() {
+        return transactionTemplate.execute(status -> bookChangeService.getChanges(null, 0).nextSince());
+    }
+
+    /**
+     * Applies the changes after the last applied one, rebuilding the index when some of them have expired from the feed. The committed
+     * changes are sequenced first, like the catalogue snapshot does. The writers waiting are released before a rebuild, which indexes the
+     * whole catalogue, their books can be searched for once it completes.
+     */
+    private void refresh() throws IOException {
+        bookChangeService.assignSequences();
+        BookChangePage page;
+        do {
+            var since = appliedSequence;
+            try {
+                page = transactionTemplate.execute(status -> bookChangeService.getChanges(since, REFRESH_BATCH_SIZE));
+            } catch (BookChangesExpiredException e) {
+                log.warn("Changes after sequence {} have expired, rebuilding the full-text index", since);
+                follower.releaseWaiting();
+                var position = findFeedPosition();
+                rebuild(position);
+                appliedSequence = position;
+                return;
+            }
+            apply(page);
+        } while (page.changes().size() == REFRESH_BATCH_SIZE);
+    }
+
+    /**
+     * A change carries its book as committed when the page was read, a book without one has been deleted since.
+     */
+    private void apply(BookChangePage page) throws IOException {
+        if (page.changes().isEmpty()) {
+            return;
+        }
+        var saved = new HashMap<UUID, BookDto>();
+        var deleted = new HashSet<UUID>();
+        for (var change : page.changes()) {
+            if (change.book() != null) {
+                saved.put(change.isbn(), change.book());
+            } else {
+                deleted.add(change.isbn());
+            }
+        }
+        deleted.removeAll(saved.keySet());
+        bookIndex.apply(saved.values(), deleted, page.nextSince());
+        appliedSequence = page.nextSince();
+    }
+
+    /**
+     * The books are already committed, so a failure to index them only leaves the index behind until the next refresh catches up.
+     */
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to update the full-text index, retrying in {}", properties.refreshInterval(), e);
+        }
+    }
+
+    private static int decodeCursor(String cursor) {
+        try {
+            var offset = Integer.parseInt(cursor);
+            if (offset < 0) {
+                throw new InvalidCursorException(cursor);
+            }
+            return offset;
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
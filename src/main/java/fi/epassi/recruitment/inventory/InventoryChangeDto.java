@@ -0,0 +1,14 @@
+package fi.epassi.recruitment.inventory;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * @param copies number of copies added to or taken from the stock
+ */
+public record InventoryChangeDto(@NotNull @Min(1) @Max(InventoryChangeDto.MAX_COPIES) Integer copies) {
+
+    static final int MAX_COPIES = 1_000_000;
+
+}
@@ -0,0 +1,45 @@
+package fi.epassi.recruitment.inventory;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import fi.epassi.recruitment.api.ApiResponse;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/inventory", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    @GetMapping("/copies")
+    ApiResponse<Long> countCopies(
+        @RequestParam(value = "author", required = false) String author,
+        @RequestParam(value = "title", required = false) String title) {
+        return ApiResponse.ok(inventoryService.countCopies(author, title));
+    }
+
+    @GetMapping("/{isbn}")
+    ApiResponse<InventoryDto> getInventory(@PathVariable("isbn") @Validated UUID isbn) {
+        return ApiResponse.ok(inventoryService.getInventory(isbn));
+    }
+
+    @PostMapping("/{isbn}/increment")
+    ApiResponse<InventoryDto> addCopies(@PathVariable("isbn") @Validated UUID isbn, @RequestBody @Validated InventoryChangeDto change) {
+        return ApiResponse.ok(inventoryService.addCopies(isbn, change.copies()));
+    }
+
+    @PostMapping("/{isbn}/decrement")
+    ApiResponse<InventoryDto> takeCopies(@PathVariable("isbn") @Validated UUID isbn, @RequestBody @Validated InventoryChangeDto change) {
+        return ApiResponse.ok(inventoryService.takeCopies(isbn, change.copies()));
+    }
+}
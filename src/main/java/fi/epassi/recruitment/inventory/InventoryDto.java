@@ -0,0 +1,7 @@
+package fi.epassi.recruitment.inventory;
+
+import java.util.UUID;
+
+public record InventoryDto(UUID isbn, long copies) {
+
+}
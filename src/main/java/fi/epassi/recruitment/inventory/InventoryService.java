@@ -0,0 +1,150 @@
+package fi.epassi.recruitment.inventory;
+
+import static java.util.stream.Collectors.toMap;
+
+import fi.epassi.recruitment.exception.BookNotFoundException;
+import fi.epassi.recruitment.exception.BookstoreNotFoundException;
+import fi.epassi.recruitment.exception.InsufficientStockException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stock is kept per store. Every change of a store's stock also changes the rollup slot of the store in the same transaction, so totals
+ * over all stores are read from at most {@value #ROLLUP_SLOTS} rows per book. Stores are given their slot when they are created, which
+ * never changes, so the slots are read once per store.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryService {
+
+    /**
+     * Store holding the stock that is not in any physical or online store, created by the bookstores migration.
+     */
+    public static final UUID CENTRAL_WAREHOUSE_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    public static final int ROLLUP_SLOTS = 16;
+
+    private final InventoryTotalRepository inventoryTotalRepository;
+    private final StoreStockRepository storeStockRepository;
+    private final Map<UUID, Integer> rollupSlots = new ConcurrentHashMap<>();
+
+    @Transactional(readOnly = true)
+    public InventoryDto getInventory(@NonNull UUID isbn) {
+        return inventoryTotalRepository.findInventory(isbn).orElseThrow(() -> new BookNotFoundException(isbn.toString()));
+    }
+
+    /**
+     * Counts the copies in stock of the books of an author or with a title, or of the whole catalogue when neither is given.
+     */
+    @Transactional(readOnly = true)
+    public long countCopies(String author, String title) {
+        if (StringUtils.isNotBlank(author)) {
+            return inventoryTotalRepository.countCopiesByAuthor(author);
+        }
+        if (StringUtils.isNotBlank(title)) {
+            return inventoryTotalRepository.countCopiesByTitle(title);
+        }
+        return inventoryTotalRepository.countCopies();
+    }
+
+    @Transactional
+    public InventoryDto addCopies(@NonNull UUID isbn, int copies) {
+        addStoreCopies(CENTRAL_WAREHOUSE_ID, isbn, copies);
+        return getInventory(isbn);
+    }
+
+    @Transactional
+    public InventoryDto takeCopies(@NonNull UUID isbn, int copies) {
+        takeStoreCopies(CENTRAL_WAREHOUSE_ID, isbn, copies);
+        return getInventory(isbn);
+    }
+
+    @Transactional(readOnly = true)
+    public InventoryDto getStoreInventory(@NonNull UUID storeId, @NonNull UUID isbn) {
+        return storeStockRepository.findByStoreIdAndIsbn(storeId, isbn)
+            .map(stock -> new InventoryDto(isbn, stock.getCopies()))
+            .orElseGet(() -> {
+                requireBookAndStore(storeId, isbn);
+                return new InventoryDto(isbn, 0);
+            });
+    }
+
+    /**
+     * @return copies in stock in the store per ISBN, books the store never stocked are left out
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, Integer> getStoreCopies(@NonNull UUID storeId, Collection<UUID> isbns) {
+        if (isbns.isEmpty()) {
+            return Map.of();
+        }
+        return storeStockRepository.findByStoreIdAndIsbnIn(storeId, isbns).stream()
+            .collect(toMap(StoreStockModel::getIsbn, StoreStockModel::getCopies));
+    }
+
+    @Transactional
+    public InventoryDto addStoreCopies(@NonNull UUID storeId, @NonNull UUID isbn, int copies) {
+        try {
+            storeStockRepository.increment(storeId, isbn, copies);
+        } catch (DataIntegrityViolationException e) {
+            requireBookAndStore(storeId, isbn);
+            throw e;
+        }
+        inventoryTotalRepository.increment(isbn, rollupSlot(storeId), copies);
+        return getStoreInventory(storeId, isbn);
+    }
+
+    @Transactional
+    public InventoryDto takeStoreCopies(@NonNull UUID storeId, @NonNull UUID isbn, int copies) {
+        if (storeStockRepository.decrement(storeId, isbn, copies) == 0) {
+            // Tells a missing book or store from a short stock, only on the failure path
+            requireBookAndStore(storeId, isbn);
+            throw new InsufficientStockException(isbn.toString(), copies);
+        }
+        inventoryTotalRepository.decrement(isbn, rollupSlot(storeId), copies);
+        return getStoreInventory(storeId, isbn);
+    }
+
+    /**
+     * Takes as many of the copies as the store has in stock, for sales that were accepted without checking the stock. When the store has
+     * fewer copies, its stock is locked before the rest is taken, so that a concurrent take cannot leave less than was read.
+     *
+     * @return number of copies taken, less than requested when the store ran out of stock, the book or the store do not exist
+     */
+    @Transactional
+    public int takeAvailableStoreCopies(@NonNull UUID storeId, @NonNull UUID isbn, long copies) {
+        var requested = (int) Math.min(copies, Integer.MAX_VALUE);
+        var taken = storeStockRepository.decrement(storeId, isbn, requested) == 1 ? requested : 0;
+        if (taken == 0) {
+            taken = Math.min(requested, storeStockRepository.findForUpdate(storeId, isbn).map(StoreStockModel::getCopies).orElse(0));
+            if (taken > 0) {
+                storeStockRepository.decrement(storeId, isbn, taken);
+            }
+        }
+        if (taken > 0) {
+            inventoryTotalRepository.decrement(isbn, rollupSlot(storeId), taken);
+        }
+        return taken;
+    }
+
+    private int rollupSlot(UUID storeId) {
+        return rollupSlots.computeIfAbsent(storeId, id -> storeStockRepository.findRollupSlot(id)
+            .orElseThrow(() -> new BookstoreNotFoundException(id.toString())));
+    }
+
+    private void requireBookAndStore(UUID storeId, UUID isbn) {
+        if (inventoryTotalRepository.findInventory(isbn).isEmpty()) {
+            throw new BookNotFoundException(isbn.toString());
+        }
+        if (!storeStockRepository.existsStore(storeId)) {
+            throw new BookstoreNotFoundException(storeId.toString());
+        }
+    }
+}
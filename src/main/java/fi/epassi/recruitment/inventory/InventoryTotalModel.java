@@ -0,0 +1,48 @@
+package fi.epassi.recruitment.inventory;
+
+import static java.sql.Types.BINARY;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+
+/**
+ * One slot of the rollup of the copies in stock of a book over all stores. The total of a book is the sum of its slots. Rows are only
+ * written through the single statement changes of {@link InventoryTotalRepository}, never loaded, modified and saved.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(InventoryTotalModel.Key.class)
+@Table(name = "inventory_totals")
+public class InventoryTotalModel {
+
+    @Id
+    @Column(name = "isbn", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
+    @JdbcTypeCode(value = BINARY)
+    private UUID isbn;
+
+    @Id
+    @Column(name = "slot", updatable = false, nullable = false)
+    private int slot;
+
+    private int copies;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private UUID isbn;
+        private int slot;
+    }
+}
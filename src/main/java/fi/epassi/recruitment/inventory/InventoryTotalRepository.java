@@ -0,0 +1,52 @@
+package fi.epassi.recruitment.inventory;
+
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Rollup of the stock of all stores. Every change of a store's stock is applied to the slot of the store in the same transaction, as the
+ * last statement before the commit.
+ */
+public interface InventoryTotalRepository extends JpaRepository<InventoryTotalModel, InventoryTotalModel.Key> {
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+        INSERT INTO `inventory_totals` (`isbn`, `slot`, `copies`) VALUES (:isbn, :slot, :copies)
+        ON DUPLICATE KEY UPDATE `copies` = `copies` + VALUES(`copies`)
+        """)
+    int increment(@Param("isbn") UUID isbn, @Param("slot") int slot, @Param("copies") int copies);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update InventoryTotalModel t set t.copies = t.copies - :copies where t.isbn = :isbn and t.slot = :slot")
+    int decrement(@Param("isbn") UUID isbn, @Param("slot") int slot, @Param("copies") int copies);
+
+    /**
+     * @return copies in stock of the book over all stores, {@code 0} for books never stocked, empty when no book with the ISBN exists
+     */
+    @Query("""
+        select new fi.epassi.recruitment.inventory.InventoryDto(b.isbn, coalesce(sum(t.copies), 0))
+        from BookModel b left join InventoryTotalModel t on t.isbn = b.isbn
+        where b.isbn = :isbn
+        group by b.isbn
+        """)
+    Optional<InventoryDto> findInventory(@Param("isbn") UUID isbn);
+
+    @Query("select coalesce(sum(t.copies), 0) from InventoryTotalModel t")
+    long countCopies();
+
+    /**
+     * Walks the (author, title, id) index of the books and sums their rollup slots by primary key.
+     */
+    @Query("select coalesce(sum(t.copies), 0) from BookModel b join InventoryTotalModel t on t.isbn = b.isbn where b.author = :author")
+    long countCopiesByAuthor(@Param("author") String author);
+
+    /**
+     * Walks the (title, id) index of the books and sums their rollup slots by primary key.
+     */
+    @Query("select coalesce(sum(t.copies), 0) from BookModel b join InventoryTotalModel t on t.isbn = b.isbn where b.title = :title")
+    long countCopiesByTitle(@Param("title") String title);
+}
@@ -0,0 +1,49 @@
+package fi.epassi.recruitment.inventory;
+
+import static java.sql.Types.BINARY;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+
+/**
+ * Copies in stock of a book in one store. Rows are only written through the single statement changes of {@link StoreStockRepository},
+ * never loaded, modified and saved.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(StoreStockModel.Key.class)
+@Table(name = "bookstore_stock")
+public class StoreStockModel {
+
+    @Id
+    @Column(name = "store_id", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
+    @JdbcTypeCode(value = BINARY)
+    private UUID storeId;
+
+    @Id
+    @Column(name = "isbn", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
+    @JdbcTypeCode(value = BINARY)
+    private UUID isbn;
+
+    private int copies;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private UUID storeId;
+        private UUID isbn;
+    }
+}
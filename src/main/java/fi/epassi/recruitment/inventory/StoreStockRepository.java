@@ -0,0 +1,62 @@
+package fi.epassi.recruitment.inventory;
+
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Stock changes are single atomic statements: the database serializes concurrent changes of a title in a store on its row lock for the
+ * duration of one statement, so no update is lost and no sale can take the stock of a store below zero.
+ */
+public interface StoreStockRepository extends JpaRepository<StoreStockModel, StoreStockModel.Key> {
+
+    /**
+     * Adds copies to the stock of a book in a store, starting its stock when the store has none yet.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(nativeQuery = true, value = """
+        INSERT INTO `bookstore_stock` (`store_id`, `isbn`, `copies`) VALUES (:storeId, :isbn, :copies)
+        ON DUPLICATE KEY UPDATE `copies` = `copies` + VALUES(`copies`)
+        """)
+    int increment(@Param("storeId") UUID storeId, @Param("isbn") UUID isbn, @Param("copies") int copies);
+
+    /**
+     * Takes copies from the stock of a book in a store, only when the store has enough copies in stock.
+     *
+     * @return number of updated rows, {@code 0} when the store has fewer copies in stock
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update StoreStockModel s set s.copies = s.copies - :copies
+        where s.storeId = :storeId and s.isbn = :isbn and s.copies >= :copies
+        """)
+    int decrement(@Param("storeId") UUID storeId, @Param("isbn") UUID isbn, @Param("copies") int copies);
+
+    Optional<StoreStockModel> findByStoreIdAndIsbn(UUID storeId, UUID isbn);
+
+    /**
+     * Reads the stock of a book in a store and locks it until the end of the surrounding transaction, so that the copies read are still
+     * in stock when they are taken.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from StoreStockModel s where s.storeId = :storeId and s.isbn = :isbn")
+    Optional<StoreStockModel> findForUpdate(@Param("storeId") UUID storeId, @Param("isbn") UUID isbn);
+
+    /**
+     * Reads the stock of a whole page of books with one primary key range lookup per book, instead of a query per book.
+     */
+    List<StoreStockModel> findByStoreIdAndIsbnIn(UUID storeId, Collection<UUID> isbns);
+
+    @Query("select count(s) > 0 from BookstoreModel s where s.id = :storeId")
+    boolean existsStore(@Param("storeId") UUID storeId);
+
+    @Query("select s.rollupSlot from BookstoreModel s where s.id = :storeId")
+    Optional<Integer> findRollupSlot(@Param("storeId") UUID storeId);
+}
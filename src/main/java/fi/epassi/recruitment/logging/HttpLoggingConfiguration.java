@@ -0,0 +1,35 @@
+package fi.epassi.recruitment.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.Strategy;
+import org.zalando.logbook.core.Conditions;
+
+/**
+ * Keeps Logbook cheap enough for production: only a sample of the exchanges is logged, and large list responses are never buffered. Body
+ * truncation is configured with {@code logbook.write.max-body-size}, and {@code logbook.exclude} still applies on top of the sampling.
+ */
+@Configuration
+public class HttpLoggingConfiguration {
+
+    @Bean
+    public Predicate<HttpRequest> requestCondition(HttpLoggingProperties properties) {
+        var sampleRate = properties.sampleRate();
+        if (sampleRate >= 1) {
+            return request -> true;
+        }
+        return request -> ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    @Bean
+    public Strategy strategy(HttpLoggingProperties properties) {
+        Predicate<HttpRequest> isGet = request -> "GET".equals(request.getMethod());
+        var unbufferedPath = properties.unbufferedResponsePaths().stream()
+            .map(Conditions::<HttpRequest>requestTo)
+            .reduce(request -> false, Predicate::or);
+        return new UnbufferedResponseStrategy(isGet.and(unbufferedPath));
+    }
+}
@@ -0,0 +1,15 @@
+package fi.epassi.recruitment.logging;
+
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param sampleRate                 share of HTTP exchanges logged by Logbook, from 0 (none) to 1 (all)
+ * @param unbufferedResponsePaths    GET paths, as Logbook request patterns, whose response bodies are streamed to the client without being
+ *                                   buffered for logging
+ */
+@ConfigurationProperties(prefix = "http-logging")
+public record HttpLoggingProperties(@DefaultValue("1.0") double sampleRate, @DefaultValue List<String> unbufferedResponsePaths) {
+
+}
@@ -0,0 +1,23 @@
+package fi.epassi.recruitment.logging;
+
+import java.io.IOException;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Strategy;
+
+/**
+ * Logs the responses of matching requests without their body. The body is then written straight to the client instead of being copied
+ * into a buffer for the whole response.
+ */
+@RequiredArgsConstructor
+class UnbufferedResponseStrategy implements Strategy {
+
+    private final Predicate<HttpRequest> unbuffered;
+
+    @Override
+    public HttpResponse process(HttpRequest request, HttpResponse response) throws IOException {
+        return unbuffered.test(request) ? response.withoutBody() : response.withBody();
+    }
+}
@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.sales;
+
+import java.util.UUID;
+
+/**
+ * @param sequence position of the sale in the journal, increasing over the whole life of the journal
+ */
+record Sale(long sequence, UUID storeId, UUID isbn, int copies) {
+
+}
@@ -0,0 +1,16 @@
+package fi.epassi.recruitment.sales;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+
+/**
+ * @param storeId store selling the copies, the central warehouse when not given
+ * @param copies  number of copies sold
+ */
+public record SaleDto(UUID storeId, @NotNull UUID isbn, @NotNull @Min(1) @Max(SaleDto.MAX_COPIES) Integer copies) {
+
+    static final int MAX_COPIES = 1000;
+
+}
@@ -0,0 +1,26 @@
+package fi.epassi.recruitment.sales;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last sale of a journal whose stock change has been committed. Rows are only written through
+ * {@link SalesCheckpointRepository#saveAppliedSequence}.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "sales_checkpoints")
+public class SalesCheckpointModel {
+
+    @Id
+    private String journal;
+
+    private long appliedSequence;
+
+}
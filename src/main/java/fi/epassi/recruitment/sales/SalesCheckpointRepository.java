@@ -0,0 +1,16 @@
+package fi.epassi.recruitment.sales;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SalesCheckpointRepository extends JpaRepository<SalesCheckpointModel, String> {
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+        INSERT INTO `sales_checkpoints` (`journal`, `applied_sequence`) VALUES (:journal, :sequence)
+        ON DUPLICATE KEY UPDATE `applied_sequence` = VALUES(`applied_sequence`)
+        """)
+    int saveAppliedSequence(@Param("journal") String journal, @Param("sequence") long sequence);
+}
@@ -0,0 +1,29 @@
+package fi.epassi.recruitment.sales;
+
+import static fi.epassi.recruitment.inventory.InventoryService.CENTRAL_WAREHOUSE_ID;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import fi.epassi.recruitment.api.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/sales", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+public class SalesController {
+
+    private final SalesPipeline salesPipeline;
+
+    /**
+     * @return sequence of the sale in the sales journal
+     */
+    @PostMapping
+    ApiResponse<Long> sell(@RequestBody @Validated SaleDto sale) {
+        var storeId = sale.storeId() != null ? sale.storeId() : CENTRAL_WAREHOUSE_ID;
+        return ApiResponse.ok(salesPipeline.sell(storeId, sale.isbn(), sale.copies()));
+    }
+}
@@ -0,0 +1,278 @@
+package fi.epassi.recruitment.sales;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only log of the acknowledged sales, read back when the application starts to replay the sales whose stock change was not
+ * committed yet. Records have a fixed size and a checksum, so that a record torn by a crash is recognized and cut off.
+ * <p>
+ * The log is split into segments, files next to the journal path named after it and the sequence of their first sale. Each flush
+ * {@linkplain #roll() rolls} to a new segment, and segments whose sales are all committed are {@linkplain #deleteApplied deleted}, so
+ * that the journal holds about the sales of the last flushes, however long the application runs.
+ * <p>
+ * When several sales are appended at once, a single {@code fsync} makes all of them durable: a caller whose sale has been forced by
+ * another caller's {@code fsync} in the meantime returns right away.
+ */
+@Slf4j
+class SalesJournal implements Closeable {
+
+    // sequence, store id, ISBN, copies, CRC-32 of the preceding fields
+    static final int RECORD_SIZE = Long.BYTES + 2 * 2 * Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int READ_BUFFER_SIZE = 1024 * RECORD_SIZE;
+
+    private final Path path;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final Object syncLock = new Object();
+    // First sequences of the segments before the active one, oldest first
+    private final Deque<Long> closedSegments = new ArrayDeque<>();
+    private FileChannel channel;
+    private long activeSegment;
+    private long position;
+    private long nextSequence = 1;
+    private volatile long syncedSequence;
+
+    SalesJournal(Path path) throws IOException {
+        this.path = path.toAbsolutePath();
+        Files.createDirectories(this.path.getParent());
+        this.lockChannel = FileChannel.open(this.path.resolveSibling(name() + ".lock"), CREATE, WRITE);
+        this.lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Sales journal %s is used by another instance".formatted(path));
+        }
+    }
+
+    /**
+     * @return file of the segment whose first sale has the sequence
+     */
+    static Path segment(Path path, long firstSequence) {
+        return path.resolveSibling("%s.%020d".formatted(path.getFileName(), firstSequence));
+    }
+
+    /**
+     * Name of the journal the applied sequence is checkpointed under.
+     */
+    String name() {
+        return path.getFileName().toString();
+    }
+
+    /**
+     * Deletes the segments applied entirely without reading them, reads the others up to their last complete record, cutting off a record
+     * torn by a crash, and continues the sequence in a new segment after the last sale, or after the last applied sale when the journal
+     * has been emptied since.
+     *
+     * @return sales after the last applied sale, in journal order
+     */
+    synchronized List<Sale> recover(long appliedSequence) throws IOException {
+        adoptUnsegmentedJournal();
+        var segments = listSegments();
+        var sales = new ArrayList<Sale>();
+        var lastSequence = appliedSequence;
+        for (var index = 0; index < segments.size(); index++) {
+            var firstSequence = segments.get(index);
+            var last = index == segments.size() - 1;
+            if (!last && segments.get(index + 1) - 1 <= appliedSequence) {
+                Files.delete(segment(path, firstSequence));
+                continue;
+            }
+            lastSequence = Math.max(lastSequence, read(segment(path, firstSequence), appliedSequence, sales));
+            closedSegments.add(firstSequence);
+        }
+
+        nextSequence = lastSequence + 1;
+        syncedSequence = lastSequence;
+        // An empty last segment is continued as the active one
+        if (!closedSegments.isEmpty() && closedSegments.peekLast() == nextSequence) {
+            closedSegments.removeLast();
+        }
+        open(nextSequence);
+        return sales;
+    }
+
+    /**
+     * Writes the sale at the end of the journal. It is only durable once {@link #sync} returned for its sequence.
+     */
+    synchronized Sale append(UUID storeId, UUID isbn, int copies) throws IOException {
+        var sale = new Sale(nextSequence, storeId, isbn, copies);
+        encode(sale, record);
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        nextSequence++;
+        return sale;
+    }
+
+    /**
+     * Forces the journal to disk, unless another caller already did since the sale was appended.
+     */
+    void sync(long sequence) throws IOException {
+        synchronized (syncLock) {
+            if (syncedSequence >= sequence) {
+                return;
+            }
+            long appendedSequence;
+            synchronized (this) {
+                appendedSequence = nextSequence - 1;
+            }
+            channel.force(false);
+            syncedSequence = appendedSequence;
+        }
+    }
+
+    /**
+     * Forces and closes the active segment, unless it is empty, and appends further sales to a new one.
+     */
+    void roll() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (position == 0) {
+                    return;
+                }
+                channel.force(false);
+                channel.close();
+                syncedSequence = nextSequence - 1;
+                closedSegments.add(activeSegment);
+                open(nextSequence);
+            }
+        }
+    }
+
+    /**
+     * Deletes the closed segments whose sales have all been committed, the active segment stays.
+     */
+    synchronized void deleteApplied(long appliedSequence) throws IOException {
+        while (!closedSegments.isEmpty()) {
+            var firstSequence = closedSegments.removeFirst();
+            var lastSequence = (closedSegments.isEmpty() ? activeSegment : closedSegments.peekFirst()) - 1;
+            if (lastSequence > appliedSequence) {
+                closedSegments.addFirst(firstSequence);
+                return;
+            }
+            Files.deleteIfExists(segment(path, firstSequence));
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try (lockChannel) {
+            try {
+                lock.release();
+            } finally {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        }
+    }
+
+    private void open(long firstSequence) throws IOException {
+        channel = FileChannel.open(segment(path, firstSequence), CREATE, READ, WRITE);
+        activeSegment = firstSequence;
+        position = channel.size();
+    }
+
+    /**
+     * Reads the sales of the segment after the applied sale, cutting off a torn record at its end.
+     *
+     * @return sequence of the last sale in the segment, 0 when it is empty
+     */
+    private long read(Path segment, long appliedSequence, List<Sale> sales) throws IOException {
+        var lastSequence = 0L;
+        var valid = 0L;
+        try (var in = new BufferedInputStream(Files.newInputStream(segment), READ_BUFFER_SIZE)) {
+            while (in.readNBytes(record.clear().array(), 0, RECORD_SIZE) == RECORD_SIZE) {
+                var sale = decode(record);
+                if (sale == null) {
+                    break;
+                }
+                lastSequence = sale.sequence();
+                if (sale.sequence() > appliedSequence) {
+                    sales.add(sale);
+                }
+                valid += RECORD_SIZE;
+            }
+        }
+
+        var size = Files.size(segment);
+        if (valid < size) {
+            log.warn("Cutting off {} bytes of a torn record at the end of sales journal segment {}", size - valid, segment);
+            try (var segmentChannel = FileChannel.open(segment, WRITE)) {
+                segmentChannel.truncate(valid);
+            }
+        }
+        return lastSequence;
+    }
+
+    /**
+     * Turns a journal written before it was split into segments into the first segment.
+     */
+    private void adoptUnsegmentedJournal() throws IOException {
+        if (Files.isRegularFile(path)) {
+            Files.move(path, segment(path, 0));
+        }
+    }
+
+    /**
+     * @return first sequences of the segments on disk, in ascending order
+     */
+    private List<Long> listSegments() throws IOException {
+        var prefix = name() + ".";
+        try (var files = Files.list(path.getParent())) {
+            return files.map(file -> file.getFileName().toString())
+                .filter(file -> file.startsWith(prefix) && file.length() == prefix.length() + 20)
+                .map(file -> file.substring(prefix.length()))
+                .filter(sequence -> sequence.chars().allMatch(Character::isDigit))
+                .map(Long::parseLong)
+                .sorted()
+                .toList();
+        }
+    }
+
+    private static void encode(Sale sale, ByteBuffer buffer) {
+        buffer.clear();
+        buffer.putLong(sale.sequence())
+            .putLong(sale.storeId().getMostSignificantBits())
+            .putLong(sale.storeId().getLeastSignificantBits())
+            .putLong(sale.isbn().getMostSignificantBits())
+            .putLong(sale.isbn().getLeastSignificantBits())
+            .putInt(sale.copies());
+        buffer.putInt((int) checksum(buffer.array()));
+        buffer.flip();
+    }
+
+    /**
+     * @return the sale of the record, {@code null} when its checksum does not match
+     */
+    private static Sale decode(ByteBuffer buffer) {
+        var expected = (int) checksum(buffer.array());
+        var sale = new Sale(buffer.getLong(), new UUID(buffer.getLong(), buffer.getLong()), new UUID(buffer.getLong(), buffer.getLong()),
+            buffer.getInt());
+        return buffer.getInt() == expected ? sale : null;
+    }
+
+    private static long checksum(byte[] record) {
+        var crc = new CRC32();
+        crc.update(record, 0, RECORD_SIZE - Integer.BYTES);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,213 @@
+package fi.epassi.recruitment.sales;
+
+import fi.epassi.recruitment.exception.ApplicationException;
+import fi.epassi.recruitment.exception.SalesBufferFullException;
+import fi.epassi.recruitment.sales.SalesWriter.StockKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind of sales. A sale is acknowledged once it is in the journal and in a bounded buffer. A single flusher drains the buffer
+ * every {@code sales.flush-interval}, or as soon as {@code sales.flush-size} sales are waiting, adds up the copies sold per store and book,
+ * and commits them in one transaction. A best seller sold a thousand times between two flushes costs one stock update instead of a
+ * thousand transactions contending for its row.
+ * <p>
+ * The buffer counts a sale until its flush is committed. When it is full, because sales come in faster than they are committed or the
+ * database is unavailable, further sales are rejected with {@code 429 Too Many Requests} until a flush makes room.
+ * <p>
+ * Sales are acknowledged without checking the stock. Copies sold beyond the stock are taken down to zero and counted as unfulfilled.
+ */
+@Slf4j
+@Component
+public class SalesPipeline {
+
+    static final String UNFULFILLED = "sales.unfulfilled";
+
+    private final SalesWriter salesWriter;
+    private final SalesCheckpointRepository checkpointRepository;
+    private final SalesProperties properties;
+    private final Counter unfulfilled;
+    private final BlockingQueue<Sale> buffer;
+    private final Semaphore capacity;
+    private final Thread flusher;
+    private SalesJournal journal;
+    private volatile boolean stopping;
+
+    public SalesPipeline(
+        SalesWriter salesWriter, SalesCheckpointRepository checkpointRepository, SalesProperties properties, MeterRegistry meterRegistry) {
+        this.salesWriter = salesWriter;
+        this.checkpointRepository = checkpointRepository;
+        this.properties = properties;
+        this.buffer = new ArrayBlockingQueue<>(properties.bufferCapacity());
+        this.capacity = new Semaphore(properties.bufferCapacity());
+        this.flusher = new Thread(this::flushContinuously, "sales-flusher");
+        this.unfulfilled = Counter.builder(UNFULFILLED)
+            .description("Copies sold beyond the stock of their store")
+            .baseUnit("copies")
+            .register(meterRegistry);
+        Gauge.builder("sales.pending", capacity, available -> properties.bufferCapacity() - available.availablePermits())
+            .description("Sales acknowledged but not yet committed to the stock")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Commits the sales the journal holds beyond the checkpoint, left behind by a crash, before any new sale is accepted.
+     */
+    @PostConstruct
+    void start() throws IOException {
+        journal = new SalesJournal(properties.journalPath());
+        var appliedSequence = checkpointRepository.findById(journal.name()).map(SalesCheckpointModel::getAppliedSequence).orElse(0L);
+        var recovered = journal.recover(appliedSequence);
+        if (!recovered.isEmpty()) {
+            var batch = new Batch();
+            recovered.forEach(batch::add);
+            unfulfilled.increment(salesWriter.write(batch.copiesSold, journal.name(), batch.lastSequence));
+            appliedSequence = batch.lastSequence;
+            log.info("Replayed {} sales from sales journal {}", recovered.size(), properties.journalPath());
+        }
+        journal.deleteApplied(appliedSequence);
+        flusher.start();
+    }
+
+    /**
+     * @return sequence of the sale in the journal, the sale is durable when this returns
+     * @throws SalesBufferFullException when the buffer is full
+     */
+    public long sell(UUID storeId, @NonNull UUID isbn, int copies) {
+        if (stopping || !capacity.tryAcquire()) {
+            throw new SalesBufferFullException(Math.max(1, properties.flushInterval().toSeconds()));
+        }
+
+        Sale sale;
+        try {
+            // The buffer takes the sales in journal order, so that a checkpoint never skips a sale appended before it
+            synchronized (buffer) {
+                sale = journal.append(storeId, isbn, copies);
+                buffer.add(sale);
+            }
+        } catch (IOException e) {
+            capacity.release();
+            throw new ApplicationException("Recording the sale failed", e);
+        }
+
+        try {
+            if (properties.fsync()) {
+                journal.sync(sale.sequence());
+            }
+        } catch (IOException e) {
+            // The sale is buffered already and will be committed, only its durability in case of a crash is unknown
+            throw new ApplicationException("Recording the sale failed", e);
+        }
+        return sale.sequence();
+    }
+
+    /**
+     * Commits the buffered sales once more. Sales that cannot be committed stay in the journal and are replayed on the next start.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        stopping = true;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        journal.close();
+    }
+
+    private void flushContinuously() {
+        var batch = new Batch();
+        while (true) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                stopping = true;
+            }
+            if (stopping) {
+                buffer.drainTo(batch.sales);
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+            if (stopping) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Waits until {@code sales.flush-size} sales are waiting or {@code sales.flush-interval} has passed since the previous flush.
+     */
+    private void collect(Batch batch) throws InterruptedException {
+        var deadline = System.nanoTime() + properties.flushInterval().toNanos();
+        while (batch.sales.size() < properties.flushSize()) {
+            var sale = buffer.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (sale == null) {
+                return;
+            }
+            batch.sales.add(sale);
+            buffer.drainTo(batch.sales, properties.flushSize() - batch.sales.size());
+        }
+    }
+
+    /**
+     * Rolls the journal to a new segment first, so that the segments holding only sales of this and earlier flushes can be deleted once
+     * it is committed. A failed flush keeps its sales, which are retried with the next flush, and their room in the buffer.
+     */
+    private void flush(Batch batch) {
+        batch.coalesce();
+        try {
+            journal.roll();
+            unfulfilled.increment(salesWriter.write(batch.copiesSold, journal.name(), batch.lastSequence));
+            capacity.release(batch.count);
+            journal.deleteApplied(batch.lastSequence);
+            batch.clear();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to commit {} sales, retrying with the next flush", batch.count, e);
+        }
+    }
+
+    /**
+     * Sales taken from the buffer, and the copies sold per store and book of the sales taken so far.
+     */
+    private static final class Batch {
+
+        private final List<Sale> sales = new ArrayList<>();
+        private final Map<StockKey, Long> copiesSold = new HashMap<>();
+        private int count;
+        private long lastSequence;
+
+        void add(Sale sale) {
+            copiesSold.merge(new StockKey(sale.storeId(), sale.isbn()), (long) sale.copies(), Long::sum);
+            lastSequence = Math.max(lastSequence, sale.sequence());
+            count++;
+        }
+
+        void coalesce() {
+            sales.forEach(this::add);
+            sales.clear();
+        }
+
+        boolean isEmpty() {
+            return sales.isEmpty() && count == 0;
+        }
+
+        void clear() {
+            copiesSold.clear();
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package fi.epassi.recruitment.sales;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param journalPath    path of the journal of the acknowledged sales, its segments are files next to it named after it, its file name
+ *                       identifies the journal and has to differ per instance
+ * @param fsync          whether a sale is forced to disk before it is acknowledged, without it acknowledged sales survive a crash of the
+ *                       process but not of the machine
+ * @param bufferCapacity number of sales accepted but not yet committed to the stock, further sales are rejected until a flush
+ * @param flushSize      number of buffered sales that triggers a flush
+ * @param flushInterval  longest time a sale waits for its flush
+ */
+@ConfigurationProperties(prefix = "sales")
+public record SalesProperties(
+    @DefaultValue("./db/sales-journal") Path journalPath,
+    @DefaultValue("true") boolean fsync,
+    @DefaultValue("10000") int bufferCapacity,
+    @DefaultValue("1000") int flushSize,
+    @DefaultValue("200ms") Duration flushInterval) {
+
+}
@@ -0,0 +1,48 @@
+package fi.epassi.recruitment.sales;
+
+import fi.epassi.recruitment.inventory.InventoryService;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Commits a flush of the sales pipeline: the copies sold per store and book, together with the checkpoint of the last sale included.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class SalesWriter {
+
+    private static final Comparator<StockKey> LOCK_ORDER = Comparator.comparing(StockKey::storeId).thenComparing(StockKey::isbn);
+
+    private final InventoryService inventoryService;
+    private final SalesCheckpointRepository checkpointRepository;
+
+    /**
+     * Stock rows are changed in a fixed order, so that concurrent flushes and sales never wait for each other's locks in a cycle.
+     *
+     * @return number of sold copies that were not in stock
+     */
+    @Transactional
+    public long write(Map<StockKey, Long> copiesSold, String journal, long lastSequence) {
+        var unfulfilled = 0L;
+        for (var entry : copiesSold.entrySet().stream().sorted(Map.Entry.comparingByKey(LOCK_ORDER)).toList()) {
+            var key = entry.getKey();
+            var taken = inventoryService.takeAvailableStoreCopies(key.storeId(), key.isbn(), entry.getValue());
+            if (taken < entry.getValue()) {
+                log.warn("Sold {} copies of book {} in store {} but only {} were in stock", entry.getValue(), key.isbn(), key.storeId(), taken);
+                unfulfilled += entry.getValue() - taken;
+            }
+        }
+        checkpointRepository.saveAppliedSequence(journal, lastSequence);
+        return unfulfilled;
+    }
+
+    record StockKey(UUID storeId, UUID isbn) {
+
+    }
+}
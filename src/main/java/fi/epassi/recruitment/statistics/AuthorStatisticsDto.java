@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.statistics;
+
+import java.math.BigDecimal;
+
+/**
+ * @param totalValue sum of the prices of the books of the author
+ */
+public record AuthorStatisticsDto(String author, long books, BigDecimal totalValue, BigDecimal averagePrice) {
+
+}
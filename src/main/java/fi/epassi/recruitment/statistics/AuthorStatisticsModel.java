@@ -0,0 +1,29 @@
+package fi.epassi.recruitment.statistics;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number and total price of the books of an author. Rows are only written through the single statement changes of
+ * {@link AuthorStatisticsRepository}, never loaded, modified and saved.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "author_statistics")
+public class AuthorStatisticsModel {
+
+    @Id
+    private String author;
+
+    private long books;
+
+    private BigDecimal priceSum;
+
+}
@@ -0,0 +1,36 @@
+package fi.epassi.recruitment.statistics;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface AuthorStatisticsRepository extends JpaRepository<AuthorStatisticsModel, String> {
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+        INSERT INTO `author_statistics` (`author`, `books`, `price_sum`) VALUES (:author, :books, :priceSum)
+        ON DUPLICATE KEY UPDATE `books` = `books` + VALUES(`books`), `price_sum` = `price_sum` + VALUES(`price_sum`)
+        """)
+    int increment(@Param("author") String author, @Param("books") long books, @Param("priceSum") BigDecimal priceSum);
+
+    List<AuthorStatisticsModel> findByBooksGreaterThanOrderByBooksDescAuthor(long books, Limit limit);
+
+    /**
+     * Counts the books per author from the books themselves, for the reconciliation.
+     */
+    @Query("""
+        select new fi.epassi.recruitment.statistics.AuthorStatisticsModel(b.author, count(b), sum(b.price))
+        from BookModel b group by b.author
+        """)
+    List<AuthorStatisticsModel> countBooksPerAuthor();
+
+    @Transactional
+    @Modifying
+    @Query("delete from AuthorStatisticsModel a where a.books = 0")
+    int deleteEmpty();
+}
@@ -0,0 +1,38 @@
+package fi.epassi.recruitment.statistics;
+
+import static fi.epassi.recruitment.book.BookController.DEFAULT_PAGE_SIZE;
+import static fi.epassi.recruitment.book.BookController.MAX_PAGE_SIZE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import fi.epassi.recruitment.api.ApiResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/books/statistics", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+public class BookStatisticsController {
+
+    static final int DEFAULT_BUCKET_WIDTH = 10;
+    static final int MAX_BUCKET_WIDTH = 1_000_000;
+
+    private final BookStatisticsService bookStatisticsService;
+
+    @GetMapping
+    ApiResponse<BookStatisticsDto> getStatistics(
+        @RequestParam(value = "bucket_width", defaultValue = "" + DEFAULT_BUCKET_WIDTH) @Min(1) @Max(MAX_BUCKET_WIDTH) int bucketWidth) {
+        return ApiResponse.ok(bookStatisticsService.getStatistics(bucketWidth));
+    }
+
+    @GetMapping("/authors")
+    ApiResponse<List<AuthorStatisticsDto>> getAuthorsWithMostBooks(
+        @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        return ApiResponse.ok(bookStatisticsService.getAuthorsWithMostBooks(limit));
+    }
+}
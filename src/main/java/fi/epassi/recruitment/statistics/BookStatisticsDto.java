@@ -0,0 +1,18 @@
+package fi.epassi.recruitment.statistics;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * @param totalValue     sum of the prices of all books
+ * @param priceHistogram number of books per price range, ranges without books are left out
+ */
+public record BookStatisticsDto(
+    long books,
+    BigDecimal totalValue,
+    BigDecimal averagePrice,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    List<PriceBucketDto> priceHistogram) {
+
+}
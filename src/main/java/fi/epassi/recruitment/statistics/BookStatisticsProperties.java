@@ -0,0 +1,16 @@
+package fi.epassi.recruitment.statistics;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param reconciliationInterval time between two reconciliations of the statistics against the books
+ * @param reconciliationLease    time an instance holds the reconciliation for, the others skip theirs meanwhile. It has to exceed the
+ *                               time a reconciliation takes, and blocks reconciliations this long after an instance died reconciling
+ */
+@ConfigurationProperties(prefix = "books.statistics")
+public record BookStatisticsProperties(
+    @DefaultValue("6h") Duration reconciliationInterval, @DefaultValue("1h") Duration reconciliationLease) {
+
+}
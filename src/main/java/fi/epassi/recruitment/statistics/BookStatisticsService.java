@@ -0,0 +1,279 @@
+package fi.epassi.recruitment.statistics;
+
+import static fi.epassi.recruitment.statistics.StatisticsLeaseRepository.RECONCILIATION;
+import static org.springframework.transaction.TransactionDefinition.ISOLATION_REPEATABLE_READ;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Catalogue statistics served from counters of the books per author and per whole price instead of from the books, so that a request
+ * reads a row per whole price in the catalogue, or a row per author asked for, however many books there are.
+ * <p>
+ * The counters are changed by every write of books through {@code BookService}. The changes of a transaction are added up per author and
+ * price and applied with one increment per counter just before the transaction commits, so that a rolled back write changes nothing and
+ * a counter is locked only for the moment of the commit. Increments commute, writers never wait for each other beyond that.
+ * <p>
+ * Every {@code books.statistics.reconciliation-interval} the counters are compared with the books and the differences are added to them,
+ * repairing counters that drifted, for example through books changed in the database directly.
+ */
+@Slf4j
+@Service
+public class BookStatisticsService {
+
+    static final String DRIFT = "books.statistics.drift";
+
+    private final AuthorStatisticsRepository authorRepository;
+    private final PriceStatisticsRepository priceRepository;
+    private final StatisticsLeaseRepository leaseRepository;
+    private final BookStatisticsProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final Counter drift;
+    private final ScheduledExecutorService reconciler;
+    private final String owner = UUID.randomUUID().toString();
+
+    public BookStatisticsService(
+        AuthorStatisticsRepository authorRepository, PriceStatisticsRepository priceRepository, StatisticsLeaseRepository leaseRepository,
+        BookStatisticsProperties properties, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.authorRepository = authorRepository;
+        this.priceRepository = priceRepository;
+        this.leaseRepository = leaseRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        // A transaction reads a single snapshot at repeatable read, on MySQL without locking the rows it reads
+        this.snapshotTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(ISOLATION_REPEATABLE_READ);
+        this.drift = Counter.builder(DRIFT)
+            .description("Statistics counters corrected by the reconciliation with the books")
+            .register(meterRegistry);
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(task -> new Thread(task, "book-statistics-reconciler"));
+    }
+
+    @PostConstruct
+    void start() {
+        var interval = properties.reconciliationInterval().toMillis();
+        reconciler.scheduleWithFixedDelay(this::reconcileSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        reconciler.shutdownNow();
+    }
+
+    /**
+     * Counts a book written in the current transaction, the counters change when it commits.
+     */
+    public void recordAdded(@NonNull String author, @NonNull BigDecimal price) {
+        pending().add(author, price, Counts.of(price));
+    }
+
+    /**
+     * Stops counting a book changed or deleted in the current transaction, with its author and price before the change.
+     */
+    public void recordRemoved(@NonNull String author, @NonNull BigDecimal price) {
+        pending().add(author, price, Counts.of(price).negate());
+    }
+
+    /**
+     * @param bucketWidth width of the price ranges of the histogram, in whole units of the price
+     */
+    @Transactional(readOnly = true)
+    public BookStatisticsDto getStatistics(int bucketWidth) {
+        var books = 0L;
+        var totalValue = BigDecimal.ZERO;
+        var histogram = new ArrayList<PriceBucketDto>();
+        for (var price : priceRepository.findByBooksGreaterThanOrderByPriceFloor(0)) {
+            books += price.getBooks();
+            totalValue = totalValue.add(price.getPriceSum());
+            var from = BigDecimal.valueOf(Math.floorDiv(price.getPriceFloor(), bucketWidth) * (long) bucketWidth);
+            var last = histogram.isEmpty() ? null : histogram.get(histogram.size() - 1);
+            if (last != null && last.from().equals(from)) {
+                histogram.set(histogram.size() - 1, new PriceBucketDto(from, last.to(), last.books() + price.getBooks()));
+            } else {
+                histogram.add(new PriceBucketDto(from, from.add(BigDecimal.valueOf(bucketWidth)), price.getBooks()));
+            }
+        }
+        var range = priceRepository.findPriceRange();
+        return new BookStatisticsDto(books, totalValue, average(totalValue, books), range.min(), range.max(), histogram);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AuthorStatisticsDto> getAuthorsWithMostBooks(int limit) {
+        return authorRepository.findByBooksGreaterThanOrderByBooksDescAuthor(0, Limit.of(limit)).stream()
+            .map(author -> new AuthorStatisticsDto(author.getAuthor(), author.getBooks(), author.getPriceSum(),
+                average(author.getPriceSum(), author.getBooks())))
+            .toList();
+    }
+
+    /**
+     * Counts the books and reads the counters in one snapshot, in which every committed write has changed both, and adds the
+     * differences to the counters, in the order of their keys like the writers do. Writes committed in the meantime add their own changes
+     * on top, so neither the books nor the counters are locked while the books are counted.
+     * <p>
+     * The differences are added blindly, so reconciliations of several instances must not overlap: each would add the same drift. A
+     * reconciliation runs under the lease {@link StatisticsLeaseRepository#RECONCILIATION} and is skipped while another instance holds
+     * it, the snapshot of the next one sees the corrections of the previous one.
+     *
+     * @return number of corrected counters, {@code 0} when another instance is reconciling
+     */
+    public int reconcile() {
+        var now = Instant.now();
+        if (leaseRepository.acquire(RECONCILIATION, owner, now, now.plus(properties.reconciliationLease())) == 0) {
+            log.info("Skipping the reconciliation of the book statistics, another instance is reconciling them");
+            return 0;
+        }
+        try {
+            return reconcileUnderLease();
+        } finally {
+            leaseRepository.release(RECONCILIATION, owner, Instant.now());
+        }
+    }
+
+    private int reconcileUnderLease() {
+        var corrections = snapshotTemplate.execute(status -> new Corrections(
+            differences(authorRepository.countBooksPerAuthor(), authorRepository.findAll(), AuthorStatisticsModel::getAuthor,
+                author -> new Counts(author.getBooks(), author.getPriceSum())),
+            differences(priceRepository.countBooksPerPrice(), priceRepository.findAll(), PriceStatisticsModel::getPriceFloor,
+                price -> new Counts(price.getBooks(), price.getPriceSum()))));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            corrections.authors().forEach((author, counts) -> authorRepository.increment(author, counts.books(), counts.priceSum()));
+            corrections.prices().forEach((price, counts) -> priceRepository.increment(price, counts.books(), counts.priceSum()));
+        });
+        authorRepository.deleteEmpty();
+        priceRepository.deleteEmpty();
+
+        var corrected = corrections.authors().size() + corrections.prices().size();
+        if (corrected > 0) {
+            drift.increment(corrected);
+            log.warn("Corrected the statistics of {} authors and {} prices that drifted from the books", corrections.authors().size(),
+                corrections.prices().size());
+        }
+        return corrected;
+    }
+
+    private void reconcileSafely() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("Failed to reconcile the book statistics, retrying in {}", properties.reconciliationInterval(), e);
+        }
+    }
+
+    private PendingCounts pending() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Book statistics have to be recorded in the transaction of the change");
+        }
+        var pending = (PendingCounts) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingCounts();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private static <K, M> Map<K, Counts> differences(
+        List<M> actual, List<M> stored, Function<M, K> key, Function<M, Counts> counts) {
+        var differences = new TreeMap<K, Counts>();
+        actual.forEach(row -> differences.merge(key.apply(row), counts.apply(row), Counts::plus));
+        stored.forEach(row -> differences.merge(key.apply(row), counts.apply(row).negate(), Counts::plus));
+        differences.values().removeIf(Counts::isZero);
+        return differences;
+    }
+
+    private static BigDecimal average(BigDecimal total, long books) {
+        return books == 0 ? null : total.divide(BigDecimal.valueOf(books), 2, RoundingMode.HALF_UP);
+    }
+
+    private record Counts(long books, BigDecimal priceSum) {
+
+        static Counts of(BigDecimal price) {
+            return new Counts(1, price);
+        }
+
+        Counts plus(Counts other) {
+            return new Counts(books + other.books, priceSum.add(other.priceSum));
+        }
+
+        Counts negate() {
+            return new Counts(-books, priceSum.negate());
+        }
+
+        boolean isZero() {
+            return books == 0 && priceSum.signum() == 0;
+        }
+    }
+
+    private record Corrections(Map<String, Counts> authors, Map<Integer, Counts> prices) {
+
+    }
+
+    /**
+     * Changes of the counters recorded in a transaction, applied when it commits. Counters are incremented in the order of their keys, and
+     * before the change feed takes its sequence, so that concurrent commits never wait for each other's locks in a cycle.
+     */
+    private final class PendingCounts implements TransactionSynchronization {
+
+        private final Map<String, Counts> authors = new TreeMap<>();
+        private final Map<Integer, Counts> prices = new TreeMap<>();
+
+        void add(String author, BigDecimal price, Counts counts) {
+            authors.merge(author, counts, Counts::plus);
+            prices.merge(price.intValue(), counts, Counts::plus);
+        }
+
+        /**
+         * Runs before the synchronization of the change feed, which keeps the default order, so that the sequence every writer of books
+         * contends for is locked last and held for the shortest time.
+         */
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            authors.forEach((author, counts) -> {
+                if (!counts.isZero()) {
+                    authorRepository.increment(author, counts.books(), counts.priceSum());
+                }
+            });
+            prices.forEach((price, counts) -> {
+                if (!counts.isZero()) {
+                    priceRepository.increment(price, counts.books(), counts.priceSum());
+                }
+            });
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BookStatisticsService.this);
+        }
+    }
+}
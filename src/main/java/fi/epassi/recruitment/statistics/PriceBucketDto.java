@@ -0,0 +1,11 @@
+package fi.epassi.recruitment.statistics;
+
+import java.math.BigDecimal;
+
+/**
+ * @param from lowest price of the range
+ * @param to   price the range ends before
+ */
+public record PriceBucketDto(BigDecimal from, BigDecimal to, long books) {
+
+}
@@ -0,0 +1,10 @@
+package fi.epassi.recruitment.statistics;
+
+import java.math.BigDecimal;
+
+/**
+ * Lowest and highest price of the books, both {@code null} without books.
+ */
+public record PriceRange(BigDecimal min, BigDecimal max) {
+
+}
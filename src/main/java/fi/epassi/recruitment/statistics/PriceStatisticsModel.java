@@ -0,0 +1,29 @@
+package fi.epassi.recruitment.statistics;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number and total price of the books priced from {@code priceFloor} up to the next whole price. Rows are only written through the single
+ * statement changes of {@link PriceStatisticsRepository}, never loaded, modified and saved.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "price_statistics")
+public class PriceStatisticsModel {
+
+    @Id
+    private int priceFloor;
+
+    private long books;
+
+    private BigDecimal priceSum;
+
+}
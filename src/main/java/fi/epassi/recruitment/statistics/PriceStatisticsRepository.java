@@ -0,0 +1,41 @@
+package fi.epassi.recruitment.statistics;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface PriceStatisticsRepository extends JpaRepository<PriceStatisticsModel, Integer> {
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+        INSERT INTO `price_statistics` (`price_floor`, `books`, `price_sum`) VALUES (:priceFloor, :books, :priceSum)
+        ON DUPLICATE KEY UPDATE `books` = `books` + VALUES(`books`), `price_sum` = `price_sum` + VALUES(`price_sum`)
+        """)
+    int increment(@Param("priceFloor") int priceFloor, @Param("books") long books, @Param("priceSum") BigDecimal priceSum);
+
+    List<PriceStatisticsModel> findByBooksGreaterThanOrderByPriceFloor(long books);
+
+    /**
+     * Counts the books per whole price from the books themselves, for the reconciliation.
+     */
+    @Query("""
+        select new fi.epassi.recruitment.statistics.PriceStatisticsModel(cast(floor(b.price) as Integer), count(b), sum(b.price))
+        from BookModel b group by floor(b.price)
+        """)
+    List<PriceStatisticsModel> countBooksPerPrice();
+
+    /**
+     * Reads both ends of the price index of the books.
+     */
+    @Query("select new fi.epassi.recruitment.statistics.PriceRange(min(b.price), max(b.price)) from BookModel b")
+    PriceRange findPriceRange();
+
+    @Transactional
+    @Modifying
+    @Query("delete from PriceStatisticsModel p where p.books = 0")
+    int deleteEmpty();
+}
@@ -0,0 +1,28 @@
+package fi.epassi.recruitment.statistics;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lease of work that only one instance may do at a time. Rows are only written through {@link StatisticsLeaseRepository}.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "statistics_leases")
+public class StatisticsLeaseModel {
+
+    @Id
+    private String name;
+
+    private String owner;
+
+    private Instant expiresAt;
+
+}
@@ -0,0 +1,33 @@
+package fi.epassi.recruitment.statistics;
+
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface StatisticsLeaseRepository extends JpaRepository<StatisticsLeaseModel, String> {
+
+    String RECONCILIATION = "reconciliation";
+
+    /**
+     * Takes the lease when it has expired, or extends it when the owner holds it already.
+     *
+     * @return {@code 1} when the owner holds the lease until {@code expiresAt}, {@code 0} when another owner holds it
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        UPDATE `statistics_leases` SET `owner` = :owner, `expires_at` = :expiresAt
+        WHERE `name` = :name AND (`expires_at` < :now OR `owner` = :owner)
+        """)
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        UPDATE `statistics_leases` SET `owner` = NULL, `expires_at` = :now WHERE `name` = :name AND `owner` = :owner
+        """)
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
@@ -0,0 +1,15 @@
+ALTER TABLE `books` ADD COLUMN `author_normalized` varchar(64) NULL;
+ALTER TABLE `books` ADD COLUMN `title_normalized` varchar(128) NULL;
+
+UPDATE `books` SET `author_normalized` = LOWER(`author`), `title_normalized` = LOWER(`title`);
+
+ALTER TABLE `books` MODIFY `author_normalized` varchar(64) NOT NULL;
+ALTER TABLE `books` MODIFY `title_normalized` varchar(128) NOT NULL;
+
+-- Exact searches seek straight to the (author, title, id) / (title, id) range that the keyset pagination walks through.
+CREATE INDEX `idx_books_title` ON `books` (`title`, `id`);
+CREATE INDEX `idx_books_author_title` ON `books` (`author`, `title`, `id`);
+
+-- Case-insensitive prefix searches are range scans over the lower-cased copies.
+CREATE INDEX `idx_books_author_normalized` ON `books` (`author_normalized`);
+CREATE INDEX `idx_books_title_normalized` ON `books` (`title_normalized`);
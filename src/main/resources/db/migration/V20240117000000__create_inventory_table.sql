@@ -0,0 +1,9 @@
+-- One counter row per book, changed only by single conditional statements so that concurrent sales never lose updates or oversell.
+CREATE TABLE `inventory`
+(
+    `isbn`   binary(16) NOT NULL,
+    `copies` int        NOT NULL,
+    PRIMARY KEY (`isbn`),
+    CONSTRAINT `fk_inventory_books` FOREIGN KEY (`isbn`) REFERENCES `books` (`id`) ON DELETE CASCADE,
+    CONSTRAINT `chk_inventory_copies` CHECK (`copies` >= 0)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
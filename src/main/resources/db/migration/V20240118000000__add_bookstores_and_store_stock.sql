@@ -0,0 +1,45 @@
+CREATE TABLE `bookstores`
+(
+    `id`   binary(16)   NOT NULL,
+    `name` varchar(128) NOT NULL,
+    PRIMARY KEY (`id`),
+    CONSTRAINT `uk_bookstores_name` UNIQUE (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Stock that is not in any physical or online store, the stock changed through /api/v1/inventory so far
+INSERT INTO `bookstores` (`id`, `name`) VALUES (X'00000000000000000000000000000001', 'Central warehouse');
+
+-- Stock per store. Writes of different stores touch different rows and never wait for each other.
+CREATE TABLE `bookstore_stock`
+(
+    `store_id` binary(16) NOT NULL,
+    `isbn`     binary(16) NOT NULL,
+    `copies`   int        NOT NULL,
+    PRIMARY KEY (`store_id`, `isbn`),
+    CONSTRAINT `fk_bookstore_stock_bookstores` FOREIGN KEY (`store_id`) REFERENCES `bookstores` (`id`) ON DELETE CASCADE,
+    CONSTRAINT `fk_bookstore_stock_books` FOREIGN KEY (`isbn`) REFERENCES `books` (`id`) ON DELETE CASCADE,
+    CONSTRAINT `chk_bookstore_stock_copies` CHECK (`copies` >= 0)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE INDEX `idx_bookstore_stock_isbn` ON `bookstore_stock` (`isbn`);
+
+-- Rollup of the stock of all stores per book, split into a fixed number of slots. Each store always adds to the same slot, so stores
+-- in different slots do not contend for a row, and a total reads at most one row per slot whatever the number of stores.
+CREATE TABLE `inventory_totals`
+(
+    `isbn`   binary(16) NOT NULL,
+    `slot`   tinyint    NOT NULL,
+    `copies` int        NOT NULL,
+    PRIMARY KEY (`isbn`, `slot`),
+    CONSTRAINT `fk_inventory_totals_books` FOREIGN KEY (`isbn`) REFERENCES `books` (`id`) ON DELETE CASCADE,
+    CONSTRAINT `chk_inventory_totals_copies` CHECK (`copies` >= 0)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- The existing stock moves to the central warehouse, whose id puts it in slot 1
+INSERT INTO `bookstore_stock` (`store_id`, `isbn`, `copies`)
+SELECT X'00000000000000000000000000000001', `isbn`, `copies` FROM `inventory`;
+
+INSERT INTO `inventory_totals` (`isbn`, `slot`, `copies`)
+SELECT `isbn`, 1, `copies` FROM `inventory`;
+
+DROP TABLE `inventory`;
@@ -0,0 +1,5 @@
+-- Incremented on every update, used as the ETag of a book and for optimistic locking of updates.
+ALTER TABLE `books` ADD COLUMN `version` bigint NOT NULL DEFAULT 0;
+
+-- Time of the last create or update, used as the Last-Modified of a book.
+ALTER TABLE `books` ADD COLUMN `updated_at` timestamp(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
@@ -0,0 +1,31 @@
+-- Asynchronous book imports. `committed_rows` is the position in the uploaded file up to which every row has been committed, a failed
+-- job resumes reading there.
+CREATE TABLE `import_jobs`
+(
+    `id`             binary(16)    NOT NULL,
+    `format`         varchar(16)   NOT NULL,
+    `mode`           varchar(16)   NOT NULL,
+    `status`         varchar(16)   NOT NULL,
+    `committed_rows` int           NOT NULL DEFAULT 0,
+    `processed`      bigint        NOT NULL DEFAULT 0,
+    `succeeded`      bigint        NOT NULL DEFAULT 0,
+    `failed`         bigint        NOT NULL DEFAULT 0,
+    `running_millis` bigint        NOT NULL DEFAULT 0,
+    `error`          varchar(1024),
+    `created_at`     timestamp(6)  NOT NULL,
+    `updated_at`     timestamp(6)  NOT NULL,
+    `finished_at`    timestamp(6),
+    PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Rows of an import that were not applied, only the first ones of a job are kept.
+CREATE TABLE `import_job_errors`
+(
+    `job_id`    binary(16)    NOT NULL,
+    `row_index` int           NOT NULL,
+    `isbn`      binary(16),
+    `status`    varchar(16)   NOT NULL,
+    `message`   varchar(1024),
+    PRIMARY KEY (`job_id`, `row_index`),
+    CONSTRAINT `fk_import_job_errors_import_jobs` FOREIGN KEY (`job_id`) REFERENCES `import_jobs` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,8 @@
+-- Last sale of each sales journal whose stock change has been committed, written in the same transaction as the stock changes. Sales
+-- after it are replayed from the journal when the application starts.
+CREATE TABLE `sales_checkpoints`
+(
+    `journal`          varchar(255) NOT NULL,
+    `applied_sequence` bigint       NOT NULL,
+    PRIMARY KEY (`journal`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,24 @@
+-- Outbox of the book mutations, one row per created, updated or deleted book, written in the transaction of the mutation. Sequences are
+-- taken from `book_change_sequence` when the transaction commits, so they increase in commit order.
+CREATE TABLE `book_changes`
+(
+    `sequence`   bigint      NOT NULL,
+    `isbn`       binary(16)  NOT NULL,
+    `type`       varchar(16) NOT NULL,
+    `changed_at` timestamp(6) NOT NULL,
+    PRIMARY KEY (`sequence`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Finds the changes superseded by a later change of the same book for compaction.
+CREATE INDEX `idx_book_changes_isbn_sequence` ON `book_changes` (`isbn`, `sequence`);
+
+-- Single row with the last sequence taken, locked from the outbox write to the commit, and the last sequence removed by the retention.
+CREATE TABLE `book_change_sequence`
+(
+    `id`               tinyint NOT NULL,
+    `last_sequence`    bigint  NOT NULL,
+    `expired_sequence` bigint  NOT NULL,
+    PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO `book_change_sequence` (`id`, `last_sequence`, `expired_sequence`) VALUES (1, 0, 0);
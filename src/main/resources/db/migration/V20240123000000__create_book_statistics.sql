@@ -0,0 +1,30 @@
+-- Number and total price of the books per author and per whole price, maintained by every write of books in the transaction of the
+-- write and reconciled against `books` periodically, see BookStatisticsService. Rows are only ever incremented, rows of authors and prices
+-- without books are left at zero until the next reconciliation removes them.
+CREATE TABLE `author_statistics`
+(
+    `author`    varchar(64)    NOT NULL,
+    `books`     bigint         NOT NULL,
+    `price_sum` decimal(19, 2) NOT NULL,
+    PRIMARY KEY (`author`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Serves the authors with most books from the start of the index.
+CREATE INDEX `idx_author_statistics_books` ON `author_statistics` (`books` DESC, `author`);
+
+CREATE TABLE `price_statistics`
+(
+    `price_floor` int            NOT NULL,
+    `books`       bigint         NOT NULL,
+    `price_sum`   decimal(19, 2) NOT NULL,
+    PRIMARY KEY (`price_floor`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO `author_statistics` (`author`, `books`, `price_sum`)
+SELECT `author`, COUNT(*), SUM(`price`) FROM `books` GROUP BY `author`;
+
+INSERT INTO `price_statistics` (`price_floor`, `books`, `price_sum`)
+SELECT FLOOR(`price`), COUNT(*), SUM(`price`) FROM `books` GROUP BY FLOOR(`price`);
+
+-- Lowest and highest price are read from both ends of the index instead of being maintained.
+CREATE INDEX `idx_books_price` ON `books` (`price`);
@@ -0,0 +1,11 @@
+-- Leases of work that only one instance may do at a time, such as the reconciliation of the statistics, see StatisticsLeaseRepository.
+-- A lease is held by its owner until it expires or is released, an instance that dies while holding it blocks the work until then.
+CREATE TABLE `statistics_leases`
+(
+    `name`       varchar(64)  NOT NULL,
+    `owner`      varchar(36)  NULL,
+    `expires_at` timestamp(6) NOT NULL,
+    PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO `statistics_leases` (`name`, `owner`, `expires_at`) VALUES ('reconciliation', NULL, '1970-01-01 00:00:01');
@@ -0,0 +1,3 @@
+-- Incremented on every update of a job, so that a run whose job has been taken over by another run fails instead of overwriting its
+-- progress.
+ALTER TABLE `import_jobs` ADD COLUMN `version` bigint NOT NULL DEFAULT 0;
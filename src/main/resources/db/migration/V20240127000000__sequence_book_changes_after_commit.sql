@@ -0,0 +1,9 @@
+-- Changes are written with an auto-increment id and no sequence, and given their sequence once committed by BookChangeService, so that
+-- writers no longer lock `book_change_sequence` until they commit. `last_sequence` becomes the high-water mark of the sequenced changes,
+-- only moved by the sequencing, which locks the row for its own short transaction.
+ALTER TABLE `book_changes` DROP PRIMARY KEY;
+ALTER TABLE `book_changes` ADD COLUMN `id` bigint NOT NULL AUTO_INCREMENT PRIMARY KEY FIRST;
+ALTER TABLE `book_changes` MODIFY `sequence` bigint NULL;
+
+-- Reads the feed in the order of the sequences, and finds the changes not sequenced yet in the order of their ids.
+CREATE UNIQUE INDEX `idx_book_changes_sequence` ON `book_changes` (`sequence`);
@@ -0,0 +1,133 @@
+package db.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.SneakyThrows;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+class StoreBookIdsAsBinaryMigrationTest {
+
+    // More than one batch of the conversion
+    private static final int BOOKS = 2500;
+
+    @Test
+    @SneakyThrows
+    void shouldKeepBooksIdsAndIndexesWhenConvertingIdsToBinary() {
+        // Given books stored with text ids by the migrations before the conversion
+        var url = "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MYSQL;DB_CLOSE_DELAY=-1";
+        migrate(url, "20240115000000");
+        var ids = new ArrayList<UUID>();
+        insertBooks(url, ids, 0, BOOKS);
+
+        // When the binary ids are added
+        migrate(url, "20240116000000");
+
+        // Then every book is found by either form of its id
+        try (var connection = DriverManager.getConnection(url, "sa", "")) {
+            assertTitles(connection, "SELECT `title` FROM `books` WHERE `id_binary` = ?", ids, true);
+            assertTitles(connection, "SELECT `title` FROM `books` WHERE `id` = ?", ids, false);
+        }
+
+        // When a book is written with only its text id by the previous version started again after the expand step, then the text ids
+        // are dropped
+        insertBooks(url, ids, BOOKS, 1);
+        migrate(url, "20240116000001");
+
+        // Then every book is found by its binary id with its values
+        try (var connection = DriverManager.getConnection(url, "sa", "")) {
+            try (var count = connection.createStatement().executeQuery("SELECT COUNT(*) FROM `books`")) {
+                count.next();
+                assertThat(count.getInt(1)).isEqualTo(BOOKS + 1);
+            }
+            assertTitles(connection, "SELECT `title` FROM `books` WHERE `id` = ?", ids, true);
+
+            // Then the indexes are rebuilt over the binary id
+            assertThat(indexColumns(connection)).containsEntry("primary", List.of("id"))
+                .containsEntry("idx_books_title", List.of("title", "id"))
+                .containsEntry("idx_books_author_title", List.of("author", "title", "id"));
+            try (var plan = connection.createStatement()
+                .executeQuery("EXPLAIN SELECT `id` FROM `books` WHERE `author` = 'Author 3' ORDER BY `title`, `id`")) {
+                plan.next();
+                assertThat(plan.getString(1)).containsIgnoringCase("idx_books_author_title");
+            }
+        }
+    }
+
+    @SneakyThrows
+    private static void insertBooks(String url, List<UUID> ids, int from, int count) {
+        try (var connection = DriverManager.getConnection(url, "sa", "");
+             var insert = connection.prepareStatement("INSERT INTO `books` (`id`, `author`, `title`, `price`, `author_normalized`, "
+                 + "`title_normalized`) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (var index = from; index < from + count; index++) {
+                var id = UUID.randomUUID();
+                ids.add(id);
+                insert.setString(1, id.toString());
+                insert.setString(2, "Author " + index % 10);
+                insert.setString(3, "Title " + index);
+                insert.setBigDecimal(4, BigDecimal.TEN);
+                insert.setString(5, "author " + index % 10);
+                insert.setString(6, "title " + index);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @SneakyThrows
+    private static void assertTitles(Connection connection, String query, List<UUID> ids, boolean binary) {
+        try (var lookup = connection.prepareStatement(query)) {
+            for (var index = 0; index < ids.size(); index++) {
+                if (binary) {
+                    lookup.setBytes(1, toBytes(ids.get(index)));
+                } else {
+                    lookup.setString(1, ids.get(index).toString());
+                }
+                try (var rows = lookup.executeQuery()) {
+                    assertThat(rows.next()).isTrue();
+                    assertThat(rows.getString(1)).isEqualTo("Title " + index);
+                }
+            }
+        }
+    }
+
+    private static void migrate(String url, String target) {
+        Flyway.configure().dataSource(url, "sa", "").target(target).load().migrate();
+    }
+
+    /**
+     * @return columns of the indexes of the books table by lower-cased index name, the primary key under {@code primary}
+     */
+    @SneakyThrows
+    private static Map<String, List<String>> indexColumns(Connection connection) {
+        var columns = new HashMap<String, List<String>>();
+        try (var rows = connection.createStatement().executeQuery("""
+            SELECT i.`INDEX_NAME`, i.`INDEX_TYPE_NAME`, c.`COLUMN_NAME`
+            FROM `INFORMATION_SCHEMA`.`INDEXES` i
+            JOIN `INFORMATION_SCHEMA`.`INDEX_COLUMNS` c ON c.`INDEX_SCHEMA` = i.`INDEX_SCHEMA` AND c.`INDEX_NAME` = i.`INDEX_NAME`
+            WHERE LOWER(i.`TABLE_NAME`) = 'books'
+            ORDER BY i.`INDEX_NAME`, c.`ORDINAL_POSITION`""")) {
+            while (rows.next()) {
+                var name = "PRIMARY KEY".equals(rows.getString(2)) ? "primary" : rows.getString(1).toLowerCase();
+                columns.computeIfAbsent(name, ignored -> new ArrayList<>()).add(rows.getString(3).toLowerCase());
+            }
+        }
+        return columns;
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .array();
+    }
+}
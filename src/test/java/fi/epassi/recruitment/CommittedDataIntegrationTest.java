@@ -0,0 +1,55 @@
+package fi.epassi.recruitment;
+
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+import fi.epassi.recruitment.book.BookDto;
+import fi.epassi.recruitment.book.BookService;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.AfterAll;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Base of the tests that commit their data instead of rolling it back, because the code under test runs on other threads or only acts on
+ * committed writes. The books of ISBNs taken from {@link #newIsbn()} are removed after all tests of the class, whether the tests passed
+ * or not.
+ */
+@Transactional(propagation = NOT_SUPPORTED)
+public abstract class CommittedDataIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    protected BookService bookService;
+
+    private final Queue<UUID> committedIsbns = new ConcurrentLinkedQueue<>();
+
+    @AfterAll
+    void removeCommittedBooks() {
+        bookService.deleteBooks(List.copyOf(committedIsbns));
+    }
+
+    /**
+     * @return random ISBN whose book is removed after all tests of the class
+     */
+    protected UUID newIsbn() {
+        var isbn = UUID.randomUUID();
+        committedIsbns.add(isbn);
+        return isbn;
+    }
+
+    /**
+     * Commits a new book under an ISBN from {@link #newIsbn()}.
+     */
+    protected BookDto createBook(String title, String author, String price) {
+        var book = book(newIsbn(), title, author, price);
+        bookService.createBook(book);
+        return book;
+    }
+
+    protected static BookDto book(UUID isbn, String title, String author, String price) {
+        return BookDto.builder().isbn(isbn).title(title).author(author).price(new BigDecimal(price)).build();
+    }
+}
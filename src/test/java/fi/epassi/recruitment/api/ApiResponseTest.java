@@ -3,6 +3,7 @@ package fi.epassi.recruitment.api;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class ApiResponseTest {
@@ -38,6 +39,17 @@ class ApiResponseTest {
         assertThat(response.getResponse()).isEqualTo("Body");
     }
 
+    @Test
+    void shouldCreateOkPageResponseWithNextCursor() {
+        // When
+        var response = ApiResponse.ok(List.of("First", "Second"), "cursor");
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getResponse()).containsExactly("First", "Second");
+        assertThat(response.getNextCursor()).isEqualTo("cursor");
+    }
+
     @Test
     void shouldCreateResponseWithBasicBuilder() {
         // When
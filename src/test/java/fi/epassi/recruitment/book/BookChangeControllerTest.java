@@ -0,0 +1,125 @@
+package fi.epassi.recruitment.book;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.http.HttpStatus.GONE;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import fi.epassi.recruitment.CommittedDataIntegrationTest;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.beans.factory.annotation.Autowired;
+
+// Changes are only recorded when their writes commit, so the test data is committed. The tests of this class run one after another,
+// compacting the outbox would remove the changes another test is about to read.
+@Execution(ExecutionMode.SAME_THREAD)
+class BookChangeControllerTest extends CommittedDataIntegrationTest {
+
+    private static final String BASE_PATH_V1_BOOK_CHANGES = "/api/v1/books/changes";
+
+    @Autowired
+    private BookChangeService bookChangeService;
+
+    @Autowired
+    private BookChangeRepository bookChangeRepository;
+
+    @Test
+    @SneakyThrows
+    void shouldFeedChangesInCommitOrder() {
+        // Given
+        createBook();
+        var since = currentSequence();
+        var first = createBook();
+        bookService.updateBook(book(first, "The Fellowship of the Ring", "12.00"));
+        var second = newIsbn();
+        var third = newIsbn();
+        bookService.createBooks(List.of(BookBulkItem.of(0, book(second, "The Hobbit", "10.00")),
+            BookBulkItem.of(1, book(third, "The Silmarillion", "10.00"))).iterator(), true);
+        bookService.deleteBookWithIsbn(third);
+        bookService.deleteBookWithIsbn(UUID.randomUUID());
+        bookChangeService.assignSequences();
+
+        // When
+        var response = mvc.perform(get(getEndpointUrl(BASE_PATH_V1_BOOK_CHANGES)).queryParam("since", String.valueOf(since))
+            .queryParam("limit", "1000").contentType(APPLICATION_JSON));
+
+        // Then changes of other tests may come in between
+        response.andExpect(status().isOk());
+        var content = response.andReturn().getResponse().getContentAsString();
+        List<Map<String, Object>> changes = JsonPath.read(content, "$.response.changes");
+        var ours = changes.stream().filter(change -> Set.of(first, second, third).contains(UUID.fromString((String) change.get("isbn")))).toList();
+        assertThat(ours).extracting(change -> change.get("isbn"), change -> change.get("type")).containsExactly(
+            tuple(first.toString(), "CREATED"),
+            tuple(first.toString(), "UPDATED"),
+            tuple(second.toString(), "CREATED"),
+            tuple(third.toString(), "CREATED"),
+            tuple(third.toString(), "DELETED"));
+        assertThat(ours.get(0)).extracting(change -> ((Map<?, ?>) change.get("book")).get("title")).isEqualTo("The Fellowship of the Ring");
+        assertThat(ours.get(3)).doesNotContainKey("book");
+        assertThat(changes).extracting(change -> ((Number) change.get("sequence")).longValue()).isSorted().allMatch(sequence -> sequence > since);
+        assertThat(((Number) JsonPath.read(content, "$.response.next_since")).longValue())
+            .isEqualTo(((Number) changes.get(changes.size() - 1).get("sequence")).longValue());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRemoveSupersededChangesWhenCompacting() {
+        // Given
+        var since = currentSequence();
+        var isbn = createBook();
+        bookService.updateBook(book(isbn, "The Return of the King", "15.00"));
+        bookChangeService.assignSequences();
+
+        // When
+        bookChangeService.compact();
+
+        // Then
+        mvc.perform(get(getEndpointUrl(BASE_PATH_V1_BOOK_CHANGES)).queryParam("since", String.valueOf(since)).queryParam("limit", "1000")
+                .contentType(APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.response.changes[?(@.isbn == '%s')].type".formatted(isbn), contains("UPDATED")));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithGoneWhenChangesHaveExpired() {
+        // Given changes removed up to the first one
+        createBook();
+        bookChangeRepository.expireUpTo(1);
+
+        // When
+        var response = mvc.perform(get(getEndpointUrl(BASE_PATH_V1_BOOK_CHANGES)).queryParam("since", "0").contentType(APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(GONE.value())));
+    }
+
+    @SneakyThrows
+    private long currentSequence() {
+        var content = mvc.perform(get(getEndpointUrl(BASE_PATH_V1_BOOK_CHANGES)).contentType(APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(content, "$.response.next_since")).longValue();
+    }
+
+    private UUID createBook() {
+        return createBook("The Two Towers", "J.R.R Tolkien", "10.00").isbn();
+    }
+
+    private static BookDto book(UUID isbn, String title, String price) {
+        return book(isbn, title, "J.R.R Tolkien", price);
+    }
+}
@@ -1,21 +1,34 @@
 package fi.epassi.recruitment.book;
 
 import static java.math.BigDecimal.TEN;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.LAST_MODIFIED;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.jayway.jsonpath.JsonPath;
 import fi.epassi.recruitment.BaseIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
 import java.util.UUID;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
@@ -26,7 +39,12 @@ class BookControllerTest extends BaseIntegrationTest {
     private static final String BASE_PATH_V1_BOOK = "/api/v1/books";
     private static final String AUTHOR = "author";
     private static final String TITLE = "title";
+    private static final String AUTHOR_PREFIX = "author_prefix";
+    private static final String TITLE_PREFIX = "title_prefix";
+    private static final String CURSOR = "cursor";
+    private static final String LIMIT = "limit";
     private static final String BASE_PATH_V1_BOOK_BY_ISBN = BASE_PATH_V1_BOOK + "/{isbn}";
+    private static final String BASE_PATH_V1_BOOK_BULK = BASE_PATH_V1_BOOK + "/bulk";
 
     private static final BookModel BOOK_HOBBIT = BookModel.builder()
         .isbn(UUID.fromString("66737096-39ef-4a7c-aa4a-9fd018c14178"))
@@ -45,6 +63,15 @@ class BookControllerTest extends BaseIntegrationTest {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookSearchCache bookSearchCache;
+
+    @Autowired
+    private BookBulkProperties bulkProperties;
+
     @Test
     @SneakyThrows
     void shouldCreateBookAndReturnId() {
@@ -62,6 +89,22 @@ class BookControllerTest extends BaseIntegrationTest {
             .andExpect(jsonPath("$.response", is(notNullValue())));
     }
 
+    @Test
+    @SneakyThrows
+    void shouldRespondWithConflictWhenCreatingBookWithExistingIsbn() {
+        // Given
+        bookRepository.save(BOOK_HOBBIT);
+        var bookDto = BookDto.builder().isbn(BOOK_HOBBIT.getIsbn()).title("The Hobbit").author("J.R.R Tolkien").price(TEN).build();
+        var bookDtoJson = mapper.writeValueAsString(bookDto);
+
+        // When
+        var response = mvc.perform(post(getEndpointUrl(BASE_PATH_V1_BOOK)).contentType(APPLICATION_JSON).content(bookDtoJson));
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(CONFLICT.value())));
+    }
+
     @Test
     @SneakyThrows
     void shouldRespondWithAllBooks() {
@@ -110,6 +153,101 @@ class BookControllerTest extends BaseIntegrationTest {
             .andExpect(jsonPath("$.response[0].title", is("The Hobbit")));
     }
 
+    @Test
+    @SneakyThrows
+    void shouldRespondWithBooksWhenSearchingByAuthorPrefixIgnoringCase() {
+        // Given
+        var author = "Prefix " + UUID.randomUUID();
+        bookRepository.save(BookModel.builder().isbn(UUID.randomUUID()).title("The Hobbit").author(author).price(TEN).build());
+
+        // When
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK);
+        var prefix = author.substring(0, 20).toUpperCase();
+        var request = get(requestUrl).queryParam(AUTHOR_PREFIX, prefix).contentType(APPLICATION_JSON);
+        var response = mvc.perform(request);
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response", hasSize(1)))
+            .andExpect(jsonPath("$.response[0].author", is(author)));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldTreatWildcardsInTitlePrefixLiterally() {
+        // Given
+        var author = UUID.randomUUID().toString();
+        bookRepository.save(BookModel.builder().isbn(UUID.randomUUID()).title("100% Hobbit").author(author).price(TEN).build());
+        bookRepository.save(BookModel.builder().isbn(UUID.randomUUID()).title("100 Hobbits").author(author).price(TEN).build());
+
+        // When
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK);
+        var request = get(requestUrl).queryParam(AUTHOR, author).queryParam(TITLE_PREFIX, "100%").contentType(APPLICATION_JSON);
+        var response = mvc.perform(request);
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response", hasSize(1)))
+            .andExpect(jsonPath("$.response[0].title", is("100% Hobbit")));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldPageThroughBooksUsingNextCursor() {
+        // Given
+        var author = UUID.randomUUID().toString();
+        bookRepository.save(BookModel.builder().isbn(UUID.randomUUID()).title("A").author(author).price(TEN).build());
+        bookRepository.save(BookModel.builder().isbn(UUID.randomUUID()).title("B").author(author).price(TEN).build());
+        bookRepository.save(BookModel.builder().isbn(UUID.randomUUID()).title("C").author(author).price(TEN).build());
+
+        // When
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK);
+        var firstPage = mvc.perform(get(requestUrl).queryParam(AUTHOR, author).queryParam(LIMIT, "2").contentType(APPLICATION_JSON));
+
+        // Then
+        firstPage.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response", hasSize(2)))
+            .andExpect(jsonPath("$.response[0].title", is("A")))
+            .andExpect(jsonPath("$.response[1].title", is("B")))
+            .andExpect(jsonPath("$.next_cursor", is(notNullValue())));
+
+        // When
+        var nextCursor = JsonPath.<String>read(firstPage.andReturn().getResponse().getContentAsString(), "$.next_cursor");
+        var secondPage = mvc.perform(get(requestUrl).queryParam(AUTHOR, author).queryParam(LIMIT, "2").queryParam(CURSOR, nextCursor)
+            .contentType(APPLICATION_JSON));
+
+        // Then
+        secondPage.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response", hasSize(1)))
+            .andExpect(jsonPath("$.response[0].title", is("C")))
+            .andExpect(jsonPath("$.next_cursor").doesNotExist());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithBadRequestWhenCursorIsMalformed() {
+        // When
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK);
+        var request = get(requestUrl).queryParam(CURSOR, "not-a-cursor").contentType(APPLICATION_JSON);
+        var response = mvc.perform(request);
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(BAD_REQUEST.value())));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithBadRequestWhenLimitIsOutOfRange() {
+        // When
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK);
+        var request = get(requestUrl).queryParam(LIMIT, "0").contentType(APPLICATION_JSON);
+        var response = mvc.perform(request);
+
+        // Then
+        response.andExpect(status().is4xxClientError());
+    }
+
     @Test
     @SneakyThrows
     void shouldRespondWithEmptyResponseWhenSearchingForNonExistingBooksByAuthor() {
@@ -138,6 +276,146 @@ class BookControllerTest extends BaseIntegrationTest {
             .andExpect(jsonPath("$.title", is("Not Found")));
     }
 
+    @Test
+    @SneakyThrows
+    void shouldCountLookupsOfNonExistingBooks() {
+        // Given
+        var counter = meterRegistry.counter(BookMetrics.NOT_FOUND, "operation", "get");
+        var countBefore = counter.count();
+
+        // When
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK_BY_ISBN);
+        var request = get(requestUrl, UUID.randomUUID()).contentType(APPLICATION_JSON);
+        var response = mvc.perform(request);
+
+        // Then
+        response.andExpect(status().is4xxClientError());
+        assertThat(counter.count()).isGreaterThan(countBefore);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRecordSizeOfReturnedPages() {
+        // Given
+        bookRepository.save(BOOK_HOBBIT);
+        var summary = meterRegistry.summary(BookMetrics.PAGE_SIZE, "page", "first");
+        var countBefore = summary.count();
+
+        // When
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK);
+        var request = get(requestUrl).queryParam(LIMIT, "1").contentType(APPLICATION_JSON);
+        var response = mvc.perform(request);
+
+        // Then
+        response.andExpect(status().is2xxSuccessful());
+        assertThat(summary.count()).isGreaterThan(countBefore);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithUpdatedBookByIsbnAfterUpdate() {
+        // Given a book that has already been read, and therefore cached, by ISBN
+        var isbn = UUID.randomUUID();
+        bookRepository.save(BookModel.builder().isbn(isbn).title("The Two Towers").author("J.R.R Tolkien").price(TEN).build());
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK_BY_ISBN);
+        mvc.perform(get(requestUrl, isbn).contentType(APPLICATION_JSON))
+            .andExpect(jsonPath("$.response.title", is("The Two Towers")));
+
+        // When
+        var bookDto = BookDto.builder().isbn(isbn).title("The Return of the King").author("J.R.R Tolkien").price(TEN).build();
+        mvc.perform(put(getEndpointUrl(BASE_PATH_V1_BOOK)).contentType(APPLICATION_JSON).content(mapper.writeValueAsString(bookDto)));
+        var response = mvc.perform(get(requestUrl, isbn).contentType(APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response.title", is("The Return of the King")));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithNotFoundWhenReadingBookByIsbnAfterDelete() {
+        // Given a book that has already been read, and therefore cached, by ISBN
+        var isbn = UUID.randomUUID();
+        bookRepository.save(BookModel.builder().isbn(isbn).title("The Two Towers").author("J.R.R Tolkien").price(TEN).build());
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK_BY_ISBN);
+        mvc.perform(get(requestUrl, isbn).contentType(APPLICATION_JSON)).andExpect(status().is2xxSuccessful());
+
+        // When
+        mvc.perform(delete(requestUrl, isbn).contentType(APPLICATION_JSON));
+        var response = mvc.perform(get(requestUrl, isbn).contentType(APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(NOT_FOUND.value())));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithMovedBookWhenSearchingByOldAndNewAuthorAfterUpdate() {
+        // Given a book whose author has already been searched for, and therefore cached, under its old and new author
+        var isbn = UUID.randomUUID();
+        var oldAuthor = UUID.randomUUID().toString();
+        var newAuthor = UUID.randomUUID().toString();
+        bookRepository.save(BookModel.builder().isbn(isbn).title("The Two Towers").author(oldAuthor).price(TEN).build());
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK);
+        mvc.perform(get(requestUrl).queryParam(AUTHOR, oldAuthor).contentType(APPLICATION_JSON))
+            .andExpect(jsonPath("$.response", hasSize(1)));
+        mvc.perform(get(requestUrl).queryParam(AUTHOR_PREFIX, newAuthor).contentType(APPLICATION_JSON))
+            .andExpect(jsonPath("$.response", is(empty())));
+
+        // When
+        var bookDto = BookDto.builder().isbn(isbn).title("The Two Towers").author(newAuthor).price(TEN).build();
+        mvc.perform(put(requestUrl).contentType(APPLICATION_JSON).content(mapper.writeValueAsString(bookDto)));
+
+        // Then
+        mvc.perform(get(requestUrl).queryParam(AUTHOR, oldAuthor).contentType(APPLICATION_JSON))
+            .andExpect(jsonPath("$.response", is(empty())));
+        mvc.perform(get(requestUrl).queryParam(AUTHOR_PREFIX, newAuthor).contentType(APPLICATION_JSON))
+            .andExpect(jsonPath("$.response", hasSize(1)))
+            .andExpect(jsonPath("$.response[0].author", is(newAuthor)));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithCreatedBookWhenSearchingByCachedTitlePrefix() {
+        // Given a search by title prefix that has already been cached without books
+        var title = UUID.randomUUID().toString();
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK);
+        var search = get(requestUrl).queryParam(TITLE_PREFIX, title.substring(0, 8).toUpperCase()).contentType(APPLICATION_JSON);
+        mvc.perform(search).andExpect(jsonPath("$.response", is(empty())));
+
+        // When
+        var bookDto = BookDto.builder().isbn(UUID.randomUUID()).title(title).author("J.R.R Tolkien").price(TEN).build();
+        mvc.perform(post(requestUrl).contentType(APPLICATION_JSON).content(mapper.writeValueAsString(bookDto)))
+            .andExpect(status().is2xxSuccessful());
+
+        // Then
+        mvc.perform(search)
+            .andExpect(jsonPath("$.response", hasSize(1)))
+            .andExpect(jsonPath("$.response[0].title", is(title)));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldKeepCachedSearchesOfOtherAuthorsWhenCreatingBook() {
+        // Given a search by author that has already been cached
+        var author = UUID.randomUUID().toString();
+        var criteria = new BookSearchCriteria(author, null, null, null);
+        bookRepository.save(BookModel.builder().isbn(UUID.randomUUID()).title("The Hobbit").author(author).price(TEN).build());
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK);
+        mvc.perform(get(requestUrl).queryParam(AUTHOR, author).contentType(APPLICATION_JSON)).andExpect(status().is2xxSuccessful());
+
+        // When a book of another author is created
+        var bookDto = BookDto.builder().isbn(UUID.randomUUID()).title("The Hobbit").author(UUID.randomUUID().toString()).price(TEN).build();
+        mvc.perform(post(requestUrl).contentType(APPLICATION_JSON).content(mapper.writeValueAsString(bookDto)))
+            .andExpect(status().is2xxSuccessful());
+
+        // Then the search of the first author is still cached, while one matching the new book is not
+        assertThat(bookSearchCache.isCached(criteria, null, BookController.DEFAULT_PAGE_SIZE)).isTrue();
+        mvc.perform(get(requestUrl).queryParam(TITLE, "The Hobbit").queryParam(AUTHOR, bookDto.author()).contentType(APPLICATION_JSON))
+            .andExpect(jsonPath("$.response", hasSize(1)));
+    }
+
     @Test
     @SneakyThrows
     void shouldDeleteBookByIsbnSuccessfully() {
@@ -201,6 +479,94 @@ class BookControllerTest extends BaseIntegrationTest {
             .andExpect(jsonPath("$.status_code", is(OK.value())));
     }
 
+    @Test
+    @SneakyThrows
+    void shouldRespondWithConflictWhenUpdatingBookAtStaleVersion() {
+        // Given a book that has been updated since version 0
+        var isbn = UUID.randomUUID();
+        bookRepository.save(BookModel.builder().isbn(isbn).title("The Two Towers").author("J.R.R Tolkien").price(TEN).build());
+        var bookDto = BookDto.builder().isbn(isbn).title("The Return of the King").author("J.R.R Tolkien").price(TEN).version(0L).build();
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK);
+        mvc.perform(put(requestUrl).contentType(APPLICATION_JSON).content(mapper.writeValueAsString(bookDto)))
+            .andExpect(status().is2xxSuccessful());
+
+        // When
+        var response = mvc.perform(put(requestUrl).contentType(APPLICATION_JSON).content(mapper.writeValueAsString(bookDto)));
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(CONFLICT.value())));
+        mvc.perform(get(getEndpointUrl(BASE_PATH_V1_BOOK_BY_ISBN), isbn).contentType(APPLICATION_JSON))
+            .andExpect(jsonPath("$.response.version", is(1)));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithNotModifiedWhenBookMatchesETag() {
+        // Given
+        var isbn = UUID.randomUUID();
+        bookRepository.save(BookModel.builder().isbn(isbn).title("The Two Towers").author("J.R.R Tolkien").price(TEN).build());
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK_BY_ISBN);
+        var etag = mvc.perform(get(requestUrl, isbn).contentType(APPLICATION_JSON))
+            .andExpect(status().is2xxSuccessful())
+            .andExpect(header().exists(LAST_MODIFIED))
+            .andReturn().getResponse().getHeader(ETAG);
+
+        // When
+        var response = mvc.perform(get(requestUrl, isbn).header(IF_NONE_MATCH, etag).contentType(APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithBookWhenETagMatchesDeletedAndRecreatedBook() {
+        // Given a copy of a book that was deleted and created again since, starting over at the same version
+        var isbn = UUID.randomUUID();
+        bookRepository.save(BookModel.builder().isbn(isbn).title("The Two Towers").author("J.R.R Tolkien").price(TEN).build());
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK_BY_ISBN);
+        var etag = mvc.perform(get(requestUrl, isbn).contentType(APPLICATION_JSON))
+            .andReturn().getResponse().getHeader(ETAG);
+        mvc.perform(delete(requestUrl, isbn).contentType(APPLICATION_JSON))
+            .andExpect(status().is2xxSuccessful());
+        var recreated = BookDto.builder().isbn(isbn).title("The Return of the King").author("J.R.R Tolkien").price(TEN).build();
+        mvc.perform(post(getEndpointUrl(BASE_PATH_V1_BOOK)).contentType(APPLICATION_JSON).content(mapper.writeValueAsString(recreated)))
+            .andExpect(status().is2xxSuccessful());
+
+        // When
+        var response = mvc.perform(get(requestUrl, isbn).header(IF_NONE_MATCH, etag).contentType(APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().isOk())
+            .andExpect(jsonPath("$.response.version", is(0)))
+            .andExpect(jsonPath("$.response.title", is("The Return of the King")));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithNotModifiedWhenPageMatchesETagUntilBookOfPageIsUpdated() {
+        // Given
+        var isbn = UUID.randomUUID();
+        var author = UUID.randomUUID().toString();
+        bookRepository.save(BookModel.builder().isbn(isbn).title("The Two Towers").author(author).price(TEN).build());
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOK);
+        var etag = mvc.perform(get(requestUrl).queryParam(AUTHOR, author).contentType(APPLICATION_JSON))
+            .andReturn().getResponse().getHeader(ETAG);
+
+        // When
+        var notModified = mvc.perform(get(requestUrl).queryParam(AUTHOR, author).header(IF_NONE_MATCH, etag).contentType(APPLICATION_JSON));
+        var bookDto = BookDto.builder().isbn(isbn).title("The Return of the King").author(author).price(TEN).build();
+        mvc.perform(put(requestUrl).contentType(APPLICATION_JSON).content(mapper.writeValueAsString(bookDto)));
+        var modified = mvc.perform(get(requestUrl).queryParam(AUTHOR, author).header(IF_NONE_MATCH, etag).contentType(APPLICATION_JSON));
+
+        // Then
+        notModified.andExpect(status().isNotModified());
+        modified.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response[0].title", is("The Return of the King")));
+    }
+
     @Test
     @SneakyThrows
     void shouldRespondWithNotFoundWhenUpdatingNonExistingBook() {
@@ -221,4 +587,106 @@ class BookControllerTest extends BaseIntegrationTest {
             .andExpect(jsonPath("$.title", is("Not Found")));
     }
 
+    @Test
+    @SneakyThrows
+    void shouldReportResultPerBookWhenCreatingBooksInBulk() {
+        // Given
+        bookRepository.save(BOOK_HOBBIT);
+        var newBook = BookDto.builder().isbn(UUID.randomUUID()).title("The Two Towers").author("J.R.R Tolkien").price(TEN).build();
+        var bookWithoutTitle = BookDto.builder().isbn(UUID.randomUUID()).author("J.R.R Tolkien").price(TEN).build();
+        var existingBook = BookDto.builder().isbn(BOOK_HOBBIT.getIsbn()).title("The Hobbit").author("J.R.R Tolkien").price(TEN).build();
+        var booksJson = mapper.writeValueAsString(List.of(newBook, bookWithoutTitle, existingBook));
+
+        // When
+        var response = mvc.perform(post(getEndpointUrl(BASE_PATH_V1_BOOK_BULK)).contentType(APPLICATION_JSON).content(booksJson));
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response.processed", is(3)))
+            .andExpect(jsonPath("$.response.succeeded", is(1)))
+            .andExpect(jsonPath("$.response.failed", is(2)))
+            .andExpect(jsonPath("$.response.items[0].status", is("CREATED")))
+            .andExpect(jsonPath("$.response.items[1].status", is("INVALID")))
+            .andExpect(jsonPath("$.response.items[1].message", is("title must not be blank")))
+            .andExpect(jsonPath("$.response.items[2].status", is("CONFLICT")));
+        assertThat(bookRepository.findByIsbn(newBook.isbn())).isPresent();
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldCreateBooksFromNdjsonStreamAndReportOnlyFailures() {
+        // Given
+        var firstBook = BookDto.builder().isbn(UUID.randomUUID()).title("The Two Towers").author("J.R.R Tolkien").price(TEN).build();
+        var secondBook = BookDto.builder().isbn(UUID.randomUUID()).title("The Silmarillion").author("J.R.R Tolkien").price(TEN).build();
+        var ndjson = String.join("\n", mapper.writeValueAsString(firstBook), "{not json", mapper.writeValueAsString(secondBook));
+
+        // When
+        var response = mvc.perform(post(getEndpointUrl(BASE_PATH_V1_BOOK_BULK)).contentType(APPLICATION_NDJSON).content(ndjson));
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response.processed", is(3)))
+            .andExpect(jsonPath("$.response.succeeded", is(2)))
+            .andExpect(jsonPath("$.response.items", hasSize(1)))
+            .andExpect(jsonPath("$.response.items[0].index", is(1)))
+            .andExpect(jsonPath("$.response.items[0].status", is("INVALID")));
+        assertThat(bookRepository.findExistingIsbns(List.of(firstBook.isbn(), secondBook.isbn()))).hasSize(2);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldUpdateExistingBooksInBulkAndReportMissingOnes() {
+        // Given
+        bookRepository.save(BOOK_FELLOWSHIP);
+        var existingBook = BookDto.builder().isbn(BOOK_FELLOWSHIP.getIsbn()).title("The Fellowship").author("J.R.R Tolkien").price(TEN).build();
+        var missingBook = BookDto.builder().isbn(UUID.randomUUID()).title("The Two Towers").author("J.R.R Tolkien").price(TEN).build();
+        var booksJson = mapper.writeValueAsString(List.of(existingBook, missingBook));
+
+        // When
+        var response = mvc.perform(put(getEndpointUrl(BASE_PATH_V1_BOOK_BULK)).contentType(APPLICATION_JSON).content(booksJson));
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response.succeeded", is(1)))
+            .andExpect(jsonPath("$.response.items[0].status", is("UPDATED")))
+            .andExpect(jsonPath("$.response.items[1].status", is("NOT_FOUND")));
+        assertThat(bookRepository.findByIsbn(BOOK_FELLOWSHIP.getIsbn())).get().extracting(BookModel::getTitle).isEqualTo("The Fellowship");
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldDeleteBooksInBulk() {
+        // Given
+        bookRepository.save(BOOK_HOBBIT);
+        var isbnsJson = mapper.writeValueAsString(List.of(BOOK_HOBBIT.getIsbn(), UUID.randomUUID()));
+
+        // When
+        var response = mvc.perform(delete(getEndpointUrl(BASE_PATH_V1_BOOK_BULK)).contentType(APPLICATION_JSON).content(isbnsJson));
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response.items[0].status", is("DELETED")))
+            .andExpect(jsonPath("$.response.items[1].status", is("NOT_FOUND")));
+        assertThat(bookRepository.findByIsbn(BOOK_HOBBIT.getIsbn())).isEmpty();
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRejectBulkRequestOverLimitBeforeReadingTheRest() {
+        // Given one ISBN more than allowed, followed by an element that cannot be read and no end of the array
+        var isbns = new StringBuilder("[");
+        for (var index = 0; index <= bulkProperties.maxItems(); index++) {
+            isbns.append('"').append(UUID.randomUUID()).append("\",");
+        }
+        isbns.append("\"not-an-isbn\"");
+
+        // When
+        var response = mvc.perform(delete(getEndpointUrl(BASE_PATH_V1_BOOK_BULK)).contentType(APPLICATION_JSON).content(isbns.toString()));
+
+        // Then the limit is reported, not the element after it
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(BAD_REQUEST.value())))
+            .andExpect(jsonPath("$.detail", startsWith("Bulk requests are limited to")));
+    }
+
 }
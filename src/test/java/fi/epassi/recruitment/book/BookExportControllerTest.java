@@ -0,0 +1,78 @@
+package fi.epassi.recruitment.book;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.VARY;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import fi.epassi.recruitment.CommittedDataIntegrationTest;
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+// The export streams on a thread of the task executor, and a thread started while a test transaction is open inherits the test's
+// transaction context, failing the next transactional test it runs. The export only reads, so there is no test data to roll back.
+class BookExportControllerTest extends CommittedDataIntegrationTest {
+
+    private static final String BASE_PATH_V1_BOOK_EXPORT = "/api/v1/books/export";
+
+    @Test
+    @SneakyThrows
+    void shouldStreamBooksAsNdjson() {
+        // When
+        var result = mvc.perform(get(getEndpointUrl(BASE_PATH_V1_BOOK_EXPORT)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        var response = mvc.perform(asyncDispatch(result));
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(content().contentType(APPLICATION_NDJSON_VALUE))
+            .andExpect(header().doesNotExist(CONTENT_ENCODING));
+        var body = response.andReturn().getResponse().getContentAsString();
+        body.lines().forEach(line -> assertThat(line).startsWith("{").endsWith("}"));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldGzipExportWhenClientAcceptsGzip() {
+        // When
+        var result = mvc.perform(get(getEndpointUrl(BASE_PATH_V1_BOOK_EXPORT)).header(ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        var response = mvc.perform(asyncDispatch(result));
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(header().string(CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(VARY, ACCEPT_ENCODING));
+        var compressed = response.andReturn().getResponse().getContentAsByteArray();
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(gzip.readAllBytes()).isNotNull();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotGzipExportWhenClientRefusesGzip() {
+        // When
+        var result = mvc.perform(get(getEndpointUrl(BASE_PATH_V1_BOOK_EXPORT)).header(ACCEPT_ENCODING, "gzip;q=0, *;q=0.5"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        var response = mvc.perform(asyncDispatch(result));
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(header().doesNotExist(CONTENT_ENCODING))
+            .andExpect(header().string(VARY, ACCEPT_ENCODING));
+        response.andReturn().getResponse().getContentAsString().lines().forEach(line -> assertThat(line).startsWith("{"));
+    }
+}
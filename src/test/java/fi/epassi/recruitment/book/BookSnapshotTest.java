@@ -0,0 +1,112 @@
+package fi.epassi.recruitment.book;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import fi.epassi.recruitment.CommittedDataIntegrationTest;
+import fi.epassi.recruitment.exception.BookNotFoundException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// The snapshot follows committed writes, so the test data is committed too. The own context needs its own full-text index and sales
+// journal, the shared ones are locked.
+@TestPropertySource(properties = {
+    "books.snapshot.enabled=true",
+    "books.snapshot.refresh-interval=100ms",
+    "full-text.index-path=./db/full-text-index-snapshot-test",
+    "sales.journal-path=./db/sales-journal-snapshot-test"
+})
+class BookSnapshotTest extends CommittedDataIntegrationTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookSnapshot bookSnapshot;
+
+    @Autowired
+    private BookChangeService bookChangeService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void shouldFollowWritesOfBook() {
+        // Given
+        var isbn = createBook("The Hobbit", "Snapshot Tolkien", "10.00").isbn();
+        assertThat(bookSnapshot.get(isbn)).isEqualTo(bookRepository.findBookDtoByIsbn(isbn));
+
+        // When
+        bookService.updateBook(book(isbn, "The Hobbit", "12.50"));
+
+        // Then
+        assertThat(bookSnapshot.isServing()).isTrue();
+        assertThat(bookSnapshot.get(isbn)).isEqualTo(bookRepository.findBookDtoByIsbn(isbn));
+        assertThat(bookService.getBookByIsbn(isbn).price()).isEqualByComparingTo("12.50");
+
+        // When
+        bookService.deleteBookWithIsbn(isbn);
+
+        // Then
+        assertThat(bookSnapshot.get(isbn)).isEmpty();
+        assertThatThrownBy(() -> bookService.getBookByIsbn(isbn)).isInstanceOf(BookNotFoundException.class);
+    }
+
+    @Test
+    void shouldFollowBulkWrites() {
+        // Given
+        var isbns = IntStream.range(0, 5).mapToObj(index -> newIsbn()).toList();
+        var items = IntStream.range(0, isbns.size())
+            .mapToObj(index -> BookBulkItem.of(index, book(isbns.get(index), "Unfinished Tales " + index, "20.00")))
+            .iterator();
+
+        // When
+        bookService.createBooks(items, false);
+
+        // Then
+        assertThat(isbns).allSatisfy(isbn -> assertThat(bookSnapshot.get(isbn)).isEqualTo(bookRepository.findBookDtoByIsbn(isbn)));
+
+        // When
+        bookService.deleteBooks(isbns);
+
+        // Then
+        assertThat(isbns).allSatisfy(isbn -> assertThat(bookSnapshot.get(isbn)).isEmpty());
+    }
+
+    @Test
+    void shouldFollowWritesOfOtherInstances() {
+        // Given a book written by another instance, which records the change without notifying this one
+        var isbn = newIsbn();
+        transactionTemplate.executeWithoutResult(status -> {
+            bookRepository.saveAndFlush(BookModel.builder().isbn(isbn).title("The Fall of Gondolin").author("Snapshot Tolkien")
+                .price(BigDecimal.TEN).build());
+            bookChangeService.record(BookChangeType.CREATED, List.of(isbn));
+        });
+
+        // Then
+        await().atMost(Duration.ofSeconds(10))
+            .untilAsserted(() -> assertThat(bookSnapshot.get(isbn)).isEqualTo(bookRepository.findBookDtoByIsbn(isbn)));
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            bookRepository.deleteById(isbn);
+            bookChangeService.record(BookChangeType.DELETED, List.of(isbn));
+        });
+
+        // Then
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(bookSnapshot.get(isbn)).isEmpty());
+        assertThat(bookSnapshot.isServing()).isTrue();
+    }
+
+    private static BookDto book(UUID isbn, String title, String price) {
+        return book(isbn, title, "Snapshot Tolkien", price);
+    }
+}
@@ -0,0 +1,69 @@
+package fi.epassi.recruitment.book;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class BookTableTest {
+
+    @Test
+    void shouldReturnBookAsPut() {
+        // Given
+        var table = new BookTable(16);
+        var book = new BookDto(UUID.randomUUID(), "Bilbo Reppuli", "J.R.R Tolkien", new BigDecimal("15.50"), 3L,
+            Instant.parse("2024-01-21T10:15:30.123456Z"));
+        var unversioned = new BookDto(UUID.randomUUID(), "The Hobbit", "J.R.R Tolkien", BigDecimal.TEN.setScale(2), null, null);
+
+        // When
+        table.putAll(List.of(book, unversioned));
+
+        // Then
+        assertThat(table.get(book.isbn())).contains(book);
+        assertThat(table.get(unversioned.isbn())).contains(unversioned);
+        assertThat(table.get(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void shouldKeepBooksFindableThroughGrowthReplacementsAndRemovals() {
+        // Given a table sized far below the books written to it
+        var table = new BookTable(16);
+        var expected = new HashMap<UUID, BookDto>();
+        var isbns = new ArrayList<UUID>();
+        var random = new Random(42);
+
+        // When
+        for (var operation = 0; operation < 20_000; operation++) {
+            var choice = random.nextInt(10);
+            if (choice < 5 || isbns.isEmpty()) {
+                var book = book(UUID.randomUUID(), operation);
+                isbns.add(book.isbn());
+                expected.put(book.isbn(), book);
+                table.putAll(List.of(book));
+            } else if (choice < 8) {
+                var book = book(isbns.get(random.nextInt(isbns.size())), operation);
+                expected.put(book.isbn(), book);
+                table.putAll(List.of(book));
+            } else {
+                var isbn = isbns.remove(random.nextInt(isbns.size()));
+                expected.remove(isbn);
+                table.removeAll(List.of(isbn));
+            }
+        }
+
+        // Then
+        assertThat(table.size()).isEqualTo(expected.size());
+        expected.forEach((isbn, book) -> assertThat(table.get(isbn)).contains(book));
+    }
+
+    private static BookDto book(UUID isbn, int operation) {
+        return new BookDto(isbn, "Title ä " + operation, "Author " + operation % 100, BigDecimal.valueOf(operation, 2), (long) operation,
+            Instant.ofEpochSecond(1_700_000_000L + operation, operation));
+    }
+}
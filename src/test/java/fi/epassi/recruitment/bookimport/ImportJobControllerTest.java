@@ -0,0 +1,204 @@
+package fi.epassi.recruitment.bookimport;
+
+import static fi.epassi.recruitment.bookimport.ImportJobController.TEXT_CSV_VALUE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import fi.epassi.recruitment.CommittedDataIntegrationTest;
+import fi.epassi.recruitment.book.BookDto;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.ResultActions;
+
+// Imports run and commit on their own workers, so the test data is committed too, the jobs are removed after all tests
+class ImportJobControllerTest extends CommittedDataIntegrationTest {
+
+    private static final String BASE_PATH_V1_IMPORTS = "/api/v1/books/imports";
+    private static final String BASE_PATH_V1_IMPORT = BASE_PATH_V1_IMPORTS + "/{id}";
+    private static final String BASE_PATH_V1_IMPORT_RESUME = BASE_PATH_V1_IMPORT + "/resume";
+    private static final String CSV_HEADER = "isbn,title,author,price\n";
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    private final Queue<UUID> jobIds = new ConcurrentLinkedQueue<>();
+
+    @AfterAll
+    @SneakyThrows
+    void removeJobs() {
+        importJobRepository.deleteAllByIdInBatch(jobIds);
+        for (var jobId : jobIds) {
+            Files.deleteIfExists(importJobService.uploadPath(jobId));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldImportCsvAndReportRowsThatWereNotApplied() {
+        // Given
+        var first = newIsbn();
+        var second = newIsbn();
+        var csv = CSV_HEADER
+            + first + ",\"There and Back Again, a Hobbit's Tale\",J.R.R Tolkien,15.50\n"
+            + second + ",The Silmarillion,J.R.R Tolkien,20.00\n"
+            + newIsbn() + ",,J.R.R Tolkien,10.00\n"
+            + "not-an-isbn,Unfinished Tales,J.R.R Tolkien,10.00\n";
+
+        // When
+        var response = mvc.perform(post(getEndpointUrl(BASE_PATH_V1_IMPORTS)).contentType(TEXT_CSV_VALUE).content(csv));
+
+        // Then
+        awaitJob(response, ImportJobStatus.COMPLETED)
+            .andExpect(jsonPath("$.response.committed_rows", is(4)))
+            .andExpect(jsonPath("$.response.processed", is(4)))
+            .andExpect(jsonPath("$.response.succeeded", is(2)))
+            .andExpect(jsonPath("$.response.failed", is(2)))
+            .andExpect(jsonPath("$.response.errors", hasSize(2)))
+            .andExpect(jsonPath("$.response.errors[0].index", is(2)))
+            .andExpect(jsonPath("$.response.errors[0].status", is("INVALID")))
+            .andExpect(jsonPath("$.response.errors[0].message", is("title must not be blank")))
+            .andExpect(jsonPath("$.response.errors[1].index", is(3)))
+            .andExpect(jsonPath("$.response.errors[1].message", is("Invalid isbn {not-an-isbn}")));
+        assertThat(bookService.getBooksByIsbns(List.of(first, second)))
+            .extracting(BookDto::title)
+            .containsExactly("There and Back Again, a Hobbit's Tale", "The Silmarillion");
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldUpdateBooksFromNdjson() {
+        // Given
+        var isbn = newIsbn();
+        var book = BookDto.builder().isbn(isbn).title("The Two Towers").author("J.R.R Tolkien").price(BigDecimal.TEN).build();
+        awaitJob(mvc.perform(post(getEndpointUrl(BASE_PATH_V1_IMPORTS)).contentType(APPLICATION_NDJSON).content(toNdjson(book))),
+            ImportJobStatus.COMPLETED);
+        var updated = BookDto.builder().isbn(isbn).title("The Two Towers").author("J.R.R Tolkien").price(new BigDecimal("12.00")).build();
+        var missing = BookDto.builder().isbn(UUID.randomUUID()).title("The Hobbit").author("J.R.R Tolkien").price(BigDecimal.TEN).build();
+
+        // When
+        var response = mvc.perform(post(getEndpointUrl(BASE_PATH_V1_IMPORTS)).queryParam("mode", "UPDATE")
+            .contentType(APPLICATION_NDJSON).content(toNdjson(updated) + toNdjson(missing)));
+
+        // Then
+        awaitJob(response, ImportJobStatus.COMPLETED)
+            .andExpect(jsonPath("$.response.mode", is("UPDATE")))
+            .andExpect(jsonPath("$.response.succeeded", is(1)))
+            .andExpect(jsonPath("$.response.errors", hasSize(1)))
+            .andExpect(jsonPath("$.response.errors[0].isbn", is(missing.isbn().toString())))
+            .andExpect(jsonPath("$.response.errors[0].status", is("NOT_FOUND")));
+        assertThat(bookService.getBookByIsbn(isbn).price()).isEqualByComparingTo("12.00");
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldResumeFailedJobAfterLastCommittedChunk() {
+        // Given a job that failed after committing the first row of its upload
+        var committed = newIsbn();
+        var remaining = List.of(newIsbn(), newIsbn());
+        var job = saveJob(ImportJobStatus.FAILED, 1, Instant.now());
+        Files.writeString(importJobService.uploadPath(job.getId()), CSV_HEADER
+            + committed + ",The Hobbit,J.R.R Tolkien,10.00\n"
+            + remaining.get(0) + ",The Fellowship of the Ring,J.R.R Tolkien,10.00\n"
+            + remaining.get(1) + ",The Return of the King,J.R.R Tolkien,10.00\n", UTF_8);
+
+        // When
+        var response = mvc.perform(post(getEndpointUrl(BASE_PATH_V1_IMPORT_RESUME), job.getId()).contentType(APPLICATION_JSON));
+
+        // Then
+        awaitJob(response, ImportJobStatus.COMPLETED)
+            .andExpect(jsonPath("$.response.committed_rows", is(3)))
+            .andExpect(jsonPath("$.response.processed", is(2)));
+        assertThat(bookService.getBooksByIsbns(List.of(committed, remaining.get(0), remaining.get(1))))
+            .extracting(BookDto::isbn)
+            .containsExactlyElementsOf(remaining);
+        assertThat(importJobService.uploadPath(job.getId())).doesNotExist();
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithConflictWhenResumingRunningJob() {
+        // Given a job that made progress just now
+        var job = saveJob(ImportJobStatus.RUNNING, 0, Instant.now());
+        Files.writeString(importJobService.uploadPath(job.getId()), CSV_HEADER, UTF_8);
+
+        // When
+        var response = mvc.perform(post(getEndpointUrl(BASE_PATH_V1_IMPORT_RESUME), job.getId()).contentType(APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(CONFLICT.value())));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithConflictWhenResumingJobWaitingForWorker() {
+        // Given a job that has been waiting for a worker longer than a running job may go without progress
+        var job = saveJob(ImportJobStatus.QUEUED, 0, Instant.now().minus(Duration.ofHours(1)));
+        Files.writeString(importJobService.uploadPath(job.getId()), CSV_HEADER, UTF_8);
+
+        // When
+        var response = mvc.perform(post(getEndpointUrl(BASE_PATH_V1_IMPORT_RESUME), job.getId()).contentType(APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(CONFLICT.value())));
+    }
+
+    /**
+     * Polls the status of the job of the import or resume response until it reaches the given status.
+     */
+    @SneakyThrows
+    private ResultActions awaitJob(ResultActions response, ImportJobStatus expected) {
+        response.andExpect(status().is2xxSuccessful());
+        String id = JsonPath.read(response.andReturn().getResponse().getContentAsString(), "$.response.id");
+        jobIds.add(UUID.fromString(id));
+        var request = get(getEndpointUrl(BASE_PATH_V1_IMPORT), id).contentType(APPLICATION_JSON);
+        await().atMost(Duration.ofSeconds(30)).until(() -> JsonPath.read(
+            mvc.perform(request).andReturn().getResponse().getContentAsString(), "$.response.status").equals(expected.name()));
+        return mvc.perform(request).andExpect(jsonPath("$.response.status", is(expected.name())));
+    }
+
+    @SneakyThrows
+    private ImportJobModel saveJob(ImportJobStatus status, int committedRows, Instant updatedAt) {
+        var job = importJobRepository.save(ImportJobModel.builder()
+            .format(ImportFormat.CSV)
+            .mode(ImportMode.CREATE)
+            .status(status)
+            .committedRows(committedRows)
+            .createdAt(updatedAt)
+            .updatedAt(updatedAt)
+            .build());
+        jobIds.add(job.getId());
+        Files.createDirectories(importJobService.uploadPath(job.getId()).getParent());
+        return job;
+    }
+
+    @SneakyThrows
+    private String toNdjson(BookDto book) {
+        return mapper.writeValueAsString(book) + "\n";
+    }
+}
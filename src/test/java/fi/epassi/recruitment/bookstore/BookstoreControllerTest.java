@@ -0,0 +1,173 @@
+package fi.epassi.recruitment.bookstore;
+
+import static java.math.BigDecimal.TEN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import fi.epassi.recruitment.BaseIntegrationTest;
+import fi.epassi.recruitment.book.BookModel;
+import fi.epassi.recruitment.book.BookRepository;
+import fi.epassi.recruitment.inventory.InventoryChangeDto;
+import java.util.UUID;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.ResultActions;
+
+class BookstoreControllerTest extends BaseIntegrationTest {
+
+    private static final String BASE_PATH_V1_BOOKSTORE = "/api/v1/bookstores";
+    private static final String BASE_PATH_V1_BOOKSTORE_BOOKS = BASE_PATH_V1_BOOKSTORE + "/{storeId}/books";
+    private static final String BASE_PATH_V1_BOOKSTORE_STOCK = BASE_PATH_V1_BOOKSTORE + "/{storeId}/stock/{isbn}";
+    private static final String BASE_PATH_V1_BOOKSTORE_STOCK_INCREMENT = BASE_PATH_V1_BOOKSTORE_STOCK + "/increment";
+    private static final String BASE_PATH_V1_BOOKSTORE_STOCK_DECREMENT = BASE_PATH_V1_BOOKSTORE_STOCK + "/decrement";
+    private static final String BASE_PATH_V1_INVENTORY_BY_ISBN = "/api/v1/inventory/{isbn}";
+
+    // Every test stocks its own books in its own stores, so parallel tests never wait for each other's row locks
+    private static final String AUTHOR = "Bookstore Tolkien";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookstoreRepository bookstoreRepository;
+
+    @Test
+    @SneakyThrows
+    void shouldCreateBookstore() {
+        // Given
+        var bookstoreJson = mapper.writeValueAsString(new BookstoreDto(null, "Helsinki " + UUID.randomUUID()));
+
+        // When
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOKSTORE);
+        var response = mvc.perform(post(requestUrl).contentType(APPLICATION_JSON).content(bookstoreJson));
+
+        // Then
+        response.andExpect(status().is2xxSuccessful());
+        var id = UUID.fromString(mapper.readTree(response.andReturn().getResponse().getContentAsString()).get("response").asText());
+        assertThat(bookstoreRepository.findById(id)).isPresent();
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithConflictWhenCreatingBookstoreWithExistingName() {
+        // Given
+        var name = bookstoreRepository.save(BookstoreModel.builder().name("Tampere " + UUID.randomUUID()).build()).getName();
+        var bookstoreJson = mapper.writeValueAsString(new BookstoreDto(null, name));
+
+        // When
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOKSTORE);
+        var response = mvc.perform(post(requestUrl).contentType(APPLICATION_JSON).content(bookstoreJson));
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(CONFLICT.value())));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldKeepStockPerStoreAndRollItUpPerBook() {
+        // Given
+        var beren = saveBook("Beren and Luthien");
+        var turku = saveBookstore("Turku");
+        var online = saveBookstore("Online");
+        changeCopies(BASE_PATH_V1_BOOKSTORE_STOCK_INCREMENT, turku, beren.getIsbn(), 3);
+        changeCopies(BASE_PATH_V1_BOOKSTORE_STOCK_INCREMENT, online, beren.getIsbn(), 10);
+        changeCopies(BASE_PATH_V1_BOOKSTORE_STOCK_DECREMENT, online, beren.getIsbn(), 4);
+
+        // When
+        var storeStock = mvc.perform(get(getEndpointUrl(BASE_PATH_V1_BOOKSTORE_STOCK), turku, beren.getIsbn())
+            .contentType(APPLICATION_JSON));
+        var totalStock = mvc.perform(get(getEndpointUrl(BASE_PATH_V1_INVENTORY_BY_ISBN), beren.getIsbn())
+            .contentType(APPLICATION_JSON));
+
+        // Then
+        storeStock.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response.copies", is(3)));
+        totalStock.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response.copies", is(9)));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithConflictWhenTakingMoreCopiesThanInStore() {
+        // Given
+        var beren = saveBook("Beren and Luthien");
+        var turku = saveBookstore("Turku");
+        var online = saveBookstore("Online");
+        changeCopies(BASE_PATH_V1_BOOKSTORE_STOCK_INCREMENT, online, beren.getIsbn(), 10);
+
+        // When
+        var response = changeCopies(BASE_PATH_V1_BOOKSTORE_STOCK_DECREMENT, turku, beren.getIsbn(), 1);
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(CONFLICT.value())));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithNotFoundWhenStockingInNonExistingStore() {
+        // Given
+        var beren = saveBook("Beren and Luthien");
+
+        // When
+        var response = changeCopies(BASE_PATH_V1_BOOKSTORE_STOCK_INCREMENT, UUID.randomUUID(), beren.getIsbn(), 1);
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(NOT_FOUND.value())))
+            .andExpect(jsonPath("$.title", is("Not Found")));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithBooksAndTheirAvailabilityInStore() {
+        // Given
+        var author = AUTHOR + " " + UUID.randomUUID();
+        var beren = bookRepository.save(book("Beren and Luthien", author));
+        var gondolin = bookRepository.save(book("The Fall of Gondolin", author));
+        var turku = saveBookstore("Turku");
+        changeCopies(BASE_PATH_V1_BOOKSTORE_STOCK_INCREMENT, turku, gondolin.getIsbn(), 2);
+
+        // When
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_BOOKSTORE_BOOKS);
+        var request = get(requestUrl, turku).queryParam("author", author).contentType(APPLICATION_JSON);
+        var response = mvc.perform(request);
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response", hasSize(2)))
+            .andExpect(jsonPath("$.response[0].title", is(beren.getTitle())))
+            .andExpect(jsonPath("$.response[0].copies", is(0)))
+            .andExpect(jsonPath("$.response[1].isbn", is(gondolin.getIsbn().toString())))
+            .andExpect(jsonPath("$.response[1].copies", is(2)));
+    }
+
+    private BookModel saveBook(String title) {
+        return bookRepository.save(book(title, AUTHOR));
+    }
+
+    private UUID saveBookstore(String name) {
+        return bookstoreRepository.save(BookstoreModel.builder().name(name + " " + UUID.randomUUID()).build()).getId();
+    }
+
+    private static BookModel book(String title, String author) {
+        return BookModel.builder().isbn(UUID.randomUUID()).title(title).author(author).price(TEN).build();
+    }
+
+    @SneakyThrows
+    private ResultActions changeCopies(String path, UUID storeId, UUID isbn, int copies) {
+        var requestUrl = getEndpointUrl(path);
+        var body = mapper.writeValueAsString(new InventoryChangeDto(copies));
+        return mvc.perform(post(requestUrl, storeId, isbn).contentType(APPLICATION_JSON).content(body));
+    }
+}
@@ -0,0 +1,80 @@
+package fi.epassi.recruitment.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import fi.epassi.recruitment.CommittedDataIntegrationTest;
+import fi.epassi.recruitment.book.BookSearchCriteria;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Every connection tells which pool it comes from. The own context needs its own full-text index and sales journal, the shared ones are
+// locked.
+@TestPropertySource(properties = {
+    "spring.datasource.hikari.connection-init-sql=SET @pool = 'write'",
+    "datasource.read.hikari.connection-init-sql=SET @pool = 'read'",
+    "full-text.index-path=./db/full-text-index-routing-test",
+    "sales.journal-path=./db/sales-journal-routing-test"
+})
+class DataSourceRoutingTest extends CommittedDataIntegrationTest {
+
+    private static final String POOL_QUERY = "SELECT @pool";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldRunReadOnlyTransactionsOnReadPool() {
+        // Given
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        // When
+        var pool = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(POOL_QUERY, String.class));
+
+        // Then
+        assertThat(pool).isEqualTo("read");
+    }
+
+    @Test
+    void shouldRunReadWriteTransactionsOnWritePool() {
+        // Given
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // When
+        var pool = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(POOL_QUERY, String.class));
+
+        // Then
+        assertThat(pool).isEqualTo("write");
+    }
+
+    @Test
+    void shouldReadBooksThatAreCachedOnWritePool() {
+        // Given
+        var author = "Routing Tolkien " + UUID.randomUUID();
+        var isbn = createBook("The Lays of Beleriand", author, "10.00").isbn();
+        var readConnections = connectionsUsed("books-read");
+
+        // When
+        bookService.getBookByIsbn(isbn);
+        bookService.getBooks(new BookSearchCriteria(author, null, null, null), null, 10);
+
+        // Then
+        assertThat(connectionsUsed("books-read")).isEqualTo(readConnections);
+    }
+
+    private long connectionsUsed(String pool) {
+        return meterRegistry.get("hikaricp.connections.usage").tag("pool", pool).timer().count();
+    }
+}
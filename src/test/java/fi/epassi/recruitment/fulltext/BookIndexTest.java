@@ -0,0 +1,151 @@
+package fi.epassi.recruitment.fulltext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import fi.epassi.recruitment.book.BookDto;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BookIndexTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @SneakyThrows
+    void shouldKeepIndexWhenRebuildFails() {
+        // Given
+        var properties = new FullTextProperties(directory.resolve("full-text-index"), 10_000, Duration.ofHours(1), Duration.ofSeconds(1));
+        var indexed = book("Silmarillion");
+        var partlyRebuilt = book("Unfinished");
+        var indexedLater = book("Beleriand");
+        try (var bookIndex = new BookIndex(properties)) {
+            bookIndex.apply(List.of(indexed), List.of(), 1);
+
+            // When the source fails after handing over a book
+            assertThatThrownBy(() -> bookIndex.rebuild(consumer -> {
+                consumer.accept(partlyRebuilt);
+                throw new IllegalStateException("Source failed");
+            }, 5)).isInstanceOf(IllegalStateException.class);
+            bookIndex.apply(List.of(indexedLater), List.of(), 2);
+
+            // Then
+            assertThat(bookIndex.search("Silmarillion", 0, 10)).containsExactly(indexed.isbn());
+            assertThat(bookIndex.search("Unfinished", 0, 10)).isEmpty();
+        }
+
+        // Then the changes committed when the index was closed do not include the failed rebuild either
+        try (var bookIndex = new BookIndex(properties)) {
+            assertThat(bookIndex.sequence()).hasValue(2);
+            assertThat(bookIndex.search("Silmarillion", 0, 10)).containsExactly(indexed.isbn());
+            assertThat(bookIndex.search("Beleriand", 0, 10)).containsExactly(indexedLater.isbn());
+            assertThat(bookIndex.search("Unfinished", 0, 10)).isEmpty();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldApplyChangesMadeDuringRebuildToRebuiltIndex() {
+        // Given
+        var properties = new FullTextProperties(directory.resolve("full-text-index"), 10_000, Duration.ofHours(1), Duration.ofSeconds(1));
+        var removed = book("Silmarillion");
+        var rebuilt = book("Hobbit");
+        var indexedMeanwhile = book("Beleriand");
+        try (var bookIndex = new BookIndex(properties)) {
+            bookIndex.apply(List.of(removed), List.of(), 1);
+
+            // When a book is written while the source is read
+            var count = bookIndex.rebuild(consumer -> {
+                consumer.accept(rebuilt);
+                try {
+                    bookIndex.apply(List.of(indexedMeanwhile), List.of(), 3);
+                    assertThat(bookIndex.search("Hobbit", 0, 10)).isEmpty();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, 2);
+
+            // Then the index stays at the change applied after the sequence the rebuild read
+            assertThat(count).isEqualTo(1);
+            assertThat(bookIndex.sequence()).hasValue(3);
+            assertThat(bookIndex.search("Silmarillion", 0, 10)).isEmpty();
+            assertThat(bookIndex.search("Hobbit", 0, 10)).containsExactly(rebuilt.isbn());
+            assertThat(bookIndex.search("Beleriand", 0, 10)).containsExactly(indexedMeanwhile.isbn());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldKeepChangesMadeDuringRebuildOverBooksReadBefore() {
+        // Given
+        var properties = new FullTextProperties(directory.resolve("full-text-index"), 10_000, Duration.ofHours(1), Duration.ofSeconds(1));
+        var deleted = book("Silmarillion");
+        var updated = book("Hobbit");
+        try (var bookIndex = new BookIndex(properties)) {
+            bookIndex.apply(List.of(deleted, updated), List.of(), 2);
+
+            // When the source hands over books as it read them before they were deleted and updated
+            bookIndex.rebuild(consumer -> {
+                try {
+                    bookIndex.apply(List.of(new BookDto(updated.isbn(), "Unfinished Tales", updated.author(), BigDecimal.TEN, null, null)),
+                        List.of(deleted.isbn()), 4);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                consumer.accept(deleted);
+                consumer.accept(updated);
+            }, 2);
+
+            // Then
+            assertThat(bookIndex.search("Silmarillion", 0, 10)).isEmpty();
+            assertThat(bookIndex.search("Hobbit", 0, 10)).isEmpty();
+            assertThat(bookIndex.search("Unfinished", 0, 10)).containsExactly(updated.isbn());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReplaceBooksOfPreviousRebuild() {
+        // Given
+        var properties = new FullTextProperties(directory.resolve("full-text-index"), 10_000, Duration.ofHours(1), Duration.ofSeconds(1));
+        var removed = book("Silmarillion");
+        var kept = book("Hobbit");
+        var added = book("Beleriand");
+        try (var bookIndex = new BookIndex(properties)) {
+            bookIndex.rebuild(consumer -> {
+                consumer.accept(removed);
+                consumer.accept(kept);
+            }, 1);
+
+            // When
+            var count = bookIndex.rebuild(consumer -> {
+                consumer.accept(kept);
+                consumer.accept(added);
+            }, 2);
+
+            // Then
+            assertThat(count).isEqualTo(2);
+            assertThat(bookIndex.search("Silmarillion", 0, 10)).isEmpty();
+            assertThat(bookIndex.search("Hobbit", 0, 10)).containsExactly(kept.isbn());
+            assertThat(bookIndex.search("Beleriand", 0, 10)).containsExactly(added.isbn());
+        }
+
+        // Then the replaced books are not committed either
+        try (var bookIndex = new BookIndex(properties)) {
+            assertThat(bookIndex.sequence()).hasValue(2);
+            assertThat(bookIndex.search("Silmarillion", 0, 10)).isEmpty();
+            assertThat(bookIndex.search("Hobbit", 0, 10)).containsExactly(kept.isbn());
+        }
+    }
+
+    private static BookDto book(String title) {
+        return new BookDto(UUID.randomUUID(), title, "J.R.R Tolkien", BigDecimal.TEN, null, null);
+    }
+}
@@ -0,0 +1,119 @@
+package fi.epassi.recruitment.fulltext;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import fi.epassi.recruitment.CommittedDataIntegrationTest;
+import fi.epassi.recruitment.book.BookDto;
+import lombok.SneakyThrows;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+
+// The index follows committed writes, so the test data is committed too
+class FullTextControllerTest extends CommittedDataIntegrationTest {
+
+    private static final String BASE_PATH_V1_BOOK = "/api/v1/books";
+    private static final String BASE_PATH_V1_FULL_TEXT = BASE_PATH_V1_BOOK + "/full-text";
+    private static final String QUERY = "query";
+    private static final String CURSOR = "cursor";
+    private static final String LIMIT = "limit";
+
+    @Test
+    @SneakyThrows
+    void shouldFindBookByPartialAndMisspelledWords() {
+        // Given a book whose title and author are made of words no other book has
+        var titleWord = randomWord();
+        var authorWord = randomWord();
+        var book = postBook("The " + titleWord + " Chronicles", authorWord + " Tolkien");
+
+        // When searching for the start of the title word and the author word with a typo
+        var query = titleWord.substring(0, 6) + " " + misspell(authorWord);
+        var response = mvc.perform(get(getEndpointUrl(BASE_PATH_V1_FULL_TEXT)).queryParam(QUERY, query).contentType(APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response", hasSize(1)))
+            .andExpect(jsonPath("$.response[0].isbn", is(book.isbn().toString())))
+            .andExpect(jsonPath("$.response[0].title", is(book.title())));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRankExactMatchesFirstAndPageThroughRanking() {
+        // Given one book with the exact word and one with a misspelling of it
+        var word = randomWord();
+        var misspelled = postBook("The " + misspell(word), "J.R.R Tolkien");
+        var exact = postBook("The " + word, "J.R.R Tolkien");
+
+        // When
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_FULL_TEXT);
+        var firstPage = mvc.perform(get(requestUrl).queryParam(QUERY, word).queryParam(LIMIT, "1").contentType(APPLICATION_JSON));
+        firstPage.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response", hasSize(1)))
+            .andExpect(jsonPath("$.response[0].isbn", is(exact.isbn().toString())))
+            .andExpect(jsonPath("$.next_cursor", is(notNullValue())));
+        String nextCursor = JsonPath.read(firstPage.andReturn().getResponse().getContentAsString(), "$.next_cursor");
+        var secondPage = mvc.perform(get(requestUrl).queryParam(QUERY, word).queryParam(LIMIT, "1").queryParam(CURSOR, nextCursor)
+            .contentType(APPLICATION_JSON));
+
+        // Then
+        secondPage.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response", hasSize(1)))
+            .andExpect(jsonPath("$.response[0].isbn", is(misspelled.isbn().toString())));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotFindDeletedBook() {
+        // Given
+        var word = randomWord();
+        var book = postBook("The " + word, "J.R.R Tolkien");
+
+        // When
+        mvc.perform(delete(getEndpointUrl(BASE_PATH_V1_BOOK + "/{isbn}"), book.isbn()).contentType(APPLICATION_JSON))
+            .andExpect(status().is2xxSuccessful());
+        var response = mvc.perform(get(getEndpointUrl(BASE_PATH_V1_FULL_TEXT)).queryParam(QUERY, word).contentType(APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response", is(empty())));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithBadRequestWhenQueryIsBlank() {
+        // When
+        var response = mvc.perform(get(getEndpointUrl(BASE_PATH_V1_FULL_TEXT)).queryParam(QUERY, " ").contentType(APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(BAD_REQUEST.value())));
+    }
+
+    @SneakyThrows
+    private BookDto postBook(String title, String author) {
+        var book = book(newIsbn(), title, author, "10");
+        mvc.perform(post(getEndpointUrl(BASE_PATH_V1_BOOK)).contentType(APPLICATION_JSON).content(mapper.writeValueAsString(book)))
+            .andExpect(status().is2xxSuccessful());
+        return book;
+    }
+
+    private static String randomWord() {
+        return RandomStringUtils.randomAlphabetic(12).toLowerCase();
+    }
+
+    private static String misspell(String word) {
+        var typo = word.charAt(6) == 'x' ? 'y' : 'x';
+        return word.substring(0, 6) + typo + word.substring(7);
+    }
+}
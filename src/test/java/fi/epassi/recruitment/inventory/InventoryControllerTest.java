@@ -0,0 +1,143 @@
+package fi.epassi.recruitment.inventory;
+
+import static java.math.BigDecimal.TEN;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import fi.epassi.recruitment.BaseIntegrationTest;
+import fi.epassi.recruitment.book.BookModel;
+import fi.epassi.recruitment.book.BookRepository;
+import java.util.UUID;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.ResultActions;
+
+class InventoryControllerTest extends BaseIntegrationTest {
+
+    private static final String BASE_PATH_V1_INVENTORY = "/api/v1/inventory";
+    private static final String BASE_PATH_V1_INVENTORY_BY_ISBN = BASE_PATH_V1_INVENTORY + "/{isbn}";
+    private static final String BASE_PATH_V1_INVENTORY_INCREMENT = BASE_PATH_V1_INVENTORY_BY_ISBN + "/increment";
+    private static final String BASE_PATH_V1_INVENTORY_DECREMENT = BASE_PATH_V1_INVENTORY_BY_ISBN + "/decrement";
+    private static final String BASE_PATH_V1_INVENTORY_COPIES = BASE_PATH_V1_INVENTORY + "/copies";
+
+    // Every test stocks its own books, so parallel tests never wait for each other's row locks
+    private static final String AUTHOR = "Inventory Tolkien";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithNoCopiesForBookNeverStocked() {
+        // Given
+        var silmarillion = bookRepository.save(book("The Silmarillion", AUTHOR));
+
+        // When
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_INVENTORY_BY_ISBN);
+        var request = get(requestUrl, silmarillion.getIsbn()).contentType(APPLICATION_JSON);
+        var response = mvc.perform(request);
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response.isbn", is(silmarillion.getIsbn().toString())))
+            .andExpect(jsonPath("$.response.copies", is(0)));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldAddAndTakeCopies() {
+        // Given
+        var silmarillion = bookRepository.save(book("The Silmarillion", AUTHOR));
+        changeCopies(BASE_PATH_V1_INVENTORY_INCREMENT, silmarillion.getIsbn(), 5);
+        changeCopies(BASE_PATH_V1_INVENTORY_INCREMENT, silmarillion.getIsbn(), 3);
+
+        // When
+        var response = changeCopies(BASE_PATH_V1_INVENTORY_DECREMENT, silmarillion.getIsbn(), 2);
+
+        // Then
+        response.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response.copies", is(6)));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithConflictWhenTakingMoreCopiesThanInStock() {
+        // Given
+        var silmarillion = bookRepository.save(book("The Silmarillion", AUTHOR));
+        changeCopies(BASE_PATH_V1_INVENTORY_INCREMENT, silmarillion.getIsbn(), 1);
+
+        // When
+        var response = changeCopies(BASE_PATH_V1_INVENTORY_DECREMENT, silmarillion.getIsbn(), 2);
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(CONFLICT.value())));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithNotFoundWhenStockingNonExistingBook() {
+        // When
+        var response = changeCopies(BASE_PATH_V1_INVENTORY_INCREMENT, UUID.randomUUID(), 1);
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(NOT_FOUND.value())));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithBadRequestWhenChangingByNoCopies() {
+        // Given
+        var silmarillion = bookRepository.save(book("The Silmarillion", AUTHOR));
+
+        // When
+        var response = changeCopies(BASE_PATH_V1_INVENTORY_DECREMENT, silmarillion.getIsbn(), 0);
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(BAD_REQUEST.name())))
+            .andExpect(jsonPath("$.violations[0].field", is("copies")));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldCountCopiesByAuthorAndTitle() {
+        // Given
+        var author = AUTHOR + " " + UUID.randomUUID();
+        var silmarillion = bookRepository.save(book("The Silmarillion", author));
+        var unfinishedTales = bookRepository.save(book("Unfinished Tales " + UUID.randomUUID(), author));
+        changeCopies(BASE_PATH_V1_INVENTORY_INCREMENT, silmarillion.getIsbn(), 4);
+        changeCopies(BASE_PATH_V1_INVENTORY_INCREMENT, unfinishedTales.getIsbn(), 7);
+
+        // When
+        var requestUrl = getEndpointUrl(BASE_PATH_V1_INVENTORY_COPIES);
+        var byAuthor = mvc.perform(get(requestUrl).queryParam("author", author).contentType(APPLICATION_JSON));
+        var byTitle = mvc.perform(get(requestUrl).queryParam("title", unfinishedTales.getTitle()).contentType(APPLICATION_JSON));
+
+        // Then
+        byAuthor.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response", is(11)));
+        byTitle.andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.response", is(7)));
+    }
+
+    private static BookModel book(String title, String author) {
+        return BookModel.builder().isbn(UUID.randomUUID()).title(title).author(author).price(TEN).build();
+    }
+
+    @SneakyThrows
+    private ResultActions changeCopies(String path, UUID isbn, int copies) {
+        var requestUrl = getEndpointUrl(path);
+        var body = mapper.writeValueAsString(new InventoryChangeDto(copies));
+        return mvc.perform(post(requestUrl, isbn).contentType(APPLICATION_JSON).content(body));
+    }
+}
@@ -0,0 +1,94 @@
+package fi.epassi.recruitment.sales;
+
+import static fi.epassi.recruitment.inventory.InventoryService.CENTRAL_WAREHOUSE_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import fi.epassi.recruitment.CommittedDataIntegrationTest;
+import fi.epassi.recruitment.inventory.InventoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.UUID;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.ResultActions;
+
+// Sales are committed by the sales pipeline, so the test data is committed too
+class SalesControllerTest extends CommittedDataIntegrationTest {
+
+    private static final String BASE_PATH_V1_SALES = "/api/v1/sales";
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @SneakyThrows
+    void shouldTakeSoldCopiesFromStock() {
+        // Given
+        var isbn = stockedBook(5);
+
+        // When
+        var first = sell(new SaleDto(null, isbn, 2));
+        var second = sell(new SaleDto(CENTRAL_WAREHOUSE_ID, isbn, 1));
+
+        // Then
+        first.andExpect(status().is2xxSuccessful());
+        second.andExpect(status().is2xxSuccessful());
+        awaitCopies(isbn, 2);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldTakeStockDownToZeroWhenSellingMoreCopiesThanInStock() {
+        // Given
+        var isbn = stockedBook(1);
+        var unfulfilled = meterRegistry.counter(SalesPipeline.UNFULFILLED).count();
+
+        // When
+        var response = sell(new SaleDto(null, isbn, 3));
+
+        // Then
+        response.andExpect(status().is2xxSuccessful());
+        awaitCopies(isbn, 0);
+        await().atMost(Duration.ofSeconds(10))
+            .untilAsserted(() -> assertThat(meterRegistry.counter(SalesPipeline.UNFULFILLED).count()).isGreaterThanOrEqualTo(unfulfilled + 2));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithBadRequestForSaleWithoutCopies() {
+        // When
+        var response = sell(new SaleDto(null, UUID.randomUUID(), 0));
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(BAD_REQUEST.name())))
+            .andExpect(jsonPath("$.violations[0].field", is("copies")));
+    }
+
+    private UUID stockedBook(int copies) {
+        var isbn = createBook("The Book of Lost Tales", "Sales Tolkien", "10.00").isbn();
+        inventoryService.addCopies(isbn, copies);
+        return isbn;
+    }
+
+    private void awaitCopies(UUID isbn, long copies) {
+        await().atMost(Duration.ofSeconds(10))
+            .untilAsserted(() -> assertThat(inventoryService.getStoreInventory(CENTRAL_WAREHOUSE_ID, isbn).copies()).isEqualTo(copies));
+    }
+
+    @SneakyThrows
+    private ResultActions sell(SaleDto sale) {
+        return mvc.perform(post(getEndpointUrl(BASE_PATH_V1_SALES)).contentType(APPLICATION_JSON).content(mapper.writeValueAsString(sale)));
+    }
+}
@@ -0,0 +1,138 @@
+package fi.epassi.recruitment.sales;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SalesJournalTest {
+
+    private static final UUID STORE_ID = UUID.randomUUID();
+    private static final UUID ISBN = UUID.randomUUID();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @SneakyThrows
+    void shouldRecoverSalesAfterAppliedSequence() {
+        // Given
+        var path = directory.resolve("sales-journal");
+        try (var journal = new SalesJournal(path)) {
+            journal.recover(0);
+            journal.append(STORE_ID, ISBN, 1);
+            journal.append(STORE_ID, ISBN, 2);
+            var last = journal.append(STORE_ID, ISBN, 3);
+            journal.sync(last.sequence());
+        }
+
+        // When
+        try (var journal = new SalesJournal(path)) {
+            var recovered = journal.recover(1);
+
+            // Then
+            assertThat(recovered).containsExactly(new Sale(2, STORE_ID, ISBN, 2), new Sale(3, STORE_ID, ISBN, 3));
+            assertThat(journal.append(STORE_ID, ISBN, 4).sequence()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldCutOffTornRecord() {
+        // Given a journal whose last record was only partly written
+        var path = directory.resolve("sales-journal");
+        try (var journal = new SalesJournal(path)) {
+            journal.recover(0);
+            journal.append(STORE_ID, ISBN, 1);
+            journal.append(STORE_ID, ISBN, 2);
+        }
+        var segment = SalesJournal.segment(path, 1);
+        Files.write(segment, new byte[SalesJournal.RECORD_SIZE / 2], APPEND);
+
+        // When
+        try (var journal = new SalesJournal(path)) {
+            var recovered = journal.recover(0);
+
+            // Then
+            assertThat(recovered).extracting(Sale::sequence).containsExactly(1L, 2L);
+            assertThat(Files.size(segment)).isEqualTo(2L * SalesJournal.RECORD_SIZE);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldContinueSequenceAfterJournalWasEmptied() {
+        // Given
+        var path = directory.resolve("sales-journal");
+        try (var journal = new SalesJournal(path)) {
+            journal.recover(0);
+            journal.append(STORE_ID, ISBN, 1);
+            journal.append(STORE_ID, ISBN, 2);
+            journal.roll();
+            journal.deleteApplied(2);
+        }
+
+        // When
+        try (var journal = new SalesJournal(path)) {
+            var recovered = journal.recover(2);
+
+            // Then
+            assertThat(recovered).isEmpty();
+            assertThat(SalesJournal.segment(path, 1)).doesNotExist();
+            assertThat(journal.append(STORE_ID, ISBN, 3).sequence()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldDeleteOnlySegmentsWithAllSalesApplied() {
+        // Given segments with the sales 1-2, 3 and 4
+        var path = directory.resolve("sales-journal");
+        try (var journal = new SalesJournal(path)) {
+            journal.recover(0);
+            journal.append(STORE_ID, ISBN, 1);
+            journal.append(STORE_ID, ISBN, 2);
+            journal.roll();
+            journal.append(STORE_ID, ISBN, 3);
+            journal.roll();
+            journal.append(STORE_ID, ISBN, 4);
+
+            // When
+            journal.deleteApplied(2);
+        }
+
+        // Then
+        assertThat(SalesJournal.segment(path, 1)).doesNotExist();
+        assertThat(SalesJournal.segment(path, 3)).exists();
+        try (var journal = new SalesJournal(path)) {
+            assertThat(journal.recover(2)).extracting(Sale::sequence).containsExactly(3L, 4L);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRecoverJournalWrittenBeforeSegments() {
+        // Given
+        var path = directory.resolve("sales-journal");
+        try (var journal = new SalesJournal(path)) {
+            journal.recover(0);
+            journal.append(STORE_ID, ISBN, 1);
+            journal.append(STORE_ID, ISBN, 2);
+        }
+        Files.move(SalesJournal.segment(path, 1), path);
+
+        // When
+        try (var journal = new SalesJournal(path)) {
+            var recovered = journal.recover(1);
+
+            // Then
+            assertThat(recovered).containsExactly(new Sale(2, STORE_ID, ISBN, 2));
+            assertThat(journal.append(STORE_ID, ISBN, 3).sequence()).isEqualTo(3);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package fi.epassi.recruitment.statistics;
+
+import static fi.epassi.recruitment.statistics.StatisticsLeaseRepository.RECONCILIATION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import fi.epassi.recruitment.CommittedDataIntegrationTest;
+import fi.epassi.recruitment.book.BookBulkItem;
+import fi.epassi.recruitment.book.BookDto;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Statistics only change when their writes commit, so the test data is committed. Other classes commit books at the same time, so the
+// reconciliations are only asserted on the counters of the test's own author. The tests of this class run one after another, the lease
+// one test holds would skip the reconciliation of another.
+@Execution(ExecutionMode.SAME_THREAD)
+class BookStatisticsControllerTest extends CommittedDataIntegrationTest {
+
+    private static final String BASE_PATH_V1_STATISTICS = "/api/v1/books/statistics";
+    private static final String BASE_PATH_V1_AUTHOR_STATISTICS = BASE_PATH_V1_STATISTICS + "/authors";
+
+    @Autowired
+    private BookStatisticsService bookStatisticsService;
+
+    @Autowired
+    private AuthorStatisticsRepository authorStatisticsRepository;
+
+    @Autowired
+    private StatisticsLeaseRepository leaseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void shouldCountBooksOfAuthorThroughWrites() {
+        // Given
+        var author = "Statistics " + UUID.randomUUID();
+        var first = createBook(author, "10.00");
+        createBook(author, "14.50");
+        var third = createBook(author, "5.25");
+
+        // When
+        bookService.updateBook(book(first, author, "20.00"));
+        bookService.updateBooks(List.of(BookBulkItem.of(0, book(third, "Another " + author, "5.25"))).iterator(), true);
+        bookService.deleteBookWithIsbn(createBook(author, "99.00"));
+
+        // Then
+        assertThat(authorStatistics(author))
+            .containsEntry("books", 2)
+            .containsEntry("total_value", 34.5)
+            .containsEntry("average_price", 17.25);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithPriceHistogramMatchingTotals() {
+        // Given
+        createBook("Statistics " + UUID.randomUUID(), "12.99");
+
+        // When
+        var response = mvc.perform(get(getEndpointUrl(BASE_PATH_V1_STATISTICS)).queryParam("bucket_width", "5").contentType(APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().isOk());
+        var content = response.andReturn().getResponse().getContentAsString();
+        List<Number> bucketBooks = JsonPath.read(content, "$.response.price_histogram[*].books");
+        List<Number> bucketStarts = JsonPath.read(content, "$.response.price_histogram[*].from");
+        assertThat(bucketBooks.stream().mapToLong(Number::longValue).sum()).isEqualTo(readLong(content, "$.response.books"));
+        assertThat(bucketStarts).extracting(Number::longValue).isSorted().allMatch(from -> from % 5 == 0).contains(10L);
+        assertThat(((Number) JsonPath.read(content, "$.response.min_price")).doubleValue()).isLessThanOrEqualTo(12.99);
+        assertThat(((Number) JsonPath.read(content, "$.response.max_price")).doubleValue()).isGreaterThanOrEqualTo(12.99);
+    }
+
+    @Test
+    void shouldCorrectDriftedStatisticsWhenReconciling() {
+        // Given statistics of an author that drifted from the books
+        var author = "Statistics " + UUID.randomUUID();
+        createBook(author, "10.00");
+        transactionTemplate.executeWithoutResult(status -> authorStatisticsRepository.increment(author, 5, new BigDecimal("50.00")));
+        assertThat(storedStatistics(author).getBooks()).isEqualTo(6);
+
+        // When
+        bookStatisticsService.reconcile();
+
+        // Then
+        var statistics = storedStatistics(author);
+        assertThat(statistics.getBooks()).isOne();
+        assertThat(statistics.getPriceSum()).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void shouldSkipReconciliationWhileAnotherInstanceHoldsTheLease() {
+        // Given statistics that drifted while another instance is reconciling
+        var otherInstance = UUID.randomUUID().toString();
+        var now = Instant.now();
+        assertThat(leaseRepository.acquire(RECONCILIATION, otherInstance, now, now.plus(Duration.ofHours(1)))).isOne();
+        var author = "Statistics " + UUID.randomUUID();
+        createBook(author, "10.00");
+        transactionTemplate.executeWithoutResult(status -> authorStatisticsRepository.increment(author, 5, new BigDecimal("50.00")));
+
+        // When
+        var corrected = bookStatisticsService.reconcile();
+        leaseRepository.release(RECONCILIATION, otherInstance, Instant.now());
+
+        // Then the drift is left to the other instance instead of being added twice
+        assertThat(corrected).isZero();
+        assertThat(storedStatistics(author).getBooks()).isEqualTo(6);
+        bookStatisticsService.reconcile();
+        assertThat(storedStatistics(author).getBooks()).isOne();
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRespondWithBadRequestForEmptyBuckets() {
+        // When
+        var response = mvc.perform(get(getEndpointUrl(BASE_PATH_V1_STATISTICS)).queryParam("bucket_width", "0").contentType(APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().is4xxClientError())
+            .andExpect(jsonPath("$.status", is(BAD_REQUEST.value())));
+    }
+
+    @SneakyThrows
+    private Map<String, Object> authorStatistics(String author) {
+        var request = get(getEndpointUrl(BASE_PATH_V1_AUTHOR_STATISTICS)).queryParam("limit", "1000").contentType(APPLICATION_JSON);
+        var content = mvc.perform(request)
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        List<Map<String, Object>> authors = JsonPath.read(content, "$.response[?(@.author == '%s')]".formatted(author));
+        assertThat(authors).hasSize(1);
+        return authors.get(0);
+    }
+
+    /**
+     * Counters of the author as stored, without the ranking of the endpoint, in which the books of other classes may push it down.
+     */
+    private AuthorStatisticsModel storedStatistics(String author) {
+        return authorStatisticsRepository.findById(author).orElseThrow();
+    }
+
+    private static long readLong(String content, String path) {
+        return ((Number) JsonPath.read(content, path)).longValue();
+    }
+
+    private UUID createBook(String author, String price) {
+        return createBook("The Children of Hurin", author, price).isbn();
+    }
+
+    private static BookDto book(UUID isbn, String author, String price) {
+        return book(isbn, "The Children of Hurin", author, price);
+    }
+}